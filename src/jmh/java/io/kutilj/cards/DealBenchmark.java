@@ -0,0 +1,137 @@
+package io.kutilj.cards;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks dealing from a full Deck to different numbers of Players and Cards
+ * <p>
+ * Each operation also collects the dealt Cards back into the Deck so the next deal starts from a full Deck, the
+ * {@code collect} benchmark measures that part on its own.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DealBenchmark {
+
+    /**
+     * The number of Players dealt to
+     */
+    @Param({"2", "6", "10"})
+    public int numPlayers;
+
+    /**
+     * The number of Cards dealt to each Player
+     */
+    @Param({"2", "5"})
+    public int numCards;
+
+    /**
+     * The Dealer holding a full Deck
+     */
+    private Dealer dealer;
+
+    /**
+     * A Dealer shuffling a full Deck lazily
+     */
+    private Dealer lazyDealer;
+
+    /**
+     * The Players dealt to
+     */
+    private List<Player> players;
+
+    /**
+     * Creates the Dealer and the Players
+     */
+    @Setup
+    public void setup() {
+        dealer = new Dealer(Fixtures.fullDeck());
+        lazyDealer = new Dealer(Fixtures.fullDeck()).withLazyShuffle(true);
+        players = Fixtures.players(numPlayers);
+    }
+
+    /**
+     * Deals to every Player and collects the Cards back
+     *
+     * @return Returns the Players so the deal isn't optimized away
+     */
+    @Benchmark
+    public List<Player> deal() {
+
+        dealer.deal(players, numCards);
+        Fixtures.collect(players, dealer.getDeck());
+
+        return players;
+
+    }
+
+    /**
+     * Takes the top Cards of the Deck and puts them back without dealing them, the cost included in {@link #deal()}
+     *
+     * @return Returns the Deck so the work isn't optimized away
+     */
+    @Benchmark
+    public Deck collect() {
+
+        Deck deck = dealer.getDeck();
+
+        for (int i = numPlayers * numCards; i > 0; i--) {
+            deck.addCard(deck.draw());
+        }
+
+        return deck;
+
+    }
+
+    /**
+     * Shuffles the whole Deck, deals to every Player and collects the Cards back
+     *
+     * @return Returns the Players so the deal isn't optimized away
+     */
+    @Benchmark
+    public List<Player> shuffleAndDeal() {
+
+        dealer.shuffle();
+
+        return deal();
+
+    }
+
+    /**
+     * Shuffles the Deck lazily, deals to every Player and resets the Deck, so only the Cards dealt are randomized
+     *
+     * @return Returns the Players so the deal isn't optimized away
+     */
+    @Benchmark
+    public List<Player> lazyShuffleAndDeal() {
+
+        lazyDealer.shuffle();
+        lazyDealer.deal(players, numCards);
+
+        for (int i = 0; i < numPlayers; i++) {
+            players.get(i).getHand().clear();
+        }
+
+        lazyDealer.getDeck().undoLazyShuffle();
+
+        return players;
+
+    }
+
+}
@@ -0,0 +1,168 @@
+package io.kutilj.cards;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks adding and removing Cards, building Decks, rendering Decks and Players as text and encoding Decks
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DeckBenchmark {
+
+    /**
+     * A full Deck that Cards are removed from and added back to
+     */
+    private Deck deck;
+
+    /**
+     * A Player holding a five Card hand
+     */
+    private Player player;
+
+    /**
+     * The ordinal of the next Card to remove and add back
+     */
+    private int next;
+
+    /**
+     * The buffer Decks are encoded into
+     */
+    private final ByteBuffer encoded = ByteBuffer.allocate(Deck.encodedLength(Card.COUNT));
+
+    /**
+     * Creates the Deck and the Player
+     */
+    @Setup
+    public void setup() {
+
+        deck = Fixtures.fullDeck();
+
+        new Dealer(deck, RandomSource.seeded(1)).shuffle();
+
+        List<Player> players = Fixtures.players(1);
+
+        new Dealer(Fixtures.fullDeck()).deal(players, 5);
+        player = players.get(0);
+
+    }
+
+    /**
+     * Removes a Card from the middle of the Deck and adds it back to the bottom
+     *
+     * @return Returns the Deck so the work isn't optimized away
+     */
+    @Benchmark
+    public Deck removeAndAddCard() {
+
+        Card card = deck.getCards().get(next);
+
+        deck.removeCard(card);
+        deck.addCard(card);
+
+        next = (next + 17) % Card.COUNT;
+
+        return deck;
+
+    }
+
+    /**
+     * Builds a full Deck from the shared Cards
+     *
+     * @return Returns the new Deck
+     */
+    @Benchmark
+    public Deck buildFullDeck() {
+        return Fixtures.fullDeck();
+    }
+
+    /**
+     * Builds a full Deck by constructing every Card from its Name, Suit and value
+     *
+     * @return Returns the new Deck
+     */
+    @Benchmark
+    public Deck buildFullDeckByName() {
+
+        Deck full = new Deck();
+
+        for (int ordinal = 0; ordinal < Card.COUNT; ordinal++) {
+
+            Card card = Card.valueOf(ordinal);
+
+            full.addCard(new Card(card.getName(), card.getSuit(), card.getValue()));
+
+        }
+
+        return full;
+
+    }
+
+    /**
+     * Renders the full Deck as text
+     *
+     * @return Returns the text
+     */
+    @Benchmark
+    public String deckToString() {
+        return deck.toString();
+    }
+
+    /**
+     * Renders the Player and their hand as text
+     *
+     * @return Returns the text
+     */
+    @Benchmark
+    public String playerToString() {
+        return player.toString();
+    }
+
+    /**
+     * Encodes the order of the Deck as the rank of its permutation
+     *
+     * @return Returns the buffer so the encoding isn't optimized away
+     */
+    @Benchmark
+    public ByteBuffer encodeDeck() {
+
+        encoded.clear();
+        deck.encode(encoded);
+
+        return encoded;
+
+    }
+
+    /**
+     * Decodes the order of a Deck from the rank of its permutation
+     *
+     * @return Returns the decoded Deck
+     */
+    @Benchmark
+    public Deck decodeDeck() {
+
+        encoded.clear();
+        deck.encode(encoded);
+        encoded.flip();
+
+        return Deck.decode(encoded);
+
+    }
+
+}
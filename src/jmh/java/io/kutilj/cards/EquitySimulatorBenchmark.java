@@ -0,0 +1,92 @@
+package io.kutilj.cards;
+
+import io.kutilj.cards.poker.EquityResult;
+import io.kutilj.cards.poker.EquitySimulator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks estimating the preflop equity of three hold'em hands on different numbers of threads
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EquitySimulatorBenchmark {
+
+    /**
+     * The number of trials per invocation
+     */
+    private static final int TRIALS = 1 << 20;
+
+    /**
+     * The number of threads of the fork/join pool
+     */
+    @Param({"1", "4"})
+    public int threads;
+
+    /**
+     * The pool the trials run on
+     */
+    private ForkJoinPool pool;
+
+    /**
+     * The simulator under test
+     */
+    private EquitySimulator simulator;
+
+    /**
+     * The masks of the hands
+     */
+    private final long[] hands = {3L, 3L << 20, 3L << 40};
+
+    /**
+     * The seed of the next invocation
+     */
+    private long seed;
+
+    /**
+     * Creates the pool
+     */
+    @Setup
+    public void setup() {
+        pool = new ForkJoinPool(threads);
+        simulator = new EquitySimulator(pool);
+    }
+
+    /**
+     * Shuts the pool down
+     */
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Runs one simulation
+     *
+     * @return Returns the result so the work isn't optimized away
+     */
+    @Benchmark
+    @OperationsPerInvocation(TRIALS)
+    public EquityResult simulate() {
+        return simulator.simulate(hands, 0L, 0L, TRIALS, seed++);
+    }
+
+}
@@ -0,0 +1,74 @@
+package io.kutilj.cards;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Helper methods for setting up the state of the benchmarks
+ */
+final class Fixtures {
+
+    /**
+     * Not instantiable
+     */
+    private Fixtures() {
+    }
+
+    /**
+     * Creates a new organized full Deck
+     *
+     * @return Returns a new full Deck
+     */
+    static Deck fullDeck() {
+
+        Deck deck = new Deck();
+
+        for (int ordinal = 0; ordinal < Card.COUNT; ordinal++) {
+            deck.addCard(Card.valueOf(ordinal));
+        }
+
+        return deck;
+
+    }
+
+    /**
+     * Creates Players with empty hands
+     *
+     * @param numPlayers The number of Players
+     * @return Returns a List of Players
+     */
+    static List<Player> players(int numPlayers) {
+
+        List<Player> players = new ArrayList<>();
+
+        for (int i = 0; i < numPlayers; i++) {
+            players.add(new Player("Player " + i));
+        }
+
+        return players;
+
+    }
+
+    /**
+     * Moves the Cards in the hands of the Players back to the bottom of the Deck
+     *
+     * @param players The Players to collect the Cards from
+     * @param deck    The Deck to return the Cards to
+     */
+    static void collect(List<Player> players, Deck deck) {
+
+        for (int i = 0; i < players.size(); i++) {
+
+            List<Card> hand = players.get(i).getHand();
+
+            for (int j = 0; j < hand.size(); j++) {
+                deck.addCard(hand.get(j));
+            }
+
+            hand.clear();
+
+        }
+
+    }
+
+}
@@ -0,0 +1,82 @@
+package io.kutilj.cards;
+
+import io.kutilj.cards.poker.HandEvaluator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks ranking random poker hands
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class HandEvaluatorBenchmark {
+
+    /**
+     * The number of hands ranked per invocation
+     */
+    private static final int HANDS = 1024;
+
+    /**
+     * The number of Cards in each hand
+     */
+    @Param({"5", "7"})
+    public int size;
+
+    /**
+     * The masks of the hands
+     */
+    private final long[] hands = new long[HANDS];
+
+    /**
+     * Deals the random hands
+     */
+    @Setup
+    public void setup() {
+
+        SplittableRandom random = new SplittableRandom(1);
+
+        for (int i = 0; i < HANDS; i++) {
+            while (Long.bitCount(hands[i]) < size) {
+                hands[i] |= 1L << random.nextInt(Card.COUNT);
+            }
+        }
+
+    }
+
+    /**
+     * Ranks every hand
+     *
+     * @return Returns the sum of the strengths so the work isn't optimized away
+     */
+    @Benchmark
+    @OperationsPerInvocation(HANDS)
+    public long evaluate() {
+
+        long sum = 0;
+
+        for (long hand : hands) {
+            sum += HandEvaluator.evaluate(hand);
+        }
+
+        return sum;
+
+    }
+
+}
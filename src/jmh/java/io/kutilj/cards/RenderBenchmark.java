@@ -0,0 +1,119 @@
+package io.kutilj.cards;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks logging a deal of 2 Cards to each of 6 Players, through toString and through the renderer
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RenderBenchmark {
+
+    /**
+     * The Players holding the deal
+     */
+    private List<Player> players;
+
+    /**
+     * The reused text target
+     */
+    private final StringBuilder text = new StringBuilder(1024);
+
+    /**
+     * The reused byte target
+     */
+    private final ByteBuffer bytes = ByteBuffer.allocateDirect(1024);
+
+    /**
+     * Deals to the Players
+     */
+    @Setup
+    public void setup() {
+        players = Fixtures.players(6);
+        new Dealer(Fixtures.fullDeck(), RandomSource.seeded(1)).deal(players, 2);
+    }
+
+    /**
+     * Renders every Player with toString
+     *
+     * @return Returns the length of the text so it isn't optimized away
+     */
+    @Benchmark
+    public int playerToString() {
+
+        int length = 0;
+
+        for (int i = 0; i < players.size(); i++) {
+            length += players.get(i).toString().length();
+        }
+
+        return length;
+
+    }
+
+    /**
+     * Renders the deal as text into a reused StringBuilder
+     *
+     * @return Returns the text
+     * @throws IOException Never, a StringBuilder cannot fail
+     */
+    @Benchmark
+    public StringBuilder appendDeal() throws IOException {
+
+        text.setLength(0);
+        CardRenderer.appendDeal(text, players, CardFormat.TEXT);
+
+        return text;
+
+    }
+
+    /**
+     * Renders the deal as JSON into a reused StringBuilder
+     *
+     * @return Returns the text
+     * @throws IOException Never, a StringBuilder cannot fail
+     */
+    @Benchmark
+    public StringBuilder appendDealJson() throws IOException {
+
+        text.setLength(0);
+        CardRenderer.appendDealJson(text, players);
+
+        return text;
+
+    }
+
+    /**
+     * Renders the deal as JSON into a reused direct buffer
+     *
+     * @return Returns the buffer
+     */
+    @Benchmark
+    public ByteBuffer putDealJson() {
+
+        bytes.clear();
+        CardRenderer.putDealJson(bytes, players);
+
+        return bytes;
+
+    }
+
+}
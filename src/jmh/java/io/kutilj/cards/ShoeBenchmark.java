@@ -0,0 +1,64 @@
+package io.kutilj.cards;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks drawing single Cards from Shoes of different sizes, the cost per Card shouldn't depend on the size
+ * <p>
+ * The Shoe is dealt to the end, so the cost of reshuffling it is spread over every Card it holds
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ShoeBenchmark {
+
+    /**
+     * The number of Decks in the Shoe
+     */
+    @Param({"1", "6", "8"})
+    public int decks;
+
+    /**
+     * The Shoe Cards are drawn from
+     */
+    private Shoe shoe;
+
+    /**
+     * Creates the Shoe
+     */
+    @Setup
+    public void setup() {
+        shoe = new Shoe(decks).withPenetration(1);
+        shoe.newRound();
+    }
+
+    /**
+     * Draws one Card, reshuffling when the Shoe runs out
+     *
+     * @return Returns the Card
+     */
+    @Benchmark
+    public Card draw() {
+
+        if (shoe.remaining() == 0) shoe.shuffle();
+
+        return shoe.draw();
+
+    }
+
+}
@@ -0,0 +1,93 @@
+package io.kutilj.cards;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks shuffling a full Deck with each ShuffleModel, and with Fisher-Yates drawing from the buffered secure source
+ * or straight from a SecureRandom
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ShuffleBenchmark {
+
+    /**
+     * The ShuffleModel the Dealer uses
+     */
+    @Param({"fisherYates", "riffle", "overhand", "strip", "secure", "secureUnbuffered"})
+    public String model;
+
+    /**
+     * The Dealer holding a full Deck, one per benchmark thread
+     */
+    private Dealer dealer;
+
+    /**
+     * Creates the Dealer with the ShuffleModel under test
+     */
+    @Setup
+    public void setup() {
+
+        ShuffleModel shuffleModel;
+        RandomSource randomSource;
+
+        switch (model) {
+            case "secure":
+                randomSource = RandomSource.secure();
+                break;
+            case "secureUnbuffered":
+                randomSource = RandomSource.of(new SecureRandom()::nextLong);
+                break;
+            default:
+                randomSource = RandomSource.threadLocal();
+        }
+
+        switch (model) {
+            case "riffle":
+                shuffleModel = ShuffleModel.riffle();
+                break;
+            case "overhand":
+                shuffleModel = ShuffleModel.overhand();
+                break;
+            case "strip":
+                shuffleModel = ShuffleModel.strip();
+                break;
+            default:
+                shuffleModel = ShuffleModel.fisherYates();
+        }
+
+        dealer = new Dealer(Fixtures.fullDeck(), randomSource).withShuffleModel(shuffleModel);
+
+    }
+
+    /**
+     * Shuffles and cuts the Deck
+     *
+     * @return Returns the Deck so the shuffle isn't optimized away
+     */
+    @Benchmark
+    public Deck shuffle() {
+
+        dealer.shuffle();
+
+        return dealer.getDeck();
+
+    }
+
+}
@@ -0,0 +1,111 @@
+package io.kutilj.cards;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks branching and rolling back a Hold'em table of 6 Players, by snapshots and by the undo log
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TableStateBenchmark {
+
+    /**
+     * The plan of a round
+     */
+    private final DealPlan plan = DealPlan.holdem(6);
+
+    /**
+     * The Deck of the table
+     */
+    private Deck deck;
+
+    /**
+     * The Players of the table
+     */
+    private List<Player> players;
+
+    /**
+     * The board of the table
+     */
+    private final List<Card> board = new ArrayList<>();
+
+    /**
+     * The log of the table
+     */
+    private UndoLog log;
+
+    /**
+     * The state of the table after a round
+     */
+    private TableSnapshot dealt;
+
+    /**
+     * Deals a round and snapshots it
+     */
+    @Setup
+    public void setup() {
+
+        deck = Fixtures.fullDeck();
+        players = Fixtures.players(6);
+        log = new UndoLog(deck, players, board);
+
+        new Dealer(deck, RandomSource.seeded(1)).shuffle();
+        log.deal(plan);
+        dealt = TableSnapshot.of(deck, players);
+        log.clear();
+
+    }
+
+    /**
+     * Takes a snapshot of the table and restores it
+     *
+     * @return Returns the snapshot so it isn't optimized away
+     */
+    @Benchmark
+    public TableSnapshot snapshotAndRestore() {
+
+        TableSnapshot snapshot = TableSnapshot.of(deck, players);
+
+        dealt.restore(deck, players);
+
+        return snapshot;
+
+    }
+
+    /**
+     * Deals the rest of a round through the log and undoes it
+     *
+     * @return Returns the log so the work isn't optimized away
+     */
+    @Benchmark
+    public UndoLog drawAndUndo() {
+
+        for (int player = 0; player < players.size(); player++) {
+            log.draw(player);
+        }
+
+        log.burn();
+        log.undoTo(0);
+
+        return log;
+
+    }
+
+}
@@ -2,72 +2,217 @@ package io.kutilj.cards;
 
 /**
  * A simple class that represents a Card in a card game
+ * <p>
+ * There are exactly 52 distinct Cards, each identified by an ordinal between 0 and 51. The ordinal is laid out as
+ * {@code suitIndex * 13 + (value - 1)} with the suits ordered Clubs, Hearts, Spades, Diamonds, so iterating the
+ * ordinals in order yields an organized Deck. Every Card is immutable and one shared instance exists per ordinal,
+ * which can be retrieved through {@link #valueOf(int)} or {@link #valueOf(String, String)}.
  */
-public class Card {
+public final class Card {
 
     /**
-     * The Name of the Card
+     * The number of distinct Cards in a standard Deck
      */
-    private String name;
+    public static final int COUNT = 52;
 
     /**
-     * The Suit of the Card
+     * The number of Cards in a single Suit
      */
-    private String suit;
+    public static final int RANKS = 13;
 
     /**
-     * The value of the Card
+     * The number of Suits in a standard Deck
      */
-    private int value;
+    public static final int SUITS = 4;
 
     /**
-     * Default constructor
+     * The Names of the Cards, indexed by value - 1
      */
-    public Card() {
+    private static final String[] NAMES = {"Ace", "2", "3", "4", "5", "6", "7", "8", "9", "10", "Jack", "Queen", "King"};
+
+    /**
+     * The Suits of the Cards, indexed by suit index
+     */
+    private static final String[] SUIT_NAMES = {"Clubs", "Hearts", "Spades", "Diamonds"};
+
+    /**
+     * The letters of the Names in short codes, indexed by value - 1
+     */
+    private static final String RANK_CODES = "A23456789TJQK";
+
+    /**
+     * The letters of the Suits in short codes, indexed by suit index
+     */
+    private static final String SUIT_CODES = "chsd";
+
+    /**
+     * The shared instance of every Card, indexed by ordinal
+     */
+    private static final Card[] CARDS = new Card[COUNT];
+
+    /**
+     * The precomputed text rendering of every Card, indexed by ordinal
+     */
+    private static final String[] TEXT = new String[COUNT];
+
+    /**
+     * The precomputed short code of every Card, indexed by ordinal
+     */
+    private static final String[] CODES = new String[COUNT];
+
+    static {
+        for (int ordinal = 0; ordinal < COUNT; ordinal++) {
+            CARDS[ordinal] = new Card(ordinal);
+            TEXT[ordinal] = NAMES[ordinal % RANKS] + " of " + SUIT_NAMES[ordinal / RANKS];
+            CODES[ordinal] = "" + RANK_CODES.charAt(ordinal % RANKS) + SUIT_CODES.charAt(ordinal / RANKS);
+        }
+    }
+
+    /**
+     * The ordinal of the Card
+     */
+    private final int ordinal;
+
+    /**
+     * Constructs the Card with the given ordinal
+     *
+     * @param ordinal The ordinal of the Card
+     */
+    private Card(int ordinal) {
+        this.ordinal = ordinal;
     }
 
     /**
      * Constructs a card with a Name, Suit, and value
+     * <p>
+     * The Card resolves to the same identity as the shared instance returned by {@link #valueOf(String, String)}, prefer
+     * that method to avoid creating a new object.
      *
      * @param name  The Name of the Card
      * @param suit  The Suit of the Card
      * @param value The value of the Card
+     * @throws IllegalArgumentException If the Name, Suit and value don't describe one of the 52 standard Cards
      */
     public Card(String name, String suit, int value) {
-        this.name = name;
-        this.suit = suit;
-        this.value = value;
+        this(ordinalOf(name, suit, value));
     }
 
     /**
-     * Gets the Name of the Card
+     * Gets the shared Card with the given ordinal
      *
-     * @return Returns the Name of the Card
+     * @param ordinal The ordinal of the Card, between 0 and 51
+     * @return Returns the shared Card
      */
-    public String getName() {
-        return name;
+    public static Card valueOf(int ordinal) {
+
+        if (ordinal < 0 || ordinal >= COUNT) throw new IllegalArgumentException("A Card ordinal must be between 0 and 51");
+
+        return CARDS[ordinal];
+
     }
 
     /**
-     * Sets the Name of the Card
+     * Gets the shared Card with the given Name and Suit
      *
-     * @param name The Name given to the Card
+     * @param name The Name of the Card
+     * @param suit The Suit of the Card
+     * @return Returns the shared Card
      */
-    public void setName(String name) {
-        this.name = name;
+    public static Card valueOf(String name, String suit) {
+        return CARDS[suitIndexOf(suit) * RANKS + rankIndexOf(name)];
+    }
+
+    /**
+     * Gets the ordinal of the Card with the given Name, Suit and value
+     *
+     * @param name  The Name of the Card
+     * @param suit  The Suit of the Card
+     * @param value The value of the Card
+     * @return Returns the ordinal of the Card
+     */
+    public static int ordinalOf(String name, String suit, int value) {
+
+        int rank = rankIndexOf(name);
+
+        if (rank + 1 != value) throw new IllegalArgumentException("The value " + value + " doesn't match the Card " + name);
+
+        return suitIndexOf(suit) * RANKS + rank;
+
+    }
+
+    /**
+     * Looks up the index of a Card Name
+     *
+     * @param name The Name of the Card
+     * @return Returns the index of the Name, which is the value of the Card - 1
+     */
+    private static int rankIndexOf(String name) {
+
+        if (name != null) {
+            for (int i = 0; i < NAMES.length; i++) {
+                if (NAMES[i].equals(name)) return i;
+            }
+        }
+
+        throw new IllegalArgumentException("Unknown Card name: " + name);
+
+    }
+
+    /**
+     * Looks up the index of a Suit
+     *
+     * @param suit The Suit of the Card
+     * @return Returns the index of the Suit
+     */
+    private static int suitIndexOf(String suit) {
+
+        if (suit != null) {
+            for (int i = 0; i < SUIT_NAMES.length; i++) {
+                if (SUIT_NAMES[i].equals(suit)) return i;
+            }
+        }
+
+        throw new IllegalArgumentException("Unknown Card suit: " + suit);
+
+    }
+
+    /**
+     * Gets the ordinal of the Card
+     *
+     * @return Returns the ordinal of the Card, between 0 and 51
+     */
+    public int getOrdinal() {
+        return ordinal;
+    }
+
+    /**
+     * Gets the index of the Suit of the Card
+     *
+     * @return Returns the index of the Suit, between 0 and 3
+     */
+    public int getSuitIndex() {
+        return ordinal / RANKS;
+    }
+
+    /**
+     * Gets the Name of the Card
+     *
+     * @return Returns the Name of the Card
+     */
+    public String getName() {
+        return NAMES[ordinal % RANKS];
     }
 
     /**
      * Builder method
      * <p>
-     * Builds a Card with the given Name
+     * Gets the Card with the given Name and the same Suit as this Card
      *
-     * @param name The Name given to the Card
-     * @return Returns a Car
+     * @param name The Name of the Card
+     * @return Returns the shared Card
      */
     public Card withName(String name) {
-        this.name = name;
-        return this;
+        return CARDS[getSuitIndex() * RANKS + rankIndexOf(name)];
     }
 
     /**
@@ -76,29 +221,19 @@ public class Card {
      * @return Returns the Suit of the Card
      */
     public String getSuit() {
-        return suit;
-    }
-
-    /**
-     * Sets the Suit of the Card
-     *
-     * @param suit The Suit given to the Card
-     */
-    public void setSuit(String suit) {
-        this.suit = suit;
+        return SUIT_NAMES[ordinal / RANKS];
     }
 
     /**
      * Builder method
      * <p>
-     * Builds a Card with the given Suit
+     * Gets the Card with the given Suit and the same Name as this Card
      *
-     * @param suit The Suit given to the Card
-     * @return Returns a Card
+     * @param suit The Suit of the Card
+     * @return Returns the shared Card
      */
     public Card withSuit(String suit) {
-        this.suit = suit;
-        return this;
+        return CARDS[suitIndexOf(suit) * RANKS + ordinal % RANKS];
     }
 
     /**
@@ -107,34 +242,46 @@ public class Card {
      * @return Returns the value of the Card
      */
     public int getValue() {
-        return value;
+        return ordinal % RANKS + 1;
     }
 
     /**
-     * Sets the value of the Card
+     * Builder method
+     * <p>
+     * Gets the Card with the given value and the same Suit as this Card
      *
-     * @param value The value given to the card
+     * @param value The value of the Card, between 1 and 13
+     * @return Returns the shared Card
      */
-    public void setValue(int value) {
-        this.value = value;
+    public Card withValue(int value) {
+
+        if (value < 1 || value > RANKS) throw new IllegalArgumentException("A Card value must be between 1 and 13");
+
+        return CARDS[getSuitIndex() * RANKS + value - 1];
+
     }
 
     /**
-     * Builder method
-     * <p>
-     * Builds a Card with the given value
+     * Gets the short code of the Card, the letter of its Name followed by the letter of its Suit
      *
-     * @param value The value given to the Card
-     * @return Returns a Card
+     * @return Returns the code, such as "As" for the Ace of Spades or "Td" for the 10 of Diamonds
      */
-    public Card withValue(int value) {
-        this.value = value;
-        return this;
+    public String getCode() {
+        return CODES[ordinal];
+    }
+
+    /**
+     * Gets the shared instance of this Card
+     *
+     * @return Returns the shared Card with the same ordinal
+     */
+    public Card canonical() {
+        return CARDS[ordinal];
     }
 
     @Override
     public String toString() {
-        return name + " of " + suit;
+        return TEXT[ordinal];
     }
 
     @Override
@@ -142,11 +289,12 @@ public class Card {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
 
-        Card card = (Card) o;
+        return ordinal == ((Card) o).ordinal;
+    }
 
-        if (value != card.value) return false;
-        if (!name.equals(card.name)) return false;
-        return suit.equals(card.suit);
+    @Override
+    public int hashCode() {
+        return ordinal;
     }
 
 }
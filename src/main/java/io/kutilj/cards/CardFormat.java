@@ -0,0 +1,76 @@
+package io.kutilj.cards;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Function;
+
+/**
+ * The ways a Card can be written as text, each precomputed for every Card as a String and as ASCII bytes
+ */
+public enum CardFormat {
+
+    /**
+     * The Name and Suit of the Card, such as "Ace of Spades", as {@link Card#toString()} gives
+     */
+    TEXT(Card::toString),
+
+    /**
+     * The short code of the Card, such as "As", as {@link Card#getCode()} gives
+     */
+    CODE(Card::getCode);
+
+    /**
+     * The text of every Card, indexed by ordinal
+     */
+    private final String[] strings = new String[Card.COUNT];
+
+    /**
+     * The text of every Card as ASCII bytes, indexed by ordinal
+     */
+    private final byte[][] bytes = new byte[Card.COUNT][];
+
+    /**
+     * Constructs a format and precomputes the text of every Card
+     *
+     * @param text Gives the text of a Card
+     */
+    CardFormat(Function<Card, String> text) {
+        for (int ordinal = 0; ordinal < Card.COUNT; ordinal++) {
+            strings[ordinal] = text.apply(Card.valueOf(ordinal));
+            bytes[ordinal] = strings[ordinal].getBytes(StandardCharsets.US_ASCII);
+        }
+    }
+
+    /**
+     * Gets the text of a Card
+     *
+     * @param card The Card
+     * @return Returns the shared text of the Card
+     */
+    public String of(Card card) {
+        return strings[card.getOrdinal()];
+    }
+
+    /**
+     * Writes the text of a Card
+     *
+     * @param out  The Appendable written to
+     * @param card The Card
+     * @throws IOException If the Appendable cannot be written to
+     */
+    public void append(Appendable out, Card card) throws IOException {
+        out.append(strings[card.getOrdinal()]);
+    }
+
+    /**
+     * Writes the text of a Card as ASCII bytes at the position of a buffer, advancing it
+     *
+     * @param out  The buffer written to
+     * @param card The Card
+     */
+    public void put(ByteBuffer out, Card card) {
+        out.put(bytes[card.getOrdinal()]);
+    }
+
+}
@@ -0,0 +1,473 @@
+package io.kutilj.cards;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * A List of Cards backed by a fixed array of 52 slots and a 64-bit membership mask
+ * <p>
+ * Bit {@code n} of the mask is set while the Card with ordinal {@code n} is in the List, so duplicate detection and
+ * {@link #contains(Object)} cost constant time. Adding or removing keeps the mask exact. Replacing elements through
+ * {@link #set(int, Card)}, as {@link java.util.Collections#shuffle(java.util.List)} does, can leave the List briefly
+ * holding a duplicate, so the mask is rebuilt on its next use instead, and rebuilt on every use for as long as a
+ * duplicate remains.
+ * <p>
+ * The Cards occupy the slots from a head cursor onwards. Removing the top Card only advances the cursor, so dealing
+ * from the top never shifts the remaining Cards.
+ * <p>
+ * A lazy shuffle randomizes each slot with one Fisher-Yates step only when it is first drawn from the top, and the rest
+ * of the List as soon as anything else looks at the order. Every swap is logged, so until the List is changed in any
+ * other way than drawing from the top, {@link #undoLazyShuffle()} puts the drawn Cards back and restores the order from before the
+ * shuffle.
+ */
+final class CardList extends AbstractList<Card> implements RandomAccess {
+
+    /**
+     * The Cards in the List
+     */
+    private final Card[] cards = new Card[Card.COUNT];
+
+    /**
+     * The slot holding the first Card of the List
+     */
+    private int head;
+
+    /**
+     * The number of Cards in the List
+     */
+    private int size;
+
+    /**
+     * The membership mask, one bit per Card ordinal
+     */
+    private long mask;
+
+    /**
+     * Whether the mask must be rebuilt before it is used
+     */
+    private boolean maskStale;
+
+    /**
+     * The source of randomness of a lazy shuffle with slots still to randomize, or null
+     */
+    private RandomSource lazyRandom;
+
+    /**
+     * The slot of the first Card when the List was last shuffled lazily, or -1 if the shuffle cannot be undone
+     */
+    private int undoFrom = -1;
+
+    /**
+     * The slot after the last slot randomized by the lazy shuffle
+     */
+    private int randomized;
+
+    /**
+     * The slot each randomized slot was swapped with, indexed from {@link #undoFrom}
+     */
+    private final byte[] swaps = new byte[Card.COUNT];
+
+    @Override
+    public Card get(int index) {
+
+        checkIndex(index, size);
+        settle();
+
+        return cards[head + index];
+
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return o instanceof Card && (mask() & bit((Card) o)) != 0;
+    }
+
+    @Override
+    public int indexOf(Object o) {
+
+        if (!contains(o)) return -1;
+
+        int ordinal = ((Card) o).getOrdinal();
+
+        settle();
+
+        for (int i = 0; i < size; i++) {
+            if (cards[head + i].getOrdinal() == ordinal) return i;
+        }
+
+        return -1;
+
+    }
+
+    @Override
+    public Card set(int index, Card card) {
+
+        checkIndex(index, size);
+
+        if (card == null) throw new NullPointerException("A Deck cannot hold a null Card");
+
+        settle();
+        undoFrom = -1;
+
+        Card old = cards[head + index];
+        cards[head + index] = card.canonical();
+
+        if (old != cards[head + index]) maskStale = true;
+
+        return old;
+
+    }
+
+    @Override
+    public void add(int index, Card card) {
+
+        checkIndex(index, size + 1);
+
+        if (card == null) throw new NullPointerException("A Deck cannot hold a null Card");
+
+        if (!(size < Card.COUNT)) throw new IllegalArgumentException("A Deck cannot be larger than 52 Cards");
+
+        if ((mask() & bit(card)) != 0) throw new IllegalArgumentException("A duplicate Card cannot be added to the Deck");
+
+        settle();
+        undoFrom = -1;
+
+        if (head + size == cards.length) compact();
+
+        System.arraycopy(cards, head + index, cards, head + index + 1, size - index);
+        cards[head + index] = card.canonical();
+        size++;
+        mask |= bit(card);
+        modCount++;
+
+    }
+
+    @Override
+    public Card remove(int index) {
+
+        checkIndex(index, size);
+        settle();
+        undoFrom = -1;
+
+        Card card = cards[head + index];
+
+        // close the gap from whichever side moves fewer Cards, removing the top Card only advances the head
+        if (index < size / 2) {
+            System.arraycopy(cards, head, cards, head + 1, index);
+            cards[head++] = null;
+        } else {
+            System.arraycopy(cards, head + index + 1, cards, head + index, size - index - 1);
+            cards[head + size - 1] = null;
+        }
+
+        size--;
+        mask &= ~bit(card);
+        modCount++;
+
+        return card;
+
+    }
+
+    @Override
+    public boolean remove(Object o) {
+
+        int index = indexOf(o);
+
+        if (index < 0) return false;
+
+        remove(index);
+
+        return true;
+
+    }
+
+    @Override
+    public void clear() {
+
+        // the slots before the head may still hold Cards drawn since a lazy shuffle
+        for (int i = 0; i < head + size; i++) {
+            cards[i] = null;
+        }
+
+        head = 0;
+        size = 0;
+        mask = 0L;
+        maskStale = false;
+        lazyRandom = null;
+        undoFrom = -1;
+        modCount++;
+
+    }
+
+    /**
+     * Removes and returns the top Card by advancing the head cursor
+     *
+     * @return Returns the top Card
+     */
+    Card removeFirst() {
+
+        checkIndex(0, size);
+
+        if (lazyRandom != null && randomized == head) randomizeNext();
+
+        Card card = cards[head];
+
+        // the slot keeps its Card while a lazy shuffle can still be undone
+        if (undoFrom < 0) cards[head] = null;
+
+        head++;
+        size--;
+        mask &= ~bit(card);
+        modCount++;
+
+        return card;
+
+    }
+
+    /**
+     * Puts a Card back on top by moving the head cursor back, so undoing a draw costs as little as the draw
+     * <p>
+     * Putting back the Card a lazy shuffle last drew keeps the shuffle undoable, anything else settles it.
+     *
+     * @param card The Card to put on top
+     */
+    void addFirst(Card card) {
+
+        if (card == null) throw new NullPointerException("A Deck cannot hold a null Card");
+
+        if (head == 0) {
+            add(0, card);
+            return;
+        }
+
+        if (!(size < Card.COUNT)) throw new IllegalArgumentException("A Deck cannot be larger than 52 Cards");
+
+        if ((mask() & bit(card)) != 0) throw new IllegalArgumentException("A duplicate Card cannot be added to the Deck");
+
+        if (undoFrom >= 0 && (head == undoFrom || cards[head - 1] != card.canonical())) {
+            settle();
+            undoFrom = -1;
+        }
+
+        cards[--head] = card.canonical();
+        size++;
+        mask |= bit(card);
+        modCount++;
+
+    }
+
+    /**
+     * Replaces every Card with all 52 Cards in ordinal order
+     */
+    void fill() {
+
+        clear();
+
+        for (int ordinal = 0; ordinal < Card.COUNT; ordinal++) {
+            cards[ordinal] = Card.valueOf(ordinal);
+        }
+
+        size = Card.COUNT;
+        mask = (1L << Card.COUNT) - 1;
+
+    }
+
+    /**
+     * Replaces every Card with Cards given by their ordinals, which must not repeat
+     *
+     * @param ordinals The array holding the ordinals
+     * @param offset   The index of the first ordinal
+     * @param count    The number of Cards
+     */
+    void restore(byte[] ordinals, int offset, int count) {
+
+        clear();
+
+        long restored = 0L;
+
+        for (int i = 0; i < count; i++) {
+            cards[i] = Card.valueOf(ordinals[offset + i]);
+            restored |= 1L << ordinals[offset + i];
+        }
+
+        size = count;
+        mask = restored;
+
+    }
+
+    /**
+     * Shuffles the Cards in place
+     *
+     * @param model  The way to shuffle the Cards
+     * @param random The source of randomness
+     */
+    void shuffle(ShuffleModel model, RandomSource random) {
+
+        lazyRandom = null;
+        undoFrom = -1;
+        model.shuffle(cards, head, head + size, random);
+
+        // a model is only meant to reorder the Cards, rebuild the mask in case it did more
+        maskStale = true;
+        modCount++;
+
+    }
+
+    /**
+     * Cuts the Cards in place so the Card at the given index becomes the top Card, using three reversals
+     *
+     * @param index The index of the Card to bring to the top
+     */
+    void rotate(int index) {
+
+        if (index < 0 || index > size) throw new IllegalArgumentException("The cut point must be between 0 and " + size);
+
+        settle();
+        undoFrom = -1;
+
+        PacketShuffle.reverse(cards, head, head + index);
+        PacketShuffle.reverse(cards, head + index, head + size);
+        PacketShuffle.reverse(cards, head, head + size);
+        modCount++;
+
+    }
+
+    /**
+     * Shuffles the Cards lazily, each slot is randomized when it is drawn or when the order is first looked at
+     *
+     * @param random The source of randomness, used until every slot is randomized
+     */
+    void shuffleLazily(RandomSource random) {
+
+        lazyRandom = size > 0 ? random : null;
+        undoFrom = head;
+        randomized = head;
+        modCount++;
+
+    }
+
+    /**
+     * Puts back every Card drawn since the last lazy shuffle and undoes its swaps
+     */
+    void undoLazyShuffle() {
+
+        if (undoFrom < 0) throw new IllegalStateException("The Deck was not lazily shuffled, or was changed since");
+
+        for (int slot = randomized - 1; slot >= undoFrom; slot--) {
+            swap(slot, swaps[slot - undoFrom]);
+        }
+
+        size += head - undoFrom;
+        head = undoFrom;
+        lazyRandom = null;
+        undoFrom = -1;
+        maskStale = true;
+        modCount++;
+
+    }
+
+    /**
+     * Randomizes the next slot of a lazy shuffle with one step of a forward Fisher-Yates shuffle
+     */
+    private void randomizeNext() {
+
+        int other = randomized + lazyRandom.nextInt(head + size - randomized);
+
+        swap(randomized, other);
+        swaps[randomized - undoFrom] = (byte) other;
+
+        if (++randomized == head + size) lazyRandom = null;
+
+    }
+
+    /**
+     * Randomizes every slot a lazy shuffle has not reached yet, before the order is looked at or changed
+     */
+    private void settle() {
+        while (lazyRandom != null) {
+            randomizeNext();
+        }
+    }
+
+    /**
+     * Swaps the Cards of two slots
+     *
+     * @param a The first slot
+     * @param b The second slot
+     */
+    private void swap(int a, int b) {
+
+        Card card = cards[a];
+
+        cards[a] = cards[b];
+        cards[b] = card;
+
+    }
+
+    /**
+     * Moves the Cards back to the start of the array to make room at the end
+     */
+    private void compact() {
+
+        System.arraycopy(cards, head, cards, 0, size);
+
+        for (int i = size; i < head + size; i++) {
+            cards[i] = null;
+        }
+
+        head = 0;
+
+    }
+
+    /**
+     * Gets the membership mask, rebuilding it first if elements were replaced since it was last used
+     *
+     * @return Returns the mask with one bit set per Card in the List
+     */
+    long mask() {
+
+        if (maskStale) {
+
+            long rebuilt = 0L;
+
+            for (int i = 0; i < size; i++) {
+                rebuilt |= bit(cards[head + i]);
+            }
+
+            mask = rebuilt;
+
+            // while a duplicate remains, removing one copy must not clear the bit of the other
+            maskStale = Long.bitCount(rebuilt) != size;
+
+        }
+
+        return mask;
+
+    }
+
+    /**
+     * Gets the mask bit of a Card
+     *
+     * @param card The Card
+     * @return Returns a mask with only the bit of the Card set
+     */
+    private static long bit(Card card) {
+        return 1L << card.getOrdinal();
+    }
+
+    /**
+     * Validates an index against a bound
+     *
+     * @param index The index to validate
+     * @param bound The exclusive upper bound of the index
+     */
+    private void checkIndex(int index, int bound) {
+        if (index < 0 || index >= bound) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+    }
+
+}
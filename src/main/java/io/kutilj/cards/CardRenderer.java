@@ -0,0 +1,377 @@
+package io.kutilj.cards;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * Writes Cards, hands and whole deals as text or JSON straight into an {@link Appendable} or a {@link ByteBuffer}
+ * <p>
+ * The text of every Card is precomputed by its {@link CardFormat}, and everything else is written a character or a
+ * byte at a time, so rendering allocates nothing beyond what the target itself does when it grows. Text joins Cards
+ * with commas and writes a Player as {@link Player#toString()} does, with one line per Player for a deal. JSON writes
+ * Cards as their short codes, a hand as {@code ["As","Td"]}, a Player as {@code {"name":"Alice","hand":[...]}} and a
+ * deal as {@code {"players":[...]}}. Bytes are written in UTF-8.
+ */
+public final class CardRenderer {
+
+    /**
+     * The hexadecimal digits used to escape control characters in JSON
+     */
+    private static final String HEX = "0123456789abcdef";
+
+    /**
+     * The text between the Name of a Player and their hand
+     */
+    private static final String HAND_PREFIX = " has a hand consisting of: ";
+
+    /**
+     * Not instantiable
+     */
+    private CardRenderer() {
+    }
+
+    /**
+     * Writes Cards as text, separated by commas
+     *
+     * @param out    The Appendable written to
+     * @param cards  The Cards
+     * @param format The format of every Card
+     * @throws IOException If the Appendable cannot be written to
+     */
+    public static void appendCards(Appendable out, List<Card> cards, CardFormat format) throws IOException {
+        for (int i = 0; i < cards.size(); i++) {
+
+            if (i > 0) out.append(',');
+
+            format.append(out, cards.get(i));
+
+        }
+    }
+
+    /**
+     * Writes a Player and their hand as text
+     *
+     * @param out    The Appendable written to
+     * @param player The Player
+     * @param format The format of every Card
+     * @throws IOException If the Appendable cannot be written to
+     */
+    public static void appendPlayer(Appendable out, Player player, CardFormat format) throws IOException {
+        out.append(player.getName()).append(HAND_PREFIX);
+        appendCards(out, player.getHand(), format);
+    }
+
+    /**
+     * Writes every Player of a deal as text, one line each
+     *
+     * @param out     The Appendable written to
+     * @param players The Players of the deal
+     * @param format  The format of every Card
+     * @throws IOException If the Appendable cannot be written to
+     */
+    public static void appendDeal(Appendable out, List<Player> players, CardFormat format) throws IOException {
+        for (int i = 0; i < players.size(); i++) {
+
+            if (i > 0) out.append('\n');
+
+            appendPlayer(out, players.get(i), format);
+
+        }
+    }
+
+    /**
+     * Writes Cards as a JSON array of short codes
+     *
+     * @param out   The Appendable written to
+     * @param cards The Cards
+     * @throws IOException If the Appendable cannot be written to
+     */
+    public static void appendJson(Appendable out, List<Card> cards) throws IOException {
+
+        out.append('[');
+
+        for (int i = 0; i < cards.size(); i++) {
+
+            if (i > 0) out.append(',');
+
+            out.append('"');
+            CardFormat.CODE.append(out, cards.get(i));
+            out.append('"');
+
+        }
+
+        out.append(']');
+
+    }
+
+    /**
+     * Writes a Player and their hand as a JSON object
+     *
+     * @param out    The Appendable written to
+     * @param player The Player
+     * @throws IOException If the Appendable cannot be written to
+     */
+    public static void appendJson(Appendable out, Player player) throws IOException {
+
+        out.append("{\"name\":");
+        appendJsonString(out, player.getName());
+        out.append(",\"hand\":");
+        appendJson(out, player.getHand());
+        out.append('}');
+
+    }
+
+    /**
+     * Writes every Player of a deal as a JSON object
+     *
+     * @param out     The Appendable written to
+     * @param players The Players of the deal
+     * @throws IOException If the Appendable cannot be written to
+     */
+    public static void appendDealJson(Appendable out, List<Player> players) throws IOException {
+
+        out.append("{\"players\":[");
+
+        for (int i = 0; i < players.size(); i++) {
+
+            if (i > 0) out.append(',');
+
+            appendJson(out, players.get(i));
+
+        }
+
+        out.append("]}");
+
+    }
+
+    /**
+     * Writes Cards as text, separated by commas, at the position of a buffer
+     *
+     * @param out    The buffer written to
+     * @param cards  The Cards
+     * @param format The format of every Card
+     */
+    public static void putCards(ByteBuffer out, List<Card> cards, CardFormat format) {
+        for (int i = 0; i < cards.size(); i++) {
+
+            if (i > 0) out.put((byte) ',');
+
+            format.put(out, cards.get(i));
+
+        }
+    }
+
+    /**
+     * Writes a Player and their hand as text at the position of a buffer
+     *
+     * @param out    The buffer written to
+     * @param player The Player
+     * @param format The format of every Card
+     */
+    public static void putPlayer(ByteBuffer out, Player player, CardFormat format) {
+        putUtf8(out, player.getName() == null ? "null" : player.getName(), false);
+        putUtf8(out, HAND_PREFIX, false);
+        putCards(out, player.getHand(), format);
+    }
+
+    /**
+     * Writes every Player of a deal as text, one line each, at the position of a buffer
+     *
+     * @param out     The buffer written to
+     * @param players The Players of the deal
+     * @param format  The format of every Card
+     */
+    public static void putDeal(ByteBuffer out, List<Player> players, CardFormat format) {
+        for (int i = 0; i < players.size(); i++) {
+
+            if (i > 0) out.put((byte) '\n');
+
+            putPlayer(out, players.get(i), format);
+
+        }
+    }
+
+    /**
+     * Writes Cards as a JSON array of short codes at the position of a buffer
+     *
+     * @param out   The buffer written to
+     * @param cards The Cards
+     */
+    public static void putJson(ByteBuffer out, List<Card> cards) {
+
+        out.put((byte) '[');
+
+        for (int i = 0; i < cards.size(); i++) {
+
+            if (i > 0) out.put((byte) ',');
+
+            out.put((byte) '"');
+            CardFormat.CODE.put(out, cards.get(i));
+            out.put((byte) '"');
+
+        }
+
+        out.put((byte) ']');
+
+    }
+
+    /**
+     * Writes a Player and their hand as a JSON object at the position of a buffer
+     *
+     * @param out    The buffer written to
+     * @param player The Player
+     */
+    public static void putJson(ByteBuffer out, Player player) {
+
+        putUtf8(out, "{\"name\":", false);
+
+        if (player.getName() == null) {
+            putUtf8(out, "null", false);
+        } else {
+            out.put((byte) '"');
+            putUtf8(out, player.getName(), true);
+            out.put((byte) '"');
+        }
+
+        putUtf8(out, ",\"hand\":", false);
+        putJson(out, player.getHand());
+        out.put((byte) '}');
+
+    }
+
+    /**
+     * Writes every Player of a deal as a JSON object at the position of a buffer
+     *
+     * @param out     The buffer written to
+     * @param players The Players of the deal
+     */
+    public static void putDealJson(ByteBuffer out, List<Player> players) {
+
+        putUtf8(out, "{\"players\":[", false);
+
+        for (int i = 0; i < players.size(); i++) {
+
+            if (i > 0) out.put((byte) ',');
+
+            putJson(out, players.get(i));
+
+        }
+
+        putUtf8(out, "]}", false);
+
+    }
+
+    /**
+     * Renders Cards as text, as {@link Deck#toString()} gives them
+     *
+     * @param cards The Cards
+     * @return Returns the Cards separated by commas
+     */
+    static String text(List<Card> cards) {
+
+        StringBuilder text = new StringBuilder(cards.size() * 16);
+
+        try {
+            appendCards(text, cards, CardFormat.TEXT);
+        } catch (IOException e) {
+            throw new AssertionError("A StringBuilder cannot fail to append", e);
+        }
+
+        return text.toString();
+
+    }
+
+    /**
+     * Renders a Player as text, as {@link Player#toString()} gives them
+     *
+     * @param player The Player
+     * @return Returns the Name and hand of the Player
+     */
+    static String text(Player player) {
+
+        StringBuilder text = new StringBuilder(64 + player.getHand().size() * 16);
+
+        try {
+            appendPlayer(text, player, CardFormat.TEXT);
+        } catch (IOException e) {
+            throw new AssertionError("A StringBuilder cannot fail to append", e);
+        }
+
+        return text.toString();
+
+    }
+
+    /**
+     * Writes a JSON string, or null
+     *
+     * @param out  The Appendable written to
+     * @param text The text of the string, or null
+     * @throws IOException If the Appendable cannot be written to
+     */
+    private static void appendJsonString(Appendable out, String text) throws IOException {
+
+        if (text == null) {
+            out.append("null");
+            return;
+        }
+
+        out.append('"');
+
+        for (int i = 0; i < text.length(); i++) {
+
+            char c = text.charAt(i);
+
+            if (c == '"' || c == '\\') {
+                out.append('\\').append(c);
+            } else if (c < 0x20) {
+                out.append("\\u00").append(HEX.charAt(c >>> 4)).append(HEX.charAt(c & 0xF));
+            } else {
+                out.append(c);
+            }
+
+        }
+
+        out.append('"');
+
+    }
+
+    /**
+     * Writes text in UTF-8 at the position of a buffer, optionally escaped for a JSON string
+     *
+     * @param out    The buffer written to
+     * @param text   The text
+     * @param escape Whether to escape quotes, backslashes and control characters
+     */
+    private static void putUtf8(ByteBuffer out, String text, boolean escape) {
+        for (int i = 0; i < text.length(); i++) {
+
+            char c = text.charAt(i);
+
+            if (escape && (c == '"' || c == '\\')) {
+                out.put((byte) '\\').put((byte) c);
+            } else if (escape && c < 0x20) {
+                out.put((byte) '\\').put((byte) 'u').put((byte) '0').put((byte) '0');
+                out.put((byte) HEX.charAt(c >>> 4)).put((byte) HEX.charAt(c & 0xF));
+            } else if (c < 0x80) {
+                out.put((byte) c);
+            } else if (c < 0x800) {
+                out.put((byte) (0xC0 | c >>> 6)).put((byte) (0x80 | c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < text.length() && Character.isLowSurrogate(text.charAt(i + 1))) {
+
+                int code = Character.toCodePoint(c, text.charAt(++i));
+
+                out.put((byte) (0xF0 | code >>> 18)).put((byte) (0x80 | code >>> 12 & 0x3F));
+                out.put((byte) (0x80 | code >>> 6 & 0x3F)).put((byte) (0x80 | code & 0x3F));
+
+            } else if (Character.isSurrogate(c)) {
+                // an unpaired surrogate has no UTF-8 encoding, write it as String.getBytes does
+                out.put((byte) '?');
+            } else {
+                out.put((byte) (0xE0 | c >>> 12)).put((byte) (0x80 | c >>> 6 & 0x3F)).put((byte) (0x80 | c & 0x3F));
+            }
+
+        }
+    }
+
+}
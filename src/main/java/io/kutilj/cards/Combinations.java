@@ -0,0 +1,396 @@
+package io.kutilj.cards;
+
+import java.util.Comparator;
+import java.util.Spliterator;
+import java.util.function.LongConsumer;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Every combination of a number of Cards out of a set of available Cards, such as the Cards left in a Deck
+ * <p>
+ * Combinations are Card masks, bit {@code n} set for the Card with ordinal {@code n} as in {@link Deck#getMask()}, and
+ * come in colexicographic order, the order of the combinatorial number system, which is also ascending numeric order
+ * of the masks. The rank of a combination is its index in that order, and any rank can be turned straight into its
+ * combination, so the combinations can be split into ranges of ranks and walked in parallel or sharded across machines.
+ * Walking them creates no object per combination.
+ */
+public final class Combinations {
+
+    /**
+     * Binomial coefficients, {@code BINOMIAL[n][k]} is the number of ways to choose k out of n
+     */
+    private static final long[][] BINOMIAL = new long[Card.COUNT + 1][Card.COUNT + 1];
+
+    static {
+        for (int n = 0; n <= Card.COUNT; n++) {
+
+            BINOMIAL[n][0] = 1;
+
+            for (int k = 1; k <= n; k++) {
+                BINOMIAL[n][k] = BINOMIAL[n - 1][k - 1] + BINOMIAL[n - 1][k];
+            }
+
+        }
+    }
+
+    /**
+     * The ordinals of the available Cards in ascending order
+     */
+    private final int[] ordinals;
+
+    /**
+     * The number of Cards in each combination
+     */
+    private final int size;
+
+    /**
+     * Constructs every combination of Cards left in a Deck
+     *
+     * @param deck The Deck holding the available Cards
+     * @param size The number of Cards in each combination
+     */
+    public Combinations(Deck deck, int size) {
+        this(deck.getMask(), size);
+    }
+
+    /**
+     * Constructs every combination of a set of Cards
+     *
+     * @param available The mask of the available Cards
+     * @param size      The number of Cards in each combination
+     */
+    public Combinations(long available, int size) {
+
+        if (available >>> Card.COUNT != 0) throw new IllegalArgumentException("The mask holds bits that are not Cards");
+
+        if (size < 0 || size > Long.bitCount(available)) throw new IllegalArgumentException("Cannot choose " + size + " out of " + Long.bitCount(available) + " Cards");
+
+        this.ordinals = new int[Long.bitCount(available)];
+        this.size = size;
+
+        for (int i = 0; available != 0; i++, available &= available - 1) {
+            ordinals[i] = Long.numberOfTrailingZeros(available);
+        }
+
+    }
+
+    /**
+     * Works out the number of ways to choose Cards
+     *
+     * @param n The number of Cards to choose from, at most 52
+     * @param k The number of Cards chosen
+     * @return Returns the binomial coefficient, 0 if k is greater than n
+     */
+    public static long binomial(int n, int k) {
+
+        if (n < 0 || n > Card.COUNT) throw new IllegalArgumentException("Cannot choose out of " + n + " Cards");
+
+        return k < 0 || k > n ? 0 : BINOMIAL[n][k];
+
+    }
+
+    /**
+     * Writes the ordinals of the Cards of a mask into an array, so a combination can be walked without a List of Cards
+     *
+     * @param mask The mask of the Cards
+     * @param into The array the ordinals are written to in ascending order, large enough for every Card of the mask
+     * @return Returns the number of ordinals written
+     */
+    public static int ordinalsOf(long mask, int[] into) {
+
+        int count = 0;
+
+        for (; mask != 0; mask &= mask - 1) {
+            into[count++] = Long.numberOfTrailingZeros(mask);
+        }
+
+        return count;
+
+    }
+
+    /**
+     * Gets the number of Cards in each combination
+     *
+     * @return Returns the size of a combination
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Gets the number of combinations
+     *
+     * @return Returns the number of combinations
+     */
+    public long count() {
+        return BINOMIAL[ordinals.length][size];
+    }
+
+    /**
+     * Gets the combination with the given rank without walking the ones before it
+     *
+     * @param rank The rank of the combination, between 0 and {@link #count()} - 1
+     * @return Returns the mask of the combination
+     */
+    public long get(long rank) {
+
+        int[] positions = new int[size];
+
+        unrank(rank, positions);
+
+        return maskOf(positions);
+
+    }
+
+    /**
+     * Gets the rank of a combination
+     *
+     * @param combination The mask of the combination
+     * @return Returns the rank of the combination
+     */
+    public long rankOf(long combination) {
+
+        if (Long.bitCount(combination) != size) throw new IllegalArgumentException("A combination must have " + size + " Cards");
+
+        long rank = 0;
+        int chosen = 0;
+
+        for (int position = 0; position < ordinals.length; position++) {
+            if ((combination & 1L << ordinals[position]) != 0) {
+                rank += BINOMIAL[position][++chosen];
+                combination &= ~(1L << ordinals[position]);
+            }
+        }
+
+        if (combination != 0) throw new IllegalArgumentException("The combination holds Cards that are not available");
+
+        return rank;
+
+    }
+
+    /**
+     * Walks every combination in order
+     *
+     * @param action The action given the mask of each combination
+     */
+    public void forEach(LongConsumer action) {
+        spliterator().forEachRemaining(action);
+    }
+
+    /**
+     * Gets a sequential stream of every combination in order
+     *
+     * @return Returns a stream of combination masks
+     */
+    public LongStream stream() {
+        return StreamSupport.longStream(spliterator(), false);
+    }
+
+    /**
+     * Gets a parallel stream of every combination, split evenly by rank
+     *
+     * @return Returns a stream of combination masks
+     */
+    public LongStream parallelStream() {
+        return StreamSupport.longStream(spliterator(), true);
+    }
+
+    /**
+     * Gets a Spliterator over every combination
+     *
+     * @return Returns a Spliterator of combination masks
+     */
+    public Spliterator.OfLong spliterator() {
+        return spliterator(0, count());
+    }
+
+    /**
+     * Gets a Spliterator over a range of ranks, for example one shard of the work
+     *
+     * @param from The rank of the first combination
+     * @param to   The rank after the last combination
+     * @return Returns a Spliterator of combination masks
+     */
+    public Spliterator.OfLong spliterator(long from, long to) {
+
+        if (from < 0 || from > to || to > count()) throw new IndexOutOfBoundsException("Ranks " + from + " to " + to + " are out of range for " + count() + " combinations");
+
+        return new RankSpliterator(from, to);
+
+    }
+
+    /**
+     * Finds the positions of the combination with the given rank, by the greedy decomposition of the combinatorial
+     * number system
+     *
+     * @param rank      The rank of the combination
+     * @param positions The array the positions within the available Cards are written to, in ascending order
+     */
+    private void unrank(long rank, int[] positions) {
+
+        if (rank < 0 || rank >= count()) throw new IndexOutOfBoundsException("Rank " + rank + " is out of range for " + count() + " combinations");
+
+        int position = ordinals.length;
+
+        for (int i = size; i > 0; i--) {
+
+            do {
+                position--;
+            } while (BINOMIAL[position][i] > rank);
+
+            positions[i - 1] = position;
+            rank -= BINOMIAL[position][i];
+
+        }
+
+    }
+
+    /**
+     * Combines positions within the available Cards into a mask
+     *
+     * @param positions The positions
+     * @return Returns the mask of the Cards at the positions
+     */
+    private long maskOf(int[] positions) {
+
+        long mask = 0;
+
+        for (int position : positions) {
+            mask |= 1L << ordinals[position];
+        }
+
+        return mask;
+
+    }
+
+    /**
+     * Walks a range of ranks, keeping the positions of the current combination and moving to the next one in place
+     */
+    private final class RankSpliterator implements Spliterator.OfLong {
+
+        /**
+         * The positions within the available Cards of the current combination, in ascending order
+         */
+        private final int[] positions = new int[size];
+
+        /**
+         * The rank of the current combination
+         */
+        private long rank;
+
+        /**
+         * The rank after the last combination
+         */
+        private final long fence;
+
+        /**
+         * The mask of the current combination
+         */
+        private long mask;
+
+        /**
+         * Constructs the Spliterator
+         *
+         * @param from The rank of the first combination
+         * @param to   The rank after the last combination
+         */
+        private RankSpliterator(long from, long to) {
+
+            this.rank = from;
+            this.fence = to;
+
+            if (from < to) {
+                unrank(from, positions);
+                mask = maskOf(positions);
+            }
+
+        }
+
+        @Override
+        public boolean tryAdvance(LongConsumer action) {
+
+            if (rank >= fence) return false;
+
+            action.accept(mask);
+
+            if (++rank < fence) advance();
+
+            return true;
+
+        }
+
+        @Override
+        public void forEachRemaining(LongConsumer action) {
+
+            while (rank < fence) {
+
+                action.accept(mask);
+
+                if (++rank < fence) advance();
+
+            }
+
+        }
+
+        /**
+         * Moves to the next combination, raising the lowest position that can move and resetting the ones below it
+         */
+        private void advance() {
+
+            int i = 0;
+
+            while (i + 1 < size && positions[i] + 1 == positions[i + 1]) {
+                i++;
+            }
+
+            for (int j = 0; j <= i; j++) {
+                mask &= ~(1L << ordinals[positions[j]]);
+            }
+
+            positions[i]++;
+            mask |= 1L << ordinals[positions[i]];
+
+            for (int j = 0; j < i; j++) {
+                positions[j] = j;
+                mask |= 1L << ordinals[j];
+            }
+
+        }
+
+        @Override
+        public Spliterator.OfLong trySplit() {
+
+            long middle = (rank + fence) >>> 1;
+
+            if (middle <= rank) return null;
+
+            // the prefix keeps walking from the current combination, this Spliterator jumps ahead to the middle
+            RankSpliterator prefix = new RankSpliterator(rank, middle);
+
+            rank = middle;
+            unrank(middle, positions);
+            mask = maskOf(positions);
+
+            return prefix;
+
+        }
+
+        @Override
+        public long estimateSize() {
+            return fence - rank;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SORTED | DISTINCT | SIZED | SUBSIZED | NONNULL | IMMUTABLE;
+        }
+
+        @Override
+        public Comparator<? super Long> getComparator() {
+            return null;
+        }
+
+    }
+
+}
@@ -0,0 +1,187 @@
+package io.kutilj.cards;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A Deck that many threads can deal from at once without locking
+ * <p>
+ * The order of the Cards is fixed when the Deck is created and never changes afterwards. Drawing a Card is a single
+ * atomic increment of a cursor, and drawing several Cards claims the whole range with one compare-and-set, so every Card
+ * is handed out exactly once however many threads draw. Like a Shoe, the Cards may hold several copies of the same Card.
+ */
+public final class ConcurrentDeck {
+
+    /**
+     * The Cards in the order they are dealt, never modified after construction
+     */
+    private final Card[] cards;
+
+    /**
+     * The index of the next Card to be dealt, it may run past the end once the Deck is empty
+     */
+    private final AtomicInteger cursor = new AtomicInteger();
+
+    /**
+     * Constructs a Deck that deals the given Cards in order
+     *
+     * @param cards The Cards to deal, they are copied
+     */
+    public ConcurrentDeck(List<Card> cards) {
+        this(toArray(cards));
+    }
+
+    /**
+     * Constructs a Deck that deals the given Cards in order
+     *
+     * @param cards The Cards to deal, owned by the Deck from now on
+     */
+    private ConcurrentDeck(Card[] cards) {
+        this.cards = cards;
+    }
+
+    /**
+     * Creates a Deck that deals the given Cards in a shuffled order
+     *
+     * @param cards        The Cards to deal, they are copied
+     * @param randomSource The source of randomness used to shuffle
+     * @return Returns a new shuffled ConcurrentDeck
+     */
+    public static ConcurrentDeck shuffled(List<Card> cards, RandomSource randomSource) {
+
+        Card[] shuffled = toArray(cards);
+
+        ShuffleModel.fisherYates().shuffle(shuffled, 0, shuffled.length, randomSource);
+
+        return new ConcurrentDeck(shuffled);
+
+    }
+
+    /**
+     * Copies Cards into an array
+     *
+     * @param cards The Cards to copy
+     * @return Returns the array of shared Cards
+     */
+    private static Card[] toArray(List<Card> cards) {
+
+        Card[] array = new Card[cards.size()];
+
+        for (int i = 0; i < array.length; i++) {
+            array[i] = cards.get(i).canonical();
+        }
+
+        return array;
+
+    }
+
+    /**
+     * Gets the total number of Cards in the Deck, dealt or not
+     *
+     * @return Returns the number of Cards
+     */
+    public int size() {
+        return cards.length;
+    }
+
+    /**
+     * Gets the number of Cards still to be dealt
+     *
+     * @return Returns the number of remaining Cards
+     */
+    public int remaining() {
+        return Math.max(0, cards.length - cursor.get());
+    }
+
+    /**
+     * Deals the next Card
+     *
+     * @return Returns the dealt Card, or null if the Deck is empty
+     */
+    public Card draw() {
+
+        // checking first keeps a drained Deck from counting the cursor up towards overflow
+        if (cursor.get() >= cards.length) return null;
+
+        int index = cursor.getAndIncrement();
+
+        return index < cards.length ? cards[index] : null;
+
+    }
+
+    /**
+     * Deals up to the given number of Cards as one contiguous run from the Deck
+     *
+     * @param into   The array the Cards are written to
+     * @param offset The index of the first Card written
+     * @param count  The number of Cards wanted
+     * @return Returns the number of Cards dealt, fewer than wanted only if the Deck ran out
+     */
+    public int draw(Card[] into, int offset, int count) {
+
+        int start = claim(count, false);
+
+        if (start < 0) return 0;
+
+        int claimed = Math.min(count, cards.length - start);
+
+        System.arraycopy(cards, start, into, offset, claimed);
+
+        return claimed;
+
+    }
+
+    /**
+     * Deals Cards from the Deck to designated number of Players, one at a time to each Player in turn
+     * <p>
+     * Every Card of the deal is claimed at once, so the Players get consecutive Cards even while other threads draw. The
+     * Players themselves must only be used by the calling thread.
+     *
+     * @param players  A list of Players to be dealt Cards
+     * @param numCards The number of Cards to be dealt to each Player
+     */
+    public void deal(List<Player> players, int numCards) {
+
+        int numPlayers = players.size();
+
+        if (numPlayers * numCards == 0) return;
+
+        int start = claim(numPlayers * numCards, true);
+
+        if (start < 0) {
+            throw new IllegalArgumentException("The given number of players and cards to deal is greater than the cards left in the deck");
+        }
+
+        for (int round = 0; round < numCards; round++) {
+            for (int player = 0; player < numPlayers; player++) {
+                players.get(player).addCard(cards[start++]);
+            }
+        }
+
+    }
+
+    /**
+     * Claims a run of Cards with a single successful compare-and-set
+     *
+     * @param count The number of Cards wanted
+     * @param exact Whether to claim nothing rather than fewer Cards than wanted
+     * @return Returns the index of the first claimed Card, or -1 if nothing was claimed
+     */
+    private int claim(int count, boolean exact) {
+
+        if (count < 0) throw new IllegalArgumentException("Cannot draw a negative number of Cards");
+
+        while (true) {
+
+            int start = cursor.get();
+            int available = cards.length - start;
+
+            if (available <= 0 || (exact && available < count)) return -1;
+
+            if (cursor.compareAndSet(start, start + Math.min(count, available))) return start;
+
+        }
+
+    }
+
+}
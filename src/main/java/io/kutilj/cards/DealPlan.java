@@ -0,0 +1,445 @@
+package io.kutilj.cards;
+
+import java.util.Arrays;
+
+/**
+ * A dealing pattern compiled once into where every Card from the top of the Deck goes
+ * <p>
+ * A plan is built from steps, such as a Card to each Player in turn, Cards to one Player, burned Cards and Cards to
+ * the community board, and compiled into a flat map from the position of a Card in the Deck to its destination: the
+ * index of a Player, {@link #BOARD} or {@link #BURN}. Dealing a round with {@link Dealer#deal(DealPlan, java.util.List,
+ * java.util.List)} then walks that map once. Every position also remembers whether its Card is dealt face up, which
+ * the plan answers for the Cards of each hand and of the board. A plan is immutable and can be shared between Dealers
+ * and threads.
+ */
+public final class DealPlan {
+
+    /**
+     * The destination of a Card that is burned
+     */
+    public static final int BURN = -1;
+
+    /**
+     * The destination of a Card that goes to the community board
+     */
+    public static final int BOARD = -2;
+
+    /**
+     * The number of Players dealt to
+     */
+    private final int numPlayers;
+
+    /**
+     * The destination of the Card at every position from the top of the Deck
+     */
+    private final int[] targets;
+
+    /**
+     * The index of the Card at every position within its hand, on the board or among the burned Cards
+     */
+    private final int[] slots;
+
+    /**
+     * The positions whose Cards are dealt face up, one bit each
+     */
+    private final long faceUp;
+
+    /**
+     * The number of Cards dealt to each Player
+     */
+    private final int[] handSizes;
+
+    /**
+     * The number of Cards dealt to the board
+     */
+    private final int boardSize;
+
+    /**
+     * The number of Cards burned
+     */
+    private final int burns;
+
+    /**
+     * The number of Cards each Player gets if the plan deals them one at a time to each Player in turn, or -1
+     */
+    private final int roundRobin;
+
+    /**
+     * Compiles the steps gathered by a Builder
+     *
+     * @param builder    The Builder
+     * @param roundRobin The number of Cards each Player gets if the plan only deals in turns, or -1
+     */
+    private DealPlan(Builder builder, int roundRobin) {
+
+        this.numPlayers = builder.numPlayers;
+        this.targets = Arrays.copyOf(builder.targets, builder.size);
+        this.slots = new int[builder.size];
+        this.faceUp = builder.faceUpMask;
+        this.handSizes = new int[numPlayers];
+        this.roundRobin = roundRobin;
+
+        int board = 0;
+        int burned = 0;
+
+        for (int position = 0; position < targets.length; position++) {
+
+            int target = targets[position];
+
+            slots[position] = target >= 0 ? handSizes[target]++ : target == BOARD ? board++ : burned++;
+
+        }
+
+        this.boardSize = board;
+        this.burns = burned;
+
+    }
+
+    /**
+     * Creates a plan that deals Cards one at a time to each Player in turn, as {@link Dealer#deal(java.util.List, int)}
+     * does
+     *
+     * @param numPlayers The number of Players
+     * @param numCards   The number of Cards dealt to each Player
+     * @return Returns the compiled plan
+     */
+    public static DealPlan roundRobin(int numPlayers, int numCards) {
+        return builder(numPlayers).deal(numCards).build(numCards);
+    }
+
+    /**
+     * Creates the plan of a hand of Texas Hold'em: two Cards face down to each Player, then a burn and the flop, a burn
+     * and the turn, and a burn and the river, the board face up
+     *
+     * @param numPlayers The number of Players
+     * @return Returns the compiled plan
+     */
+    public static DealPlan holdem(int numPlayers) {
+        return builder(numPlayers)
+                .deal(2)
+                .withFaceUp(true)
+                .burn(1).board(3)
+                .burn(1).board(1)
+                .burn(1).board(1)
+                .build();
+    }
+
+    /**
+     * Starts building a plan
+     *
+     * @param numPlayers The number of Players dealt to
+     * @return Returns a new Builder without any steps
+     */
+    public static Builder builder(int numPlayers) {
+        return new Builder(numPlayers);
+    }
+
+    /**
+     * Gets the number of Players dealt to
+     *
+     * @return Returns the number of Players
+     */
+    public int getNumPlayers() {
+        return numPlayers;
+    }
+
+    /**
+     * Gets the number of Cards taken from the Deck by a round
+     *
+     * @return Returns the number of Cards
+     */
+    public int size() {
+        return targets.length;
+    }
+
+    /**
+     * Gets the number of Cards dealt to a Player
+     *
+     * @param player The index of the Player
+     * @return Returns the size of the hand of the Player
+     */
+    public int getHandSize(int player) {
+        return handSizes[player];
+    }
+
+    /**
+     * Gets the number of Cards dealt to the community board
+     *
+     * @return Returns the size of the board
+     */
+    public int getBoardSize() {
+        return boardSize;
+    }
+
+    /**
+     * Gets the number of Cards burned
+     *
+     * @return Returns the number of burned Cards
+     */
+    public int getBurns() {
+        return burns;
+    }
+
+    /**
+     * Gets where the Card at a position from the top of the Deck goes
+     *
+     * @param position The position of the Card
+     * @return Returns the index of a Player, {@link #BOARD} or {@link #BURN}
+     */
+    public int getTarget(int position) {
+        return targets[position];
+    }
+
+    /**
+     * Gets the index of the Card at a position within its hand, on the board or among the burned Cards
+     *
+     * @param position The position of the Card
+     * @return Returns the index of the Card at its destination
+     */
+    public int getSlot(int position) {
+        return slots[position];
+    }
+
+    /**
+     * Checks if the Card at a position from the top of the Deck is dealt face up
+     *
+     * @param position The position of the Card
+     * @return Returns true if the Card is face up
+     */
+    public boolean isFaceUp(int position) {
+
+        if (position < 0 || position >= targets.length) throw new IndexOutOfBoundsException("Position: " + position + ", Size: " + targets.length);
+
+        return (faceUp >>> position & 1) != 0;
+
+    }
+
+    /**
+     * Checks if a Card of a hand or of the board is dealt face up
+     *
+     * @param target The index of the Player, or {@link #BOARD}
+     * @param slot   The index of the Card within the hand or on the board
+     * @return Returns true if the Card is face up
+     */
+    public boolean isFaceUp(int target, int slot) {
+
+        for (int position = 0; position < targets.length; position++) {
+            if (targets[position] == target && slots[position] == slot) return isFaceUp(position);
+        }
+
+        throw new IndexOutOfBoundsException("The plan deals no Card " + slot + " to " + target);
+
+    }
+
+    /**
+     * Checks that a round of the plan can be dealt from a Deck
+     *
+     * @param deckSize The number of Cards in the Deck
+     */
+    void checkFits(int deckSize) {
+        if (targets.length > deckSize) {
+            throw new IllegalArgumentException("The deal needs " + targets.length + " Cards but the deck only holds " + deckSize);
+        }
+    }
+
+    /**
+     * Checks if the plan deals the given number of Cards one at a time to each of the given number of Players in turn
+     *
+     * @param numPlayers The number of Players
+     * @param numCards   The number of Cards of each Player
+     * @return Returns true if the plan is that round robin
+     */
+    boolean isRoundRobin(int numPlayers, int numCards) {
+        return roundRobin == numCards && this.numPlayers == numPlayers;
+    }
+
+    /**
+     * Gets the destinations of every position, without copying them
+     *
+     * @return Returns the destinations
+     */
+    int[] targets() {
+        return targets;
+    }
+
+    /**
+     * Gathers the steps of a plan, in the order the Cards are dealt
+     */
+    public static final class Builder {
+
+        /**
+         * The number of Players dealt to
+         */
+        private final int numPlayers;
+
+        /**
+         * The destination of every position so far
+         */
+        private final int[] targets = new int[Card.COUNT];
+
+        /**
+         * The number of positions so far
+         */
+        private int size;
+
+        /**
+         * The positions dealt face up so far, one bit each
+         */
+        private long faceUpMask;
+
+        /**
+         * Whether the Cards of the next steps are dealt face up
+         */
+        private boolean faceUp;
+
+        /**
+         * Constructs a Builder without any steps
+         *
+         * @param numPlayers The number of Players dealt to
+         */
+        private Builder(int numPlayers) {
+
+            if (numPlayers < 0) throw new IllegalArgumentException("Cannot deal to a negative number of Players");
+
+            this.numPlayers = numPlayers;
+
+        }
+
+        /**
+         * Builder method
+         * <p>
+         * Deals the Cards of the next steps face up or face down, face down until this is called. Burned Cards are
+         * always face down.
+         *
+         * @param faceUp Whether the next Cards are face up
+         * @return Returns this Builder
+         */
+        public Builder withFaceUp(boolean faceUp) {
+            this.faceUp = faceUp;
+            return this;
+        }
+
+        /**
+         * Deals Cards one at a time to each Player in turn
+         *
+         * @param numCards The number of Cards dealt to each Player
+         * @return Returns this Builder
+         */
+        public Builder deal(int numCards) {
+
+            checkCount(numCards);
+
+            for (int round = 0; round < numCards; round++) {
+                for (int player = 0; player < numPlayers; player++) {
+                    add(player, faceUp);
+                }
+            }
+
+            return this;
+
+        }
+
+        /**
+         * Deals Cards to a single Player, for uneven hands
+         *
+         * @param player   The index of the Player
+         * @param numCards The number of Cards dealt
+         * @return Returns this Builder
+         */
+        public Builder dealTo(int player, int numCards) {
+
+            if (player < 0 || player >= numPlayers) throw new IllegalArgumentException("There is no Player " + player);
+
+            checkCount(numCards);
+
+            for (int i = 0; i < numCards; i++) {
+                add(player, faceUp);
+            }
+
+            return this;
+
+        }
+
+        /**
+         * Burns Cards, taking them off the Deck without dealing them
+         *
+         * @param numCards The number of Cards burned
+         * @return Returns this Builder
+         */
+        public Builder burn(int numCards) {
+
+            checkCount(numCards);
+
+            for (int i = 0; i < numCards; i++) {
+                add(BURN, false);
+            }
+
+            return this;
+
+        }
+
+        /**
+         * Deals Cards to the community board
+         *
+         * @param numCards The number of Cards dealt
+         * @return Returns this Builder
+         */
+        public Builder board(int numCards) {
+
+            checkCount(numCards);
+
+            for (int i = 0; i < numCards; i++) {
+                add(BOARD, faceUp);
+            }
+
+            return this;
+
+        }
+
+        /**
+         * Compiles the plan
+         *
+         * @return Returns the compiled DealPlan
+         */
+        public DealPlan build() {
+            return build(-1);
+        }
+
+        /**
+         * Compiles the plan
+         *
+         * @param roundRobin The number of Cards each Player gets if the plan only deals in turns, or -1
+         * @return Returns the compiled DealPlan
+         */
+        private DealPlan build(int roundRobin) {
+            return new DealPlan(this, roundRobin);
+        }
+
+        /**
+         * Adds a position
+         *
+         * @param target The destination of the Card
+         * @param up     Whether the Card is dealt face up
+         */
+        private void add(int target, boolean up) {
+
+            if (size == Card.COUNT) throw new IllegalArgumentException("A deal cannot use more than 52 Cards");
+
+            if (up) faceUpMask |= 1L << size;
+
+            targets[size++] = target;
+
+        }
+
+        /**
+         * Validates the number of Cards of a step
+         *
+         * @param numCards The number of Cards
+         */
+        private void checkCount(int numCards) {
+            if (numCards < 0) throw new IllegalArgumentException("Cannot deal a negative number of Cards");
+        }
+
+    }
+
+}
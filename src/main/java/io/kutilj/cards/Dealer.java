@@ -1,26 +1,62 @@
 package io.kutilj.cards;
 
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
-import java.util.function.Function;
-import java.util.stream.IntStream;
 
 /**
  * A simple class representing a Dealer in a card game that can shuffle the deck and deal the deck
  */
 public class Dealer {
 
+    /**
+     * Cut point meaning the Deck is cut in half after shuffling
+     */
+    public static final int CUT_MIDDLE = -1;
+
+    /**
+     * Cut point meaning the Deck is cut at a random Card after shuffling
+     */
+    public static final int CUT_RANDOM = -2;
+
     /**
      * The Deck containing the cards
      */
     private Deck deck;
 
+    /**
+     * The source of randomness used to shuffle the Deck
+     */
+    private RandomSource randomSource;
+
+    /**
+     * The way the Deck is shuffled
+     */
+    private ShuffleModel shuffleModel;
+
+    /**
+     * The index of the Card brought to the top when cutting after a shuffle, or one of the CUT constants
+     */
+    private int cutPoint;
+
+    /**
+     * The pool of shuffled Decks new rounds are started with, or null to shuffle inline
+     */
+    private ShuffledDeckPool deckPool;
+
+    /**
+     * Whether the Deck is shuffled lazily, only randomizing the Cards that are dealt
+     */
+    private boolean lazyShuffle;
+
+    /**
+     * The plan of the last round robin deal, reused while the Players and Cards stay the same
+     */
+    private DealPlan roundRobin;
+
     /**
      * Default constructor
      */
     public Dealer() {
-        deck = new Deck();
+        this(new Deck());
     }
 
     /**
@@ -29,7 +65,20 @@ public class Dealer {
      * @param deck The Deck given to the Dealer
      */
     public Dealer(Deck deck) {
+        this(deck, RandomSource.threadLocal());
+    }
+
+    /**
+     * Constructs the Dealer with a Deck and the source of randomness used to shuffle it
+     *
+     * @param deck         The Deck given to the Dealer
+     * @param randomSource The source of randomness used to shuffle
+     */
+    public Dealer(Deck deck, RandomSource randomSource) {
         this.deck = deck;
+        this.randomSource = randomSource;
+        this.shuffleModel = ShuffleModel.fisherYates();
+        this.cutPoint = CUT_MIDDLE;
     }
 
     /**
@@ -63,6 +112,208 @@ public class Dealer {
         return this;
     }
 
+    /**
+     * Gets the source of randomness used to shuffle the Deck
+     *
+     * @return Returns the current RandomSource
+     */
+    public RandomSource getRandomSource() {
+        return randomSource;
+    }
+
+    /**
+     * Sets the source of randomness used to shuffle the Deck
+     *
+     * @param randomSource The new RandomSource for the Dealer
+     */
+    public void setRandomSource(RandomSource randomSource) {
+        this.randomSource = randomSource;
+    }
+
+    /**
+     * Builder method
+     * <p>
+     * Builds a Dealer with the source of randomness passed in, for example {@link RandomSource#seeded(long)} to make
+     * every shuffle reproducible
+     *
+     * @param randomSource The RandomSource to build the Dealer with
+     * @return Returns a Dealer
+     */
+    public Dealer withRandomSource(RandomSource randomSource) {
+        this.randomSource = randomSource;
+        return this;
+    }
+
+    /**
+     * Gets the way the Deck is shuffled
+     *
+     * @return Returns the current ShuffleModel
+     */
+    public ShuffleModel getShuffleModel() {
+        return shuffleModel;
+    }
+
+    /**
+     * Sets the way the Deck is shuffled
+     *
+     * @param shuffleModel The new ShuffleModel for the Dealer
+     */
+    public void setShuffleModel(ShuffleModel shuffleModel) {
+        this.shuffleModel = shuffleModel;
+    }
+
+    /**
+     * Builder method
+     * <p>
+     * Builds a Dealer with the ShuffleModel passed in
+     *
+     * @param shuffleModel The ShuffleModel to build the Dealer with
+     * @return Returns a Dealer
+     */
+    public Dealer withShuffleModel(ShuffleModel shuffleModel) {
+        this.shuffleModel = shuffleModel;
+        return this;
+    }
+
+    /**
+     * Gets where the Deck is cut after shuffling
+     *
+     * @return Returns the index of the Card brought to the top, {@link #CUT_MIDDLE} or {@link #CUT_RANDOM}
+     */
+    public int getCutPoint() {
+        return cutPoint;
+    }
+
+    /**
+     * Sets where the Deck is cut after shuffling
+     *
+     * @param cutPoint The index of the Card brought to the top, {@link #CUT_MIDDLE} or {@link #CUT_RANDOM}
+     */
+    public void setCutPoint(int cutPoint) {
+
+        if (cutPoint < CUT_RANDOM) throw new IllegalArgumentException("The cut point must be an index, CUT_MIDDLE or CUT_RANDOM");
+
+        this.cutPoint = cutPoint;
+
+    }
+
+    /**
+     * Builder method
+     * <p>
+     * Builds a Dealer that cuts the Deck at the given point after shuffling
+     *
+     * @param cutPoint The index of the Card brought to the top, {@link #CUT_MIDDLE} or {@link #CUT_RANDOM}
+     * @return Returns a Dealer
+     */
+    public Dealer withCutPoint(int cutPoint) {
+        setCutPoint(cutPoint);
+        return this;
+    }
+
+    /**
+     * Gets the pool of shuffled Decks new rounds are started with
+     *
+     * @return Returns the current ShuffledDeckPool, or null if there is none
+     */
+    public ShuffledDeckPool getDeckPool() {
+        return deckPool;
+    }
+
+    /**
+     * Sets the pool of shuffled Decks new rounds are started with
+     *
+     * @param deckPool The new ShuffledDeckPool for the Dealer, or null to stop using one
+     */
+    public void setDeckPool(ShuffledDeckPool deckPool) {
+        this.deckPool = deckPool;
+    }
+
+    /**
+     * Builder method
+     * <p>
+     * Builds a Dealer that starts every round with a Deck already shuffled in the background by the given pool
+     *
+     * @param deckPool The ShuffledDeckPool to build the Dealer with
+     * @return Returns a Dealer
+     */
+    public Dealer withDeckPool(ShuffledDeckPool deckPool) {
+        this.deckPool = deckPool;
+        return this;
+    }
+
+    /**
+     * Checks if the Deck is shuffled lazily
+     *
+     * @return Returns true if only the Cards that are dealt are randomized
+     */
+    public boolean isLazyShuffle() {
+        return lazyShuffle;
+    }
+
+    /**
+     * Sets whether the Deck is shuffled lazily
+     * <p>
+     * A lazy shuffle is a Fisher-Yates shuffle that randomizes each position of the Deck only when a Card is dealt from
+     * it, so a round costs in proportion to the Cards dealt rather than the size of the Deck. The Cards dealt are exactly
+     * as random as after a full uniform shuffle, which is why the ShuffleModel and the cut are not used. The rest of the
+     * Deck is randomized as soon as its order is looked at, and {@link Deck#undoLazyShuffle()} undoes the shuffle so the Deck can
+     * be reused without rebuilding it.
+     *
+     * @param lazyShuffle Whether to shuffle lazily
+     */
+    public void setLazyShuffle(boolean lazyShuffle) {
+        this.lazyShuffle = lazyShuffle;
+    }
+
+    /**
+     * Builder method
+     * <p>
+     * Builds a Dealer that shuffles the Deck lazily
+     *
+     * @param lazyShuffle Whether to shuffle lazily
+     * @return Returns a Dealer
+     */
+    public Dealer withLazyShuffle(boolean lazyShuffle) {
+        this.lazyShuffle = lazyShuffle;
+        return this;
+    }
+
+    /**
+     * Starts a new round by swapping in a shuffled Deck from the pool and handing the current Deck back to be reused
+     */
+    public void newRound() {
+
+        if (deckPool == null) throw new IllegalStateException("The Dealer has no pool of shuffled Decks");
+
+        Deck used = deck;
+
+        deck = deckPool.take();
+        deckPool.recycle(used);
+
+    }
+
+    /**
+     * Starts a new round with the current Deck refilled in order, reusing it rather than creating a new one
+     */
+    public void reset() {
+        deck.reset();
+    }
+
+    /**
+     * Starts a new round: refills the current Deck in order and empties the hands of the Players
+     *
+     * @param players The Players of the round
+     */
+    public void reset(List<Player> players) {
+
+        deck.reset();
+
+        for (int i = 0; i < players.size(); i++) {
+            players.get(i).reset();
+        }
+
+    }
+
     /**
      * Adds a Card to the current Deck
      *
@@ -73,48 +324,93 @@ public class Dealer {
     }
 
     /**
-     * Shuffles the Deck the Dealer currently has
+     * Shuffles the Deck the Dealer currently has and then cuts it, or shuffles it lazily without cutting if the Dealer
+     * shuffles lazily
      */
     public void shuffle() {
 
-        // randomly sort the deck of cards
-        Collections.shuffle(deck.getCards());
+        if (lazyShuffle) {
+            deck.shuffleLazily(randomSource);
+            return;
+        }
 
-        // cut the shuffled deck in half
-        List<Card> topOfDeck = new ArrayList<>(deck.getCards().subList(0, 26));
-        List<Card> bottomOfDeck = new ArrayList<>(deck.getCards().subList(26, 52));
+        deck.shuffle(shuffleModel, randomSource);
 
-        // clear the original deck
-        deck.getCards().clear();
+        int size = deck.getCards().size();
 
-        // add back the bottom of the original deck first and then top of the original deck second
-        deck.getCards().addAll(bottomOfDeck);
-        deck.getCards().addAll(topOfDeck);
+        if (cutPoint == CUT_MIDDLE) {
+            deck.cut(size / 2);
+        } else if (cutPoint == CUT_RANDOM) {
+            deck.cut(size > 1 ? 1 + randomSource.nextInt(size - 1) : 0);
+        } else {
+            deck.cut(cutPoint);
+        }
 
     }
 
+    /**
+     * Cuts the Deck in place, moving the Cards above the cut point to the bottom
+     *
+     * @param index The index of the Card that becomes the top of the Deck
+     */
+    public void cut(int index) {
+        deck.cut(index);
+    }
+
     /**
      * Deals Cards from the Deck to designated number of Players
+     * <p>
+     * Cards are handed out one at a time to each Player in turn, starting from the top of the Deck. The plan of the deal
+     * is compiled on the first call and reused while the number of Players and Cards stays the same.
      *
      * @param players  A list of Players to be dealt Cards
      * @param numCards The number of Cards to be dealt to each Player
      */
     public void deal(List<Player> players, int numCards) {
 
-        if (players.size() * numCards > deck.getCards().size()) {
-            throw new IllegalArgumentException("The given number of players and cards to deal is greater than the size of the deck");
+        DealPlan plan = roundRobin;
+
+        if (plan == null || !plan.isRoundRobin(players.size(), numCards)) {
+            plan = DealPlan.roundRobin(players.size(), numCards);
+            roundRobin = plan;
         }
 
-        IntStream.range(0, numCards)
-                .mapToObj(i -> players.stream())
-                .flatMap(Function.identity())
-                .forEach(
-                        player ->
-                        {
-                            player.addCard(deck.getCards().get(0));
-                            deck.getCards().remove(0);
-                        }
-                );
+        deal(plan, players, null);
+
+    }
+
+    /**
+     * Deals a round from the top of the Deck following a plan
+     * <p>
+     * The plan is checked against the Players, the board and the size of the Deck before any Card is taken, then every
+     * Card is drawn and added to the hand or the board its position leads to, or dropped if it is burned.
+     *
+     * @param plan    The compiled plan of the round
+     * @param players The Players to be dealt Cards, as many as the plan deals to
+     * @param board   The community board the board Cards are added to, or null if the plan deals none
+     */
+    public void deal(DealPlan plan, List<Player> players, List<Card> board) {
+
+        if (players.size() != plan.getNumPlayers()) throw new IllegalArgumentException("The plan deals to " + plan.getNumPlayers() + " Players");
+
+        if (board == null && plan.getBoardSize() > 0) throw new IllegalArgumentException("The plan deals Cards to a board");
+
+        plan.checkFits(deck.getCards().size());
+
+        int[] targets = plan.targets();
+
+        for (int position = 0; position < targets.length; position++) {
+
+            Card card = deck.draw();
+            int target = targets[position];
+
+            if (target >= 0) {
+                players.get(target).addCard(card);
+            } else if (target == DealPlan.BOARD) {
+                board.add(card);
+            }
+
+        }
 
     }
 
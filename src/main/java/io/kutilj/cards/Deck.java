@@ -1,24 +1,26 @@
 package io.kutilj.cards;
 
-import java.util.ArrayList;
+import java.nio.ByteBuffer;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * A simple class that represents a Deck in a card game
+ * <p>
+ * The Cards are kept in order alongside a 64-bit membership mask, so checking for, adding and removing a Card never
+ * scans the Deck to find duplicates.
  */
 public class Deck {
 
     /**
      * The Cards in the Deck
      */
-    private List<Card> cards;
+    private CardList cards;
 
     /**
      * Default constructor
      */
     public Deck() {
-        cards = new ArrayList<>();
+        cards = new CardList();
     }
 
     /**
@@ -27,11 +29,13 @@ public class Deck {
      * @param cards The List of Cards given to construct the Deck
      */
     public Deck(List<Card> cards) {
-        this.cards = cards;
+        this.cards = copyOf(cards);
     }
 
     /**
      * Gets the current Cards in the Deck
+     * <p>
+     * The returned List is backed by the Deck and rejects duplicates and more than 52 Cards
      *
      * @return Returns the List of Cards in the Deck
      */
@@ -45,7 +49,7 @@ public class Deck {
      * @param cards The Cards given to the Deck
      */
     public void setCards(List<Card> cards) {
-        this.cards = cards;
+        this.cards = copyOf(cards);
     }
 
     /**
@@ -57,32 +61,61 @@ public class Deck {
      * @return Returns a Deck
      */
     public Deck withCards(List<Card> cards) {
-        this.cards = cards;
+        this.cards = copyOf(cards);
         return this;
     }
 
+    /**
+     * Gets the membership mask of the Deck
+     *
+     * @return Returns a mask with bit {@code n} set if the Card with ordinal {@code n} is in the Deck
+     */
+    public long getMask() {
+        return cards.mask();
+    }
+
+    /**
+     * Checks if a Card is in the current Deck
+     *
+     * @param card The Card to look for
+     * @return Returns true if the Deck contains the Card
+     */
+    public boolean contains(Card card) {
+        return cards.contains(card);
+    }
+
     /**
      * Adds a Card to the current Deck
      *
      * @param card The Card given to the Deck
      */
     public void addCard(Card card) {
-
-        if (!(this.cards.size() < 52)) throw new IllegalArgumentException("A Deck cannot be larger than 52 Cards");
-
-        if (!this.cards.contains(card)) {
-            this.cards.add(card);
-        } else {
-            throw new IllegalArgumentException("A duplicate Card cannot be added to the Deck");
-        }
-
+        this.cards.add(card);
     }
 
     /**
      * Removes the Card on top of the Deck
      */
     public void removeCard() {
-        this.cards.remove(0);
+        this.cards.removeFirst();
+    }
+
+    /**
+     * Removes the Card on top of the Deck and returns it
+     *
+     * @return Returns the Card that was on top of the Deck
+     */
+    public Card draw() {
+        return this.cards.removeFirst();
+    }
+
+    /**
+     * Puts a Card back on top of the Deck, such as the last Card drawn, without moving the other Cards
+     *
+     * @param card The Card to put on top
+     */
+    public void returnToTop(Card card) {
+        this.cards.addFirst(card);
     }
 
     /**
@@ -92,15 +125,166 @@ public class Deck {
      */
     public void removeCard(Card card) {
 
-        if (!cards.contains(card)) throw new IllegalArgumentException("This Card isn't in the Deck");
+        if (!this.cards.remove(card)) throw new IllegalArgumentException("This Card isn't in the Deck");
+
+    }
+
+    /**
+     * Shuffles the Deck in place
+     *
+     * @param model  The way to shuffle the Deck
+     * @param random The source of randomness
+     */
+    void shuffle(ShuffleModel model, RandomSource random) {
+        cards.shuffle(model, random);
+    }
+
+    /**
+     * Shuffles the Deck lazily, only randomizing each position when a Card is drawn from it
+     *
+     * @param random The source of randomness
+     */
+    void shuffleLazily(RandomSource random) {
+        cards.shuffleLazily(random);
+    }
+
+    /**
+     * Puts back every Card drawn since the Deck was lazily shuffled, restoring the order it had before the shuffle
+     * <p>
+     * This is much cheaper than adding the Cards back one by one. It is only possible while the Deck has not been changed
+     * in any other way than drawing from the top since the shuffle, and the Players still holding the drawn Cards must
+     * let go of them on their own.
+     *
+     * @throws IllegalStateException If the Deck was not lazily shuffled or was changed since
+     */
+    public void undoLazyShuffle() {
+        cards.undoLazyShuffle();
+    }
+
+    /**
+     * Refills the Deck with all 52 Cards in order, reusing its storage so a new round needs no new Deck
+     * <p>
+     * Unlike {@link #undoLazyShuffle()}, this works whatever happened to the Deck, and the order is the organized one
+     * rather than the one from before a shuffle.
+     */
+    public void reset() {
+        cards.fill();
+    }
+
+    /**
+     * Cuts the Deck in place so the Card at the given index becomes the top Card
+     *
+     * @param index The index of the Card to bring to the top
+     */
+    void cut(int index) {
+        cards.rotate(index);
+    }
+
+    /**
+     * Works out the number of bytes a Deck encodes to
+     *
+     * @param size The number of Cards in the Deck
+     * @return Returns the length of the encoding, 30 bytes for a full Deck
+     */
+    public static int encodedLength(int size) {
+        return DeckCodec.encodedLength(size);
+    }
+
+    /**
+     * Encodes the order of the Deck compactly, for example to record every shuffle for auditing
+     * <p>
+     * A full Deck is encoded as the rank of its permutation in 30 bytes, any other Deck as the 6-bit ordinals of its
+     * Cards after a byte holding their number
+     *
+     * @return Returns the encoding
+     */
+    public byte[] encode() {
+
+        ByteBuffer buffer = ByteBuffer.allocate(encodedLength(cards.size()));
+
+        encode(buffer);
+
+        return buffer.array();
+
+    }
+
+    /**
+     * Writes the encoding of the order of the Deck at the position of a buffer, advancing it, without allocating
+     *
+     * @param buffer The buffer written to, with at least {@link #encodedLength(int)} bytes remaining
+     */
+    public void encode(ByteBuffer buffer) {
+        DeckCodec.encode(cards, buffer);
+    }
+
+    /**
+     * Creates a Deck from an encoding made by {@link #encode()}
+     *
+     * @param bytes The encoding
+     * @return Returns a Deck with the encoded Cards in the encoded order
+     */
+    public static Deck decode(byte[] bytes) {
+        return decode(ByteBuffer.wrap(bytes));
+    }
+
+    /**
+     * Creates a Deck from an encoding at the position of a buffer, advancing it
+     *
+     * @param buffer The buffer read from
+     * @return Returns a Deck with the encoded Cards in the encoded order
+     */
+    public static Deck decode(ByteBuffer buffer) {
+
+        Deck deck = new Deck();
+
+        DeckCodec.decode(buffer, deck.cards);
+
+        return deck;
+
+    }
+
+    /**
+     * Reads an encoding at the position of a buffer as the ordinals of its Cards, advancing it
+     * <p>
+     * Nothing is allocated, so this suits scanning many encoded Decks where only the order matters.
+     *
+     * @param buffer   The buffer read from
+     * @param ordinals The array the ordinals are written to in order, with room for every encoded Card
+     * @return Returns the number of Cards
+     */
+    public static int decodeOrdinals(ByteBuffer buffer, int[] ordinals) {
+        return DeckCodec.decode(buffer, ordinals);
+    }
+
+    /**
+     * Replaces the Cards of the Deck with Cards given by their ordinals, which must not repeat
+     *
+     * @param ordinals The array holding the ordinals
+     * @param offset   The index of the first ordinal
+     * @param count    The number of Cards
+     */
+    void restore(byte[] ordinals, int offset, int count) {
+        cards.restore(ordinals, offset, count);
+    }
+
+    /**
+     * Copies Cards into a new mask-backed List, validating that there are no duplicates and no more than 52 Cards
+     *
+     * @param cards The Cards to copy
+     * @return Returns the new List
+     */
+    private static CardList copyOf(List<Card> cards) {
+
+        CardList copy = new CardList();
+        copy.addAll(cards);
 
-        this.cards.remove(card);
+        return copy;
 
     }
 
     @Override
     public String toString() {
-        return cards.stream().map(Card::toString).collect(Collectors.joining(","));
+        return CardRenderer.text(cards);
     }
 
 }
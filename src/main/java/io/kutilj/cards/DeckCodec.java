@@ -0,0 +1,307 @@
+package io.kutilj.cards;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * Encodes the order of a Deck into a few bytes and back
+ * <p>
+ * The first byte is the number of Cards. A full Deck of 52 Cards is then written as the rank of its permutation, the
+ * Lehmer code read as a mixed radix number, in 29 big-endian bytes since 52! needs 226 bits. Any other Deck is written as
+ * the 6-bit ordinals of its Cards packed from the most significant bit, padded to a whole byte. The rank is worked out in
+ * five 48-bit limbs held in locals, so encoding allocates nothing.
+ */
+final class DeckCodec {
+
+    /**
+     * The number of bits in a limb of the rank
+     */
+    private static final int LIMB_BITS = 48;
+
+    /**
+     * The mask of a limb
+     */
+    private static final long LIMB_MASK = (1L << LIMB_BITS) - 1;
+
+    /**
+     * The number of bytes of the rank of a full Deck
+     */
+    private static final int RANK_BYTES = 29;
+
+    /**
+     * The number of bits of a packed ordinal
+     */
+    private static final int ORDINAL_BITS = 6;
+
+    private DeckCodec() {
+    }
+
+    /**
+     * Works out the number of bytes a Deck encodes to
+     *
+     * @param size The number of Cards in the Deck
+     * @return Returns the length of the encoding
+     */
+    static int encodedLength(int size) {
+
+        if (size < 0 || size > Card.COUNT) throw new IllegalArgumentException("A Deck holds between 0 and 52 Cards");
+
+        return 1 + (size == Card.COUNT ? RANK_BYTES : (size * ORDINAL_BITS + 7) / 8);
+
+    }
+
+    /**
+     * Writes the encoding of Cards at the position of a buffer, advancing it
+     *
+     * @param cards  The Cards in order, without duplicates
+     * @param buffer The buffer written to
+     */
+    static void encode(List<Card> cards, ByteBuffer buffer) {
+
+        int size = cards.size();
+
+        buffer.put((byte) size);
+
+        if (size == Card.COUNT) {
+            encodeRank(cards, buffer);
+        } else {
+            encodePacked(cards, buffer);
+        }
+
+    }
+
+    /**
+     * Reads an encoding at the position of a buffer, advancing it
+     *
+     * @param buffer The buffer read from
+     * @param into   The empty List the Cards are added to in order
+     */
+    static void decode(ByteBuffer buffer, List<Card> into) {
+
+        int[] ordinals = new int[Card.COUNT];
+        int size = decode(buffer, ordinals);
+
+        for (int i = 0; i < size; i++) {
+            into.add(Card.valueOf(ordinals[i]));
+        }
+
+    }
+
+    /**
+     * Reads an encoding at the position of a buffer as Card ordinals, advancing it
+     *
+     * @param buffer   The buffer read from
+     * @param ordinals The array the ordinals are written to in order, with room for every Card
+     * @return Returns the number of Cards
+     */
+    static int decode(ByteBuffer buffer, int[] ordinals) {
+
+        int size = buffer.get() & 0xFF;
+
+        if (size > Card.COUNT) throw new IllegalArgumentException("Not an encoded Deck, it claims to hold " + size + " Cards");
+
+        if (ordinals.length < size) throw new IllegalArgumentException("The array cannot hold " + size + " Cards");
+
+        if (size == Card.COUNT) {
+            decodeRank(buffer, ordinals);
+        } else {
+            decodePacked(buffer, size, ordinals);
+        }
+
+        return size;
+
+    }
+
+    /**
+     * Writes the rank of the permutation of a full Deck
+     *
+     * @param cards  The 52 Cards in order
+     * @param buffer The buffer written to
+     */
+    private static void encodeRank(List<Card> cards, ByteBuffer buffer) {
+
+        long remaining = (1L << Card.COUNT) - 1;
+        long a0 = 0, a1 = 0, a2 = 0, a3 = 0, a4 = 0;
+
+        for (int i = 0; i < Card.COUNT; i++) {
+
+            long bit = 1L << cards.get(i).getOrdinal();
+            int radix = Card.COUNT - i;
+
+            // the Lehmer digit is the number of Cards still to come with a lower ordinal
+            long carry = Long.bitCount(remaining & bit - 1);
+
+            remaining &= ~bit;
+
+            a0 = a0 * radix + carry;
+            carry = a0 >>> LIMB_BITS;
+            a0 &= LIMB_MASK;
+            a1 = a1 * radix + carry;
+            carry = a1 >>> LIMB_BITS;
+            a1 &= LIMB_MASK;
+            a2 = a2 * radix + carry;
+            carry = a2 >>> LIMB_BITS;
+            a2 &= LIMB_MASK;
+            a3 = a3 * radix + carry;
+            carry = a3 >>> LIMB_BITS;
+            a3 &= LIMB_MASK;
+            a4 = a4 * radix + carry;
+
+        }
+
+        // 52! is below 2^226, so the top byte of the five limbs is always zero and left out
+        putLimb(buffer, a4, 5);
+        putLimb(buffer, a3, 6);
+        putLimb(buffer, a2, 6);
+        putLimb(buffer, a1, 6);
+        putLimb(buffer, a0, 6);
+
+    }
+
+    /**
+     * Reads the rank of the permutation of a full Deck
+     *
+     * @param buffer   The buffer read from
+     * @param ordinals The array the ordinals are written to in order
+     */
+    private static void decodeRank(ByteBuffer buffer, int[] ordinals) {
+
+        long a4 = getLimb(buffer, 5);
+        long a3 = getLimb(buffer, 6);
+        long a2 = getLimb(buffer, 6);
+        long a1 = getLimb(buffer, 6);
+        long a0 = getLimb(buffer, 6);
+
+        // dividing by the radixes from the last one down gives the Lehmer digits in reverse
+
+        for (int i = Card.COUNT - 1; i >= 0; i--) {
+
+            int radix = Card.COUNT - i;
+            long current = a4;
+
+            a4 = current / radix;
+            current = (current % radix) << LIMB_BITS | a3;
+            a3 = current / radix;
+            current = (current % radix) << LIMB_BITS | a2;
+            a2 = current / radix;
+            current = (current % radix) << LIMB_BITS | a1;
+            a1 = current / radix;
+            current = (current % radix) << LIMB_BITS | a0;
+            a0 = current / radix;
+            ordinals[i] = (int) (current % radix);
+
+        }
+
+        if ((a0 | a1 | a2 | a3 | a4) != 0) throw new IllegalArgumentException("Not an encoded Deck, the rank is too large");
+
+        long remaining = (1L << Card.COUNT) - 1;
+
+        // each Lehmer digit is replaced by the ordinal it picks out of the Cards still remaining
+        for (int i = 0; i < Card.COUNT; i++) {
+
+            long left = remaining;
+
+            for (int skip = 0; skip < ordinals[i]; skip++) {
+                left &= left - 1;
+            }
+
+            int ordinal = Long.numberOfTrailingZeros(left);
+
+            remaining &= ~(1L << ordinal);
+            ordinals[i] = ordinal;
+
+        }
+
+    }
+
+    /**
+     * Writes the packed ordinals of Cards
+     *
+     * @param cards  The Cards in order
+     * @param buffer The buffer written to
+     */
+    private static void encodePacked(List<Card> cards, ByteBuffer buffer) {
+
+        int pending = 0;
+        int bits = 0;
+
+        for (int i = 0; i < cards.size(); i++) {
+
+            pending = pending << ORDINAL_BITS | cards.get(i).getOrdinal();
+            bits += ORDINAL_BITS;
+
+            if (bits >= 8) {
+                bits -= 8;
+                buffer.put((byte) (pending >>> bits));
+            }
+
+        }
+
+        if (bits > 0) buffer.put((byte) (pending << 8 - bits));
+
+    }
+
+    /**
+     * Reads packed ordinals
+     *
+     * @param buffer   The buffer read from
+     * @param size     The number of Cards
+     * @param ordinals The array the ordinals are written to in order
+     */
+    private static void decodePacked(ByteBuffer buffer, int size, int[] ordinals) {
+
+        int pending = 0;
+        int bits = 0;
+
+        for (int i = 0; i < size; i++) {
+
+            if (bits < ORDINAL_BITS) {
+                pending = pending << 8 | buffer.get() & 0xFF;
+                bits += 8;
+            }
+
+            bits -= ORDINAL_BITS;
+
+            int ordinal = pending >>> bits & (1 << ORDINAL_BITS) - 1;
+
+            if (ordinal >= Card.COUNT) throw new IllegalArgumentException("Not an encoded Deck, " + ordinal + " is not a Card");
+
+            ordinals[i] = ordinal;
+
+        }
+
+    }
+
+    /**
+     * Writes the low bytes of a limb, most significant first
+     *
+     * @param buffer The buffer written to
+     * @param limb   The limb
+     * @param bytes  The number of bytes written
+     */
+    private static void putLimb(ByteBuffer buffer, long limb, int bytes) {
+        for (int shift = (bytes - 1) * 8; shift >= 0; shift -= 8) {
+            buffer.put((byte) (limb >>> shift));
+        }
+    }
+
+    /**
+     * Reads a limb written by {@link #putLimb(ByteBuffer, long, int)}
+     *
+     * @param buffer The buffer read from
+     * @param bytes  The number of bytes read
+     * @return Returns the limb
+     */
+    private static long getLimb(ByteBuffer buffer, int bytes) {
+
+        long limb = 0;
+
+        for (int i = 0; i < bytes; i++) {
+            limb = limb << 8 | buffer.get() & 0xFF;
+        }
+
+        return limb;
+
+    }
+
+}
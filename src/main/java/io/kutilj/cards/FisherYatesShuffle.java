@@ -0,0 +1,34 @@
+package io.kutilj.cards;
+
+/**
+ * A uniform shuffle that swaps each Card with a random Card at or above it
+ */
+final class FisherYatesShuffle implements ShuffleModel {
+
+    /**
+     * The shared instance, the shuffle holds no state
+     */
+    static final FisherYatesShuffle INSTANCE = new FisherYatesShuffle();
+
+    /**
+     * Only the shared instance exists
+     */
+    private FisherYatesShuffle() {
+    }
+
+    @Override
+    public void shuffle(Card[] cards, int from, int to, RandomSource random) {
+
+        for (int i = to - 1; i > from; i--) {
+
+            int j = from + random.nextInt(i - from + 1);
+            Card card = cards[i];
+
+            cards[i] = cards[j];
+            cards[j] = card;
+
+        }
+
+    }
+
+}
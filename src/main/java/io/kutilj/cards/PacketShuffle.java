@@ -0,0 +1,95 @@
+package io.kutilj.cards;
+
+/**
+ * An overhand or strip shuffle, which moves packets of Cards from the top of the Deck onto a new pile
+ * <p>
+ * The new pile holds the packets in reverse order with the Cards of each packet in their original order. That is the
+ * same as reversing the whole Deck and then reversing each packet back, so the shuffle happens in place.
+ */
+final class PacketShuffle implements ShuffleModel {
+
+    /**
+     * The number of times to shuffle
+     */
+    private final int passes;
+
+    /**
+     * The probability that a packet ends after any Card, or 0 to derive it from the number of packets
+     */
+    private final double cutProbability;
+
+    /**
+     * The average number of packets per pass, used when no cut probability is given
+     */
+    private final int packets;
+
+    /**
+     * Constructs the shuffle
+     *
+     * @param passes         The number of times to shuffle
+     * @param cutProbability The probability that a packet ends after any Card, or 0 to use the number of packets
+     * @param packets        The average number of packets per pass
+     */
+    PacketShuffle(int passes, double cutProbability, int packets) {
+
+        if (passes < 1) throw new IllegalArgumentException("A shuffle needs at least one pass");
+
+        if (cutProbability < 0 || cutProbability > 1) throw new IllegalArgumentException("The cut probability must be between 0 and 1");
+
+        this.passes = passes;
+        this.cutProbability = cutProbability;
+        this.packets = packets;
+
+    }
+
+    @Override
+    public void shuffle(Card[] cards, int from, int to, RandomSource random) {
+
+        if (to - from < 2) return;
+
+        double probability = cutProbability > 0 ? cutProbability : Math.min(1.0, (packets - 1) / (double) (to - from - 1));
+
+        // compare against 53 random bits so the probability needs no division per Card
+        long threshold = (long) (probability * (1L << 53));
+
+        for (int pass = 0; pass < passes; pass++) {
+
+            reverse(cards, from, to);
+
+            // the first packet taken from the top now sits reversed at the end of the range
+            int packetEnd = to;
+
+            for (int i = to - 1; i > from; i--) {
+                if ((random.nextLong() >>> 11) < threshold) {
+                    reverse(cards, i, packetEnd);
+                    packetEnd = i;
+                }
+            }
+
+            reverse(cards, from, packetEnd);
+
+        }
+
+    }
+
+    /**
+     * Reverses a range of Cards in place
+     *
+     * @param cards The array holding the Cards
+     * @param from  The index of the first Card
+     * @param to    The index after the last Card
+     */
+    static void reverse(Card[] cards, int from, int to) {
+
+        for (int i = from, j = to - 1; i < j; i++, j--) {
+
+            Card card = cards[i];
+
+            cards[i] = cards[j];
+            cards[j] = card;
+
+        }
+
+    }
+
+}
@@ -2,7 +2,6 @@ package io.kutilj.cards;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * A simple class representing a Player in a card game
@@ -40,11 +39,11 @@ public class Player {
      * Initializes a Player with a name and whatever hand is given to them
      *
      * @param name The Name of the Player
-     * @param hand The Hand given to the Player
+     * @param hand The Hand given to the Player, copied so the Player never shares the List with the caller
      */
     public Player(String name, List<Card> hand) {
         this.name = name;
-        this.hand = hand;
+        this.hand = new ArrayList<>(hand);
     }
 
     /**
@@ -90,10 +89,16 @@ public class Player {
     /**
      * Sets the current Hand of the Player
      *
-     * @param cards The Hand given to the Player
+     * @param cards The Hand given to the Player, copied into the List the Player already has
      */
     public void setHand(List<Card> cards) {
-        this.hand = cards;
+
+        // the Player's own List already holds the Hand, clearing it first would empty it
+        if (cards == this.hand) return;
+
+        this.hand.clear();
+        this.hand.addAll(cards);
+
     }
 
     /**
@@ -101,14 +106,21 @@ public class Player {
      * <p>
      * Builds a Player with the given Hand
      *
-     * @param hand The Hand given to the Player
+     * @param hand The Hand given to the Player, copied into the List the Player already has
      * @return Returns a Player
      */
     public Player withHand(List<Card> hand) {
-        this.hand = hand;
+        setHand(hand);
         return this;
     }
 
+    /**
+     * Empties the Hand of the Player for a new round, keeping the List and its capacity
+     */
+    public void reset() {
+        this.hand.clear();
+    }
+
     /**
      * Adds a Card to the Player's current Hand
      *
@@ -120,6 +132,6 @@ public class Player {
 
     @Override
     public String toString() {
-        return name + " has a hand consisting of: " + hand.stream().map(Card::toString).collect(Collectors.joining(","));
+        return CardRenderer.text(this);
     }
 }
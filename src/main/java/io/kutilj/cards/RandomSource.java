@@ -0,0 +1,126 @@
+package io.kutilj.cards;
+
+import java.util.SplittableRandom;
+import java.util.function.LongSupplier;
+
+/**
+ * A source of random numbers used by a Dealer to shuffle
+ * <p>
+ * A RandomSource is not required to be thread safe. Parallel workers should each {@link #split()} their own source,
+ * which yields a statistically independent stream, rather than sharing one.
+ */
+public interface RandomSource {
+
+    /**
+     * Gets the next random 64 bits
+     *
+     * @return Returns a uniformly distributed long
+     */
+    long nextLong();
+
+    /**
+     * Gets a uniformly distributed int between 0 (inclusive) and the bound (exclusive)
+     * <p>
+     * Uses Lemire's multiply-and-reject method, so there is no modulo bias and usually no division
+     *
+     * @param bound The exclusive upper bound, must be positive
+     * @return Returns a uniformly distributed int
+     */
+    default int nextInt(int bound) {
+
+        if (bound <= 0) throw new IllegalArgumentException("The bound must be positive");
+
+        long product = (nextLong() >>> 32) * bound;
+        long low = product & 0xFFFFFFFFL;
+
+        if (low < bound) {
+
+            long threshold = (0x100000000L - bound) % bound;
+
+            while (low < threshold) {
+                product = (nextLong() >>> 32) * bound;
+                low = product & 0xFFFFFFFFL;
+            }
+
+        }
+
+        return (int) (product >>> 32);
+
+    }
+
+    /**
+     * Splits off a new RandomSource whose stream is independent of this one
+     *
+     * @return Returns a new RandomSource
+     */
+    RandomSource split();
+
+    /**
+     * Gets a RandomSource backed by a SplittableRandom owned by the calling thread, so threads never contend
+     *
+     * @return Returns the thread local RandomSource
+     */
+    static RandomSource threadLocal() {
+        return ThreadLocalRandomSource.INSTANCE;
+    }
+
+    /**
+     * Creates a RandomSource backed by a SplittableRandom with the given seed
+     *
+     * @param seed The seed of the RandomSource
+     * @return Returns a new RandomSource that always produces the same stream for the same seed
+     */
+    static RandomSource seeded(long seed) {
+        return new SplittableRandomSource(new SplittableRandom(seed));
+    }
+
+    /**
+     * Creates a RandomSource backed by a xoshiro256** generator with the given seed
+     *
+     * @param seed The seed of the RandomSource
+     * @return Returns a new RandomSource that always produces the same stream for the same seed
+     */
+    static RandomSource xoshiro(long seed) {
+        return new Xoshiro256StarStar(seed);
+    }
+
+    /**
+     * Gets a cryptographically secure RandomSource, drawing from a SecureRandom owned by the calling thread in large
+     * buffered blocks, for shuffles that must be unpredictable
+     *
+     * @return Returns the shared secure RandomSource
+     * @see SecureRandomSource
+     */
+    static RandomSource secure() {
+        return SecureRandomSource.THREAD_LOCAL;
+    }
+
+    /**
+     * Creates a RandomSource from a caller supplied generator, such as {@code new Random(seed)::nextLong}
+     * <p>
+     * Split sources are seeded from the supplier
+     *
+     * @param supplier The generator of random longs
+     * @return Returns a new RandomSource
+     */
+    static RandomSource of(LongSupplier supplier) {
+
+        if (supplier == null) throw new IllegalArgumentException("The supplier cannot be null");
+
+        return new RandomSource() {
+
+            @Override
+            public long nextLong() {
+                return supplier.getAsLong();
+            }
+
+            @Override
+            public RandomSource split() {
+                return seeded(supplier.getAsLong());
+            }
+
+        };
+
+    }
+
+}
@@ -0,0 +1,105 @@
+package io.kutilj.cards;
+
+/**
+ * A riffle shuffle following the Gilbert-Shannon-Reeds model
+ */
+final class RiffleShuffle implements ShuffleModel {
+
+    /**
+     * The number of times to riffle
+     */
+    private final int passes;
+
+    /**
+     * Holds the top half of the Deck while the halves are interleaved, grown only when a larger Deck is shuffled
+     */
+    private Card[] buffer = new Card[Card.COUNT];
+
+    /**
+     * Constructs the shuffle
+     *
+     * @param passes The number of times to riffle
+     */
+    RiffleShuffle(int passes) {
+
+        if (passes < 1) throw new IllegalArgumentException("A shuffle needs at least one pass");
+
+        this.passes = passes;
+
+    }
+
+    @Override
+    public void shuffle(Card[] cards, int from, int to, RandomSource random) {
+
+        int size = to - from;
+
+        if (buffer.length < size) buffer = new Card[size];
+
+        for (int pass = 0; pass < passes; pass++) {
+            riffle(cards, from, size, random);
+        }
+
+    }
+
+    /**
+     * Cuts the Cards into two halves and interleaves them once
+     *
+     * @param cards  The array holding the Cards
+     * @param from   The index of the first Card
+     * @param size   The number of Cards
+     * @param random The source of randomness
+     */
+    private void riffle(Card[] cards, int from, int size, RandomSource random) {
+
+        int top = binomialHalf(size, random);
+
+        System.arraycopy(cards, from, buffer, 0, top);
+
+        // the write position never overtakes the bottom half, so the merge can happen in place
+        int left = 0;
+        int right = from + top;
+        int end = from + size;
+
+        for (int out = from; out < end; out++) {
+
+            int leftRemaining = top - left;
+            int rightRemaining = end - right;
+
+            if (random.nextInt(leftRemaining + rightRemaining) < leftRemaining) {
+                cards[out] = buffer[left++];
+            } else {
+                cards[out] = cards[right++];
+            }
+
+        }
+
+        for (int i = 0; i < top; i++) {
+            buffer[i] = null;
+        }
+
+    }
+
+    /**
+     * Draws the size of the top half, the number of heads in a fair coin flip per Card
+     *
+     * @param size   The number of Cards
+     * @param random The source of randomness
+     * @return Returns the number of Cards in the top half
+     */
+    private static int binomialHalf(int size, RandomSource random) {
+
+        int heads = 0;
+
+        for (int remaining = size; remaining > 0; remaining -= 64) {
+
+            long bits = random.nextLong();
+
+            heads += Long.bitCount(remaining < 64 ? bits & ((1L << remaining) - 1) : bits);
+
+        }
+
+        return heads;
+
+    }
+
+}
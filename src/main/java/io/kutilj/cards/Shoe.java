@@ -0,0 +1,365 @@
+package io.kutilj.cards;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A class representing a Shoe holding several Decks that are shuffled together and dealt from
+ * <p>
+ * All the Cards live in one array and are dealt by advancing a cursor, so drawing costs the same as from a single Deck
+ * however many Decks are in the Shoe. A cut card placed at the configured penetration marks when the Shoe must be
+ * reshuffled, which happens at the start of the next round rather than in the middle of one. Like a Deck, a new Shoe is
+ * organized until it is first shuffled, which the first call to {@link #newRound()} does.
+ */
+public class Shoe {
+
+    /**
+     * The Cards in the Shoe, the dealt Cards stay in front of the cursor until the Shoe is reshuffled
+     */
+    private final Card[] cards;
+
+    /**
+     * The number of copies of each Card still to be dealt, indexed by ordinal
+     */
+    private final int[] counts = new int[Card.COUNT];
+
+    /**
+     * The number of Decks in the Shoe
+     */
+    private final int decks;
+
+    /**
+     * The index of the next Card to be dealt
+     */
+    private int cursor;
+
+    /**
+     * The number of Cards dealt before the cut card comes out
+     */
+    private int cutCard;
+
+    /**
+     * The fraction of the Shoe dealt before it is reshuffled
+     */
+    private double penetration;
+
+    /**
+     * The source of randomness used to shuffle the Shoe
+     */
+    private RandomSource randomSource;
+
+    /**
+     * The way the Shoe is shuffled
+     */
+    private ShuffleModel shuffleModel;
+
+    /**
+     * The number of times the Shoe has been shuffled
+     */
+    private long shuffles;
+
+    /**
+     * Constructs an organized Shoe of full Decks that is reshuffled after three quarters of it is dealt
+     *
+     * @param decks The number of Decks in the Shoe
+     */
+    public Shoe(int decks) {
+        this(fullDecks(decks), decks);
+    }
+
+    /**
+     * Constructs a Shoe holding the given Cards in order, for example Decks with some Cards taken out
+     *
+     * @param cards The Cards in the Shoe
+     * @param decks The number of Decks the Cards come from, no Card may appear more often than this
+     */
+    public Shoe(List<Card> cards, int decks) {
+
+        if (decks < 1) throw new IllegalArgumentException("A Shoe needs at least one Deck");
+
+        if (cards.size() > decks * Card.COUNT) throw new IllegalArgumentException("A Shoe of " + decks + " Decks cannot hold more than " + decks * Card.COUNT + " Cards");
+
+        this.cards = new Card[cards.size()];
+        this.decks = decks;
+
+        for (int i = 0; i < this.cards.length; i++) {
+
+            Card card = cards.get(i).canonical();
+
+            if (++counts[card.getOrdinal()] > decks) throw new IllegalArgumentException("A Shoe of " + decks + " Decks cannot hold more copies of " + card);
+
+            this.cards[i] = card;
+
+        }
+
+        this.randomSource = RandomSource.threadLocal();
+        this.shuffleModel = ShuffleModel.fisherYates();
+        this.penetration = 0.75;
+        this.cutCard = cutCardFor(penetration);
+
+    }
+
+    /**
+     * Creates the Cards of several full Decks
+     *
+     * @param decks The number of Decks
+     * @return Returns the Cards of every Deck in order
+     */
+    private static List<Card> fullDecks(int decks) {
+
+        if (decks < 1) throw new IllegalArgumentException("A Shoe needs at least one Deck");
+
+        Card[] cards = new Card[decks * Card.COUNT];
+
+        for (int i = 0; i < cards.length; i++) {
+            cards[i] = Card.valueOf(i % Card.COUNT);
+        }
+
+        return Arrays.asList(cards);
+
+    }
+
+    /**
+     * Gets the number of Decks in the Shoe
+     *
+     * @return Returns the number of Decks
+     */
+    public int getDecks() {
+        return decks;
+    }
+
+    /**
+     * Gets the fraction of the Shoe dealt before it is reshuffled
+     *
+     * @return Returns the penetration, between 0 and 1
+     */
+    public double getPenetration() {
+        return penetration;
+    }
+
+    /**
+     * Sets the fraction of the Shoe dealt before it is reshuffled
+     *
+     * @param penetration The penetration, between 0 and 1
+     */
+    public void setPenetration(double penetration) {
+        this.cutCard = cutCardFor(penetration);
+        this.penetration = penetration;
+    }
+
+    /**
+     * Builder method
+     * <p>
+     * Builds a Shoe with the given penetration
+     *
+     * @param penetration The fraction of the Shoe dealt before it is reshuffled, between 0 and 1
+     * @return Returns a Shoe
+     */
+    public Shoe withPenetration(double penetration) {
+        setPenetration(penetration);
+        return this;
+    }
+
+    /**
+     * Gets the source of randomness used to shuffle the Shoe
+     *
+     * @return Returns the current RandomSource
+     */
+    public RandomSource getRandomSource() {
+        return randomSource;
+    }
+
+    /**
+     * Sets the source of randomness used to shuffle the Shoe
+     *
+     * @param randomSource The new RandomSource for the Shoe
+     */
+    public void setRandomSource(RandomSource randomSource) {
+        this.randomSource = randomSource;
+    }
+
+    /**
+     * Builder method
+     * <p>
+     * Builds a Shoe with the given source of randomness
+     *
+     * @param randomSource The RandomSource to build the Shoe with
+     * @return Returns a Shoe
+     */
+    public Shoe withRandomSource(RandomSource randomSource) {
+        this.randomSource = randomSource;
+        return this;
+    }
+
+    /**
+     * Gets the way the Shoe is shuffled
+     *
+     * @return Returns the current ShuffleModel
+     */
+    public ShuffleModel getShuffleModel() {
+        return shuffleModel;
+    }
+
+    /**
+     * Sets the way the Shoe is shuffled
+     *
+     * @param shuffleModel The new ShuffleModel for the Shoe
+     */
+    public void setShuffleModel(ShuffleModel shuffleModel) {
+        this.shuffleModel = shuffleModel;
+    }
+
+    /**
+     * Builder method
+     * <p>
+     * Builds a Shoe with the given ShuffleModel
+     *
+     * @param shuffleModel The ShuffleModel to build the Shoe with
+     * @return Returns a Shoe
+     */
+    public Shoe withShuffleModel(ShuffleModel shuffleModel) {
+        this.shuffleModel = shuffleModel;
+        return this;
+    }
+
+    /**
+     * Gets the total number of Cards in the Shoe, dealt or not
+     *
+     * @return Returns the number of Cards
+     */
+    public int size() {
+        return cards.length;
+    }
+
+    /**
+     * Gets the number of Cards still to be dealt
+     *
+     * @return Returns the number of remaining Cards
+     */
+    public int remaining() {
+        return cards.length - cursor;
+    }
+
+    /**
+     * Gets the number of times the Shoe has been shuffled
+     *
+     * @return Returns the number of shuffles
+     */
+    public long getShuffles() {
+        return shuffles;
+    }
+
+    /**
+     * Counts the copies of a Card still to be dealt
+     *
+     * @param card The Card to count
+     * @return Returns the number of copies left in the Shoe
+     */
+    public int count(Card card) {
+        return counts[card.getOrdinal()];
+    }
+
+    /**
+     * Checks if a copy of a Card is still to be dealt
+     *
+     * @param card The Card to look for
+     * @return Returns true if at least one copy is left in the Shoe
+     */
+    public boolean contains(Card card) {
+        return counts[card.getOrdinal()] > 0;
+    }
+
+    /**
+     * Checks if the cut card has come out
+     *
+     * @return Returns true if the Shoe will be reshuffled before the next round
+     */
+    public boolean isCutCardReached() {
+        return cursor >= cutCard;
+    }
+
+    /**
+     * Starts a new round, reshuffling the Shoe only if it was never shuffled or the cut card came out during the last
+     * round
+     *
+     * @return Returns true if the Shoe was reshuffled
+     */
+    public boolean newRound() {
+
+        if (shuffles > 0 && !isCutCardReached()) return false;
+
+        shuffle();
+
+        return true;
+
+    }
+
+    /**
+     * Gathers every Card back into the Shoe and shuffles it
+     */
+    public void shuffle() {
+
+        for (int i = 0; i < cursor; i++) {
+            counts[cards[i].getOrdinal()]++;
+        }
+
+        cursor = 0;
+        shuffleModel.shuffle(cards, 0, cards.length, randomSource);
+        shuffles++;
+
+    }
+
+    /**
+     * Deals the next Card from the Shoe
+     *
+     * @return Returns the dealt Card
+     */
+    public Card draw() {
+
+        if (cursor == cards.length) throw new IllegalStateException("The Shoe is empty");
+
+        Card card = cards[cursor++];
+
+        counts[card.getOrdinal()]--;
+
+        return card;
+
+    }
+
+    /**
+     * Deals Cards from the Shoe to designated number of Players, one at a time to each Player in turn
+     *
+     * @param players  A list of Players to be dealt Cards
+     * @param numCards The number of Cards to be dealt to each Player
+     */
+    public void deal(List<Player> players, int numCards) {
+
+        int numPlayers = players.size();
+
+        if (numPlayers * numCards > remaining()) {
+            throw new IllegalArgumentException("The given number of players and cards to deal is greater than the cards left in the shoe");
+        }
+
+        for (int round = 0; round < numCards; round++) {
+            for (int player = 0; player < numPlayers; player++) {
+                players.get(player).addCard(draw());
+            }
+        }
+
+    }
+
+    /**
+     * Works out where the cut card goes for a penetration
+     *
+     * @param penetration The fraction of the Shoe dealt before it is reshuffled
+     * @return Returns the number of Cards dealt before the cut card comes out
+     */
+    private int cutCardFor(double penetration) {
+
+        if (!(penetration > 0 && penetration <= 1)) throw new IllegalArgumentException("The penetration must be greater than 0 and at most 1");
+
+        return (int) Math.round(penetration * cards.length);
+
+    }
+
+}
@@ -0,0 +1,102 @@
+package io.kutilj.cards;
+
+/**
+ * A way of shuffling Cards, from a perfectly uniform shuffle to models of how people physically shuffle a Deck
+ * <p>
+ * A ShuffleModel rearranges the Cards in place and allocates nothing once it has been used, which may mean it keeps a
+ * reusable buffer. Models with a buffer are not thread safe, so each Dealer should be given its own instance.
+ */
+public interface ShuffleModel {
+
+    /**
+     * Shuffles a range of Cards in place, only their order may change
+     *
+     * @param cards  The array holding the Cards
+     * @param from   The index of the first Card to shuffle
+     * @param to     The index after the last Card to shuffle
+     * @param random The source of randomness
+     */
+    void shuffle(Card[] cards, int from, int to, RandomSource random);
+
+    /**
+     * Gets the Fisher-Yates shuffle, every order of the Cards is equally likely
+     *
+     * @return Returns the uniform ShuffleModel
+     */
+    static ShuffleModel fisherYates() {
+        return FisherYatesShuffle.INSTANCE;
+    }
+
+    /**
+     * Creates a riffle shuffle following the Gilbert-Shannon-Reeds model, repeated seven times which is enough to mix
+     * a 52 Card Deck
+     *
+     * @return Returns a new riffle ShuffleModel
+     */
+    static ShuffleModel riffle() {
+        return new RiffleShuffle(7);
+    }
+
+    /**
+     * Creates a riffle shuffle following the Gilbert-Shannon-Reeds model
+     * <p>
+     * The Deck is cut at a binomially distributed point and the two halves are interleaved, dropping each Card from a
+     * half with probability proportional to the Cards left in that half
+     *
+     * @param passes The number of times to riffle
+     * @return Returns a new riffle ShuffleModel
+     */
+    static ShuffleModel riffle(int passes) {
+        return new RiffleShuffle(passes);
+    }
+
+    /**
+     * Creates an overhand shuffle with packets of about 5 Cards, repeated ten times
+     *
+     * @return Returns a new overhand ShuffleModel
+     */
+    static ShuffleModel overhand() {
+        return overhand(10, 0.2);
+    }
+
+    /**
+     * Creates an overhand shuffle
+     * <p>
+     * Small packets are slid off the top of the Deck onto a new pile, reversing the order of the packets but not of the
+     * Cards within each. A packet ends after each Card with the given probability.
+     *
+     * @param passes         The number of times to shuffle
+     * @param cutProbability The probability that a packet ends after any Card
+     * @return Returns a new overhand ShuffleModel
+     */
+    static ShuffleModel overhand(int passes, double cutProbability) {
+        return new PacketShuffle(passes, cutProbability, 0);
+    }
+
+    /**
+     * Creates a strip shuffle that strips the Deck into about 5 packets, repeated five times
+     *
+     * @return Returns a new strip ShuffleModel
+     */
+    static ShuffleModel strip() {
+        return strip(5, 5);
+    }
+
+    /**
+     * Creates a strip shuffle
+     * <p>
+     * A few large packets are stripped off the top of the Deck onto the table, reversing their order
+     *
+     * @param passes  The number of times to shuffle
+     * @param packets The average number of packets per pass
+     * @return Returns a new strip ShuffleModel
+     */
+    static ShuffleModel strip(int passes, int packets) {
+
+        if (packets < 1) throw new IllegalArgumentException("A strip shuffle needs at least one packet");
+
+        return new PacketShuffle(passes, 0, packets);
+
+    }
+
+}
@@ -0,0 +1,408 @@
+package io.kutilj.cards;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A pool of Decks that are shuffled in the background so a Dealer can start a round without shuffling inline
+ * <p>
+ * Every Deck taken from the pool is replaced by a background task, which reuses a Deck handed back through
+ * {@link #recycle(Deck)} when there is one. Refills run one at a time whatever Executor is used, so the pool's
+ * RandomSource and ShuffleModel never need to be thread safe and a seeded RandomSource yields the same Decks in the same
+ * order. The pool itself can be shared by Dealers on any number of threads.
+ * <p>
+ * If a refill throws, the pool stops: the failure is kept and every later {@link #take()}, including one already
+ * waiting, throws an IllegalStateException caused by it. Taking from a closed pool throws as well.
+ */
+public class ShuffledDeckPool implements AutoCloseable {
+
+    /**
+     * Put in the ready queue when the pool stops, to wake a take waiting for a Deck that will never come
+     */
+    private static final Deck STOPPED = new Deck();
+
+    /**
+     * The Cards every Deck of the pool holds before it is shuffled
+     */
+    private final List<Card> template;
+
+    /**
+     * The Decks that are shuffled and ready to be dealt
+     */
+    private final BlockingQueue<Deck> ready;
+
+    /**
+     * Decks handed back to be refilled and shuffled again
+     */
+    private final BlockingQueue<Deck> spares;
+
+    /**
+     * Outstanding requests to refill the pool, one per Deck taken
+     */
+    private final BlockingQueue<Refill> requests;
+
+    /**
+     * Request objects that can be reused, so steady use of the pool allocates nothing
+     */
+    private final BlockingQueue<Refill> freeRequests;
+
+    /**
+     * Shuffles the refilled Decks, only used by the refill task
+     */
+    private final Dealer shuffler;
+
+    /**
+     * The Executor the refill task runs on
+     */
+    private final Executor executor;
+
+    /**
+     * Whether the Executor was created by the pool and must be shut down with it
+     */
+    private final boolean ownsExecutor;
+
+    /**
+     * Whether the refill task is scheduled or running
+     */
+    private final AtomicBoolean refilling = new AtomicBoolean();
+
+    /**
+     * The number of Decks taken from the pool
+     */
+    private final AtomicLong rounds = new AtomicLong();
+
+    /**
+     * The number of times a Deck was taken while none was ready
+     */
+    private final AtomicLong waits = new AtomicLong();
+
+    /**
+     * The number of Decks refilled
+     */
+    private final AtomicLong refills = new AtomicLong();
+
+    /**
+     * The total time between taking Decks and their replacements being ready, in nanoseconds
+     */
+    private final AtomicLong totalRefillLag = new AtomicLong();
+
+    /**
+     * The longest time between taking a Deck and its replacement being ready, in nanoseconds
+     */
+    private final AtomicLong maxRefillLag = new AtomicLong();
+
+    /**
+     * What a refill threw, or null while the pool works
+     */
+    private volatile Throwable failure;
+
+    /**
+     * Whether the pool was closed
+     */
+    private volatile boolean closed;
+
+    /**
+     * Constructs a pool of full Decks shuffled on a background thread owned by the pool
+     *
+     * @param depth The number of shuffled Decks kept ready
+     */
+    public ShuffledDeckPool(int depth) {
+        this(depth, fullDeck(), RandomSource.threadLocal(), ShuffleModel.fisherYates(), null);
+    }
+
+    /**
+     * Constructs a pool of Decks
+     *
+     * @param depth        The number of shuffled Decks kept ready
+     * @param template     The Cards every Deck holds before it is shuffled
+     * @param randomSource The source of randomness used to shuffle
+     * @param shuffleModel The way the Decks are shuffled
+     * @param executor     The Executor refills run on, or null to use a background thread owned by the pool
+     */
+    public ShuffledDeckPool(int depth, List<Card> template, RandomSource randomSource, ShuffleModel shuffleModel, Executor executor) {
+
+        if (depth < 1) throw new IllegalArgumentException("A pool must keep at least one Deck ready");
+
+        this.template = new ArrayList<>(new Deck(template).getCards());
+        this.ready = new ArrayBlockingQueue<>(depth);
+        this.spares = new ArrayBlockingQueue<>(depth);
+        this.requests = new ArrayBlockingQueue<>(depth);
+        this.freeRequests = new ArrayBlockingQueue<>(depth);
+        this.shuffler = new Dealer(null, randomSource).withShuffleModel(shuffleModel);
+
+        if (executor == null) {
+            this.executor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "shuffled-deck-pool");
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.ownsExecutor = true;
+        } else {
+            this.executor = executor;
+            this.ownsExecutor = false;
+        }
+
+        // the initial fill counts as refills requested now
+        for (int i = 0; i < depth; i++) {
+            requests.add(new Refill(System.nanoTime()));
+        }
+
+        scheduleRefill();
+
+    }
+
+    /**
+     * Creates the Cards of an organized full Deck
+     *
+     * @return Returns the Cards
+     */
+    private static List<Card> fullDeck() {
+
+        List<Card> cards = new ArrayList<>(Card.COUNT);
+
+        for (int ordinal = 0; ordinal < Card.COUNT; ordinal++) {
+            cards.add(Card.valueOf(ordinal));
+        }
+
+        return cards;
+
+    }
+
+    /**
+     * Takes a shuffled Deck from the pool, waiting for one if none is ready, and schedules its replacement
+     *
+     * @return Returns a shuffled Deck
+     * @throws IllegalStateException If the pool was closed or a refill failed
+     */
+    public Deck take() {
+
+        checkRunning();
+
+        Deck deck = ready.poll();
+
+        if (deck == null) {
+
+            waits.incrementAndGet();
+
+            try {
+                deck = ready.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for a shuffled Deck", e);
+            }
+
+        }
+
+        if (deck == STOPPED) {
+
+            // leave the marker for any other waiting take
+            ready.offer(STOPPED);
+            checkRunning();
+
+        }
+
+        rounds.incrementAndGet();
+
+        Refill request = freeRequests.poll();
+
+        if (request == null) {
+            request = new Refill(System.nanoTime());
+        } else {
+            request.requestedAt = System.nanoTime();
+        }
+
+        requests.add(request);
+        scheduleRefill();
+
+        return deck;
+
+    }
+
+    /**
+     * Hands a Deck that is no longer used back to the pool, so a later refill can reuse it instead of creating one
+     * <p>
+     * The Deck must not be used after it is recycled
+     *
+     * @param deck The Deck to reuse
+     */
+    public void recycle(Deck deck) {
+        if (deck != null) spares.offer(deck);
+    }
+
+    /**
+     * Gets the number of shuffled Decks ready to be taken
+     *
+     * @return Returns the current depth of the pool
+     */
+    public int getDepth() {
+
+        int depth = ready.size();
+
+        return ready.contains(STOPPED) ? depth - 1 : depth;
+
+    }
+
+    /**
+     * Gets the number of shuffled Decks the pool tries to keep ready
+     *
+     * @return Returns the capacity of the pool
+     */
+    public int getCapacity() {
+        return ready.size() + ready.remainingCapacity();
+    }
+
+    /**
+     * Gets the number of Decks taken from the pool
+     *
+     * @return Returns the number of rounds started
+     */
+    public long getRounds() {
+        return rounds.get();
+    }
+
+    /**
+     * Gets the number of times a round had to wait because no shuffled Deck was ready
+     *
+     * @return Returns the number of waits
+     */
+    public long getWaits() {
+        return waits.get();
+    }
+
+    /**
+     * Gets the average time between a Deck being taken and its replacement being ready
+     *
+     * @return Returns the average refill lag in nanoseconds
+     */
+    public long getAverageRefillLagNanos() {
+
+        long count = refills.get();
+
+        return count == 0 ? 0 : totalRefillLag.get() / count;
+
+    }
+
+    /**
+     * Gets the longest time between a Deck being taken and its replacement being ready
+     *
+     * @return Returns the maximum refill lag in nanoseconds
+     */
+    public long getMaxRefillLagNanos() {
+        return maxRefillLag.get();
+    }
+
+    /**
+     * Stops the background thread if the pool created it, and makes any waiting or later take throw
+     */
+    @Override
+    public void close() {
+
+        closed = true;
+        ready.offer(STOPPED);
+
+        if (ownsExecutor) ((ExecutorService) executor).shutdownNow();
+
+    }
+
+    /**
+     * Checks the pool can still hand out Decks
+     *
+     * @throws IllegalStateException If the pool was closed or a refill failed
+     */
+    private void checkRunning() {
+
+        if (closed) throw new IllegalStateException("The pool is closed");
+
+        Throwable cause = failure;
+
+        if (cause != null) throw new IllegalStateException("Refilling the pool failed", cause);
+
+    }
+
+    /**
+     * Schedules the refill task unless it is already scheduled or running
+     */
+    private void scheduleRefill() {
+        if (refilling.compareAndSet(false, true)) executor.execute(this::refill);
+    }
+
+    /**
+     * Refills and shuffles a Deck for every outstanding request
+     */
+    private void refill() {
+
+        do {
+
+            try {
+
+                Refill request;
+
+                while ((request = requests.poll()) != null) {
+
+                    Deck deck = spares.poll();
+
+                    if (deck == null) deck = new Deck();
+
+                    deck.getCards().clear();
+                    deck.getCards().addAll(template);
+
+                    shuffler.setDeck(deck);
+                    shuffler.shuffle();
+                    shuffler.setDeck(null);
+
+                    ready.add(deck);
+
+                    long lag = System.nanoTime() - request.requestedAt;
+
+                    refills.incrementAndGet();
+                    totalRefillLag.addAndGet(lag);
+                    maxRefillLag.accumulateAndGet(lag, Math::max);
+                    freeRequests.offer(request);
+
+                }
+
+            } catch (RuntimeException | Error e) {
+
+                // the refill cannot be trusted to work again, stop the pool rather than leave takes waiting forever
+                if (!closed) failure = e;
+
+                ready.offer(STOPPED);
+
+            } finally {
+                refilling.set(false);
+            }
+
+            // a request may have arrived after the queue was drained but before the flag was cleared
+        } while (failure == null && !closed && !requests.isEmpty() && refilling.compareAndSet(false, true));
+
+    }
+
+    /**
+     * A request to refill the pool
+     */
+    private static final class Refill {
+
+        /**
+         * When the refill was requested, from {@link System#nanoTime()}
+         */
+        private long requestedAt;
+
+        /**
+         * Constructs the request
+         *
+         * @param requestedAt When the refill was requested
+         */
+        private Refill(long requestedAt) {
+            this.requestedAt = requestedAt;
+        }
+
+    }
+
+}
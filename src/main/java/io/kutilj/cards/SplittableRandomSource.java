@@ -0,0 +1,39 @@
+package io.kutilj.cards;
+
+import java.util.SplittableRandom;
+
+/**
+ * A RandomSource backed by a SplittableRandom
+ */
+final class SplittableRandomSource implements RandomSource {
+
+    /**
+     * The generator of the RandomSource
+     */
+    private final SplittableRandom random;
+
+    /**
+     * Constructs the RandomSource with the given generator
+     *
+     * @param random The generator of the RandomSource
+     */
+    SplittableRandomSource(SplittableRandom random) {
+        this.random = random;
+    }
+
+    @Override
+    public long nextLong() {
+        return random.nextLong();
+    }
+
+    @Override
+    public int nextInt(int bound) {
+        return random.nextInt(bound);
+    }
+
+    @Override
+    public RandomSource split() {
+        return new SplittableRandomSource(random.split());
+    }
+
+}
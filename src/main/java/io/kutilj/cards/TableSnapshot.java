@@ -0,0 +1,212 @@
+package io.kutilj.cards;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * An immutable copy of the state of a table: the order of the Cards left in the Deck, the hand of every Player and the
+ * community board
+ * <p>
+ * A table never holds more than 52 Cards, so the whole state fits in one small byte array of ordinals: the number of
+ * Cards in the Deck and their ordinals from the top, then the size and ordinals of every hand and of the board. Taking a snapshot and
+ * restoring it cost one pass over at most 52 Cards, and snapshots compare by value so a tree search can use them as
+ * keys of a transposition table. For stepping back through single actions without copying anything, use an
+ * {@link UndoLog}.
+ */
+public final class TableSnapshot {
+
+    /**
+     * The number of Players
+     */
+    private final int numPlayers;
+
+    /**
+     * The number of Cards on the board
+     */
+    private final int boardSize;
+
+    /**
+     * The size of the Deck and its ordinals, then the size and ordinals of every hand and of the board
+     */
+    private final byte[] state;
+
+    /**
+     * The hash of the state, computed once
+     */
+    private final int hash;
+
+    /**
+     * Constructs a snapshot
+     *
+     * @param numPlayers The number of Players
+     * @param boardSize  The number of Cards on the board
+     * @param state      The encoded state, owned by the snapshot
+     */
+    private TableSnapshot(int numPlayers, int boardSize, byte[] state) {
+        this.numPlayers = numPlayers;
+        this.boardSize = boardSize;
+        this.state = state;
+        this.hash = Arrays.hashCode(state);
+    }
+
+    /**
+     * Takes a snapshot of a table without a board
+     *
+     * @param deck    The Deck
+     * @param players The Players
+     * @return Returns the snapshot
+     */
+    public static TableSnapshot of(Deck deck, List<Player> players) {
+        return of(deck, players, null);
+    }
+
+    /**
+     * Takes a snapshot of a table
+     *
+     * @param deck    The Deck
+     * @param players The Players
+     * @param board   The community board, or null if there is none
+     * @return Returns the snapshot
+     */
+    public static TableSnapshot of(Deck deck, List<Player> players, List<Card> board) {
+
+        List<Card> cards = deck.getCards();
+        int boardSize = board == null ? 0 : board.size();
+        int length = 1 + cards.size() + players.size() + 1 + boardSize;
+
+        for (int i = 0; i < players.size(); i++) {
+            length += players.get(i).getHand().size();
+        }
+
+        if (length > 1 + Card.COUNT + players.size() + 1) throw new IllegalArgumentException("A table cannot hold more than 52 Cards");
+
+        byte[] state = new byte[length];
+        int position = 0;
+
+        state[position++] = (byte) cards.size();
+
+        for (int i = 0; i < cards.size(); i++) {
+            state[position++] = (byte) cards.get(i).getOrdinal();
+        }
+
+        for (int i = 0; i < players.size(); i++) {
+
+            List<Card> hand = players.get(i).getHand();
+
+            state[position++] = (byte) hand.size();
+
+            for (int j = 0; j < hand.size(); j++) {
+                state[position++] = (byte) hand.get(j).getOrdinal();
+            }
+
+        }
+
+        state[position++] = (byte) boardSize;
+
+        for (int i = 0; i < boardSize; i++) {
+            state[position++] = (byte) board.get(i).getOrdinal();
+        }
+
+        return new TableSnapshot(players.size(), boardSize, state);
+
+    }
+
+    /**
+     * Puts a table without a board back into the state of the snapshot
+     *
+     * @param deck    The Deck
+     * @param players The Players, as many as when the snapshot was taken
+     */
+    public void restore(Deck deck, List<Player> players) {
+        restore(deck, players, null);
+    }
+
+    /**
+     * Puts a table back into the state of the snapshot
+     * <p>
+     * The Deck is refilled in place and every hand and the board are cleared and refilled, so no new Lists are created.
+     *
+     * @param deck    The Deck
+     * @param players The Players, as many as when the snapshot was taken
+     * @param board   The community board, or null if there is none
+     */
+    public void restore(Deck deck, List<Player> players, List<Card> board) {
+
+        if (players.size() != numPlayers) throw new IllegalArgumentException("The snapshot holds " + numPlayers + " Players");
+
+        if (board == null && boardSize > 0) throw new IllegalArgumentException("The snapshot holds a board");
+
+        int position = 0;
+        int deckSize = state[position++];
+
+        deck.restore(state, position, deckSize);
+        position += deckSize;
+
+        for (int i = 0; i < numPlayers; i++) {
+
+            List<Card> hand = players.get(i).getHand();
+            int handSize = state[position++];
+
+            hand.clear();
+
+            for (int j = 0; j < handSize; j++) {
+                hand.add(Card.valueOf(state[position++]));
+            }
+
+        }
+
+        if (board == null) return;
+
+        // the size of the board is already known
+        position++;
+        board.clear();
+
+        for (int i = 0; i < boardSize; i++) {
+            board.add(Card.valueOf(state[position++]));
+        }
+
+    }
+
+    /**
+     * Gets the number of Players
+     *
+     * @return Returns the number of Players
+     */
+    public int getNumPlayers() {
+        return numPlayers;
+    }
+
+    /**
+     * Gets the number of Cards left in the Deck
+     *
+     * @return Returns the size of the Deck
+     */
+    public int getDeckSize() {
+        return state[0];
+    }
+
+    /**
+     * Gets the number of Cards on the board
+     *
+     * @return Returns the size of the board
+     */
+    public int getBoardSize() {
+        return boardSize;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        TableSnapshot that = (TableSnapshot) o;
+
+        return hash == that.hash && numPlayers == that.numPlayers && Arrays.equals(state, that.state);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+}
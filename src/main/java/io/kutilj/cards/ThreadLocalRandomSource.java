@@ -0,0 +1,41 @@
+package io.kutilj.cards;
+
+import java.util.SplittableRandom;
+
+/**
+ * A RandomSource that gives every thread its own SplittableRandom
+ */
+final class ThreadLocalRandomSource implements RandomSource {
+
+    /**
+     * The shared instance, the state itself lives with each thread
+     */
+    static final ThreadLocalRandomSource INSTANCE = new ThreadLocalRandomSource();
+
+    /**
+     * The generator of each thread, seeded independently when the thread first uses it
+     */
+    private static final ThreadLocal<SplittableRandom> RANDOM = ThreadLocal.withInitial(SplittableRandom::new);
+
+    /**
+     * Only the shared instance exists
+     */
+    private ThreadLocalRandomSource() {
+    }
+
+    @Override
+    public long nextLong() {
+        return RANDOM.get().nextLong();
+    }
+
+    @Override
+    public int nextInt(int bound) {
+        return RANDOM.get().nextInt(bound);
+    }
+
+    @Override
+    public RandomSource split() {
+        return new SplittableRandomSource(RANDOM.get().split());
+    }
+
+}
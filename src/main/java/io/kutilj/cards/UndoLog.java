@@ -0,0 +1,233 @@
+package io.kutilj.cards;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Applies dealing actions to a table and remembers them so they can be undone, most recent first
+ * <p>
+ * Every action moves one Card from the top of the Deck to a hand, to the board or to the burned Cards, and is logged
+ * as a single int holding the destination and the Card. Undoing it takes the Card back off the end of its hand or the
+ * board and puts it back on top of the Deck with {@link Deck#returnToTop(Card)}, so applying and undoing cost the same
+ * small constant and allocate nothing once the log has grown. A search marks the log before expanding a node and
+ * undoes back to the mark afterwards. The table must only be changed through the log while it has actions to undo.
+ */
+public final class UndoLog {
+
+    /**
+     * The Deck the Cards are drawn from
+     */
+    private final Deck deck;
+
+    /**
+     * The Players the Cards are dealt to
+     */
+    private final List<Player> players;
+
+    /**
+     * The community board, or null if there is none
+     */
+    private final List<Card> board;
+
+    /**
+     * The actions applied, each the destination shifted left by 8 bits with the ordinal of the Card below
+     */
+    private int[] actions = new int[Card.COUNT];
+
+    /**
+     * The number of actions applied
+     */
+    private int size;
+
+    /**
+     * Constructs an empty log over a table
+     *
+     * @param deck    The Deck the Cards are drawn from
+     * @param players The Players the Cards are dealt to
+     * @param board   The community board, or null if there is none
+     */
+    public UndoLog(Deck deck, List<Player> players, List<Card> board) {
+        this.deck = deck;
+        this.players = players;
+        this.board = board;
+    }
+
+    /**
+     * Gets the number of actions that can be undone
+     *
+     * @return Returns the number of actions
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Marks the current point of the log, to undo back to it later
+     *
+     * @return Returns the mark
+     */
+    public int mark() {
+        return size;
+    }
+
+    /**
+     * Draws the top Card of the Deck into the hand of a Player
+     *
+     * @param player The index of the Player
+     * @return Returns the Card drawn
+     */
+    public Card draw(int player) {
+
+        if (player < 0 || player >= players.size()) throw new IllegalArgumentException("There is no Player " + player);
+
+        Card card = deck.draw();
+
+        players.get(player).addCard(card);
+        log(player, card);
+
+        return card;
+
+    }
+
+    /**
+     * Draws the top Card of the Deck onto the board
+     *
+     * @return Returns the Card drawn
+     */
+    public Card drawToBoard() {
+
+        if (board == null) throw new IllegalStateException("The table has no board");
+
+        Card card = deck.draw();
+
+        board.add(card);
+        log(DealPlan.BOARD, card);
+
+        return card;
+
+    }
+
+    /**
+     * Burns the top Card of the Deck
+     *
+     * @return Returns the Card burned
+     */
+    public Card burn() {
+
+        Card card = deck.draw();
+
+        log(DealPlan.BURN, card);
+
+        return card;
+
+    }
+
+    /**
+     * Deals a round following a plan, logging every Card as its own action
+     *
+     * @param plan The compiled plan of the round
+     * @return Returns the mark from before the round, to undo the whole round at once
+     */
+    public int deal(DealPlan plan) {
+
+        if (players.size() != plan.getNumPlayers()) throw new IllegalArgumentException("The plan deals to " + plan.getNumPlayers() + " Players");
+
+        if (board == null && plan.getBoardSize() > 0) throw new IllegalArgumentException("The plan deals Cards to a board");
+
+        plan.checkFits(deck.getCards().size());
+
+        int mark = size;
+        int[] targets = plan.targets();
+
+        for (int position = 0; position < targets.length; position++) {
+
+            int target = targets[position];
+
+            if (target >= 0) {
+                draw(target);
+            } else if (target == DealPlan.BOARD) {
+                drawToBoard();
+            } else {
+                burn();
+            }
+
+        }
+
+        return mark;
+
+    }
+
+    /**
+     * Undoes the most recent action
+     */
+    public void undo() {
+
+        if (size == 0) throw new IllegalStateException("There is nothing to undo");
+
+        int action = actions[--size];
+        int target = action >> 8;
+        Card card = Card.valueOf(action & 0xFF);
+
+        if (target >= 0) {
+            removeLast(players.get(target).getHand(), card);
+        } else if (target == DealPlan.BOARD) {
+            removeLast(board, card);
+        }
+
+        deck.returnToTop(card);
+
+    }
+
+    /**
+     * Undoes every action applied after a mark
+     *
+     * @param mark The mark from {@link #mark()}
+     */
+    public void undoTo(int mark) {
+
+        if (mark < 0 || mark > size) throw new IllegalArgumentException("The mark " + mark + " is not in the log");
+
+        while (size > mark) {
+            undo();
+        }
+
+    }
+
+    /**
+     * Forgets every action, keeping the table as it is
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Logs an action
+     *
+     * @param target The destination of the Card
+     * @param card   The Card
+     */
+    private void log(int target, Card card) {
+
+        if (size == actions.length) actions = Arrays.copyOf(actions, size * 2);
+
+        actions[size++] = target << 8 | card.getOrdinal();
+
+    }
+
+    /**
+     * Takes the last Card off a hand or the board
+     *
+     * @param cards The hand or the board
+     * @param card  The Card expected at the end
+     */
+    private static void removeLast(List<Card> cards, Card card) {
+
+        if (cards.isEmpty() || !cards.get(cards.size() - 1).equals(card)) {
+            throw new IllegalStateException("The table was changed outside of the log");
+        }
+
+        cards.remove(cards.size() - 1);
+
+    }
+
+}
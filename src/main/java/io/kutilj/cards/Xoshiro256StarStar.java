@@ -0,0 +1,64 @@
+package io.kutilj.cards;
+
+/**
+ * A RandomSource using the xoshiro256** generator by Blackman and Vigna
+ * <p>
+ * Splitting seeds the new source with the next value of this one, expanded into a full state with SplitMix64 like any
+ * seed. Handing over the current state and jumping ahead instead would make a source split from a split share the
+ * stream of its grandparent, whereas streams started from unrelated points of a period of 2^256 - 1 practically never
+ * meet however deep the splits go.
+ */
+final class Xoshiro256StarStar implements RandomSource {
+
+    /**
+     * The state of the generator
+     */
+    private long s0, s1, s2, s3;
+
+    /**
+     * Constructs the generator, expanding the seed into the state with SplitMix64
+     *
+     * @param seed The seed of the generator
+     */
+    Xoshiro256StarStar(long seed) {
+        s0 = mix(seed += 0x9e3779b97f4a7c15L);
+        s1 = mix(seed += 0x9e3779b97f4a7c15L);
+        s2 = mix(seed += 0x9e3779b97f4a7c15L);
+        s3 = mix(seed + 0x9e3779b97f4a7c15L);
+    }
+
+    @Override
+    public long nextLong() {
+
+        long result = Long.rotateLeft(s1 * 5, 7) * 9;
+        long t = s1 << 17;
+
+        s2 ^= s0;
+        s3 ^= s1;
+        s1 ^= s2;
+        s0 ^= s3;
+        s2 ^= t;
+        s3 = Long.rotateLeft(s3, 45);
+
+        return result;
+
+    }
+
+    @Override
+    public RandomSource split() {
+        return new Xoshiro256StarStar(nextLong());
+    }
+
+    /**
+     * The SplitMix64 finalizer
+     *
+     * @param z The value to mix
+     * @return Returns the mixed value
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+}
@@ -0,0 +1,166 @@
+package io.kutilj.cards.fairness;
+
+/**
+ * The tail probabilities the fairness checks turn their statistics into p-values with
+ */
+final class Distributions {
+
+    /**
+     * The relative error at which the series and continued fraction stop
+     */
+    private static final double EPSILON = 1e-15;
+
+    /**
+     * The most terms the series and continued fraction may take
+     */
+    private static final int MAX_ITERATIONS = 100_000;
+
+    /**
+     * The smallest double the continued fraction divides by, to keep clear of zero
+     */
+    private static final double TINY = 1e-300;
+
+    /**
+     * The coefficients of the Lanczos approximation of the gamma function
+     */
+    private static final double[] LANCZOS = {
+            76.18009172947146, -86.50532032941677, 24.01409824083091,
+            -1.231739572450155, 0.1208650973866179e-2, -0.5395239384953e-5
+    };
+
+    /**
+     * Not instantiable
+     */
+    private Distributions() {
+    }
+
+    /**
+     * Works out the probability that a chi-square distributed variable is at least the given value
+     *
+     * @param chiSquare        The value of the statistic
+     * @param degreesOfFreedom The degrees of freedom of the distribution
+     * @return Returns the upper tail probability, 1 if there are no degrees of freedom
+     */
+    static double chiSquareSurvival(double chiSquare, int degreesOfFreedom) {
+
+        if (degreesOfFreedom <= 0) return 1;
+
+        return gammaQ(degreesOfFreedom / 2.0, chiSquare / 2);
+
+    }
+
+    /**
+     * Works out the probability that a standard normal variable is at least as far from zero as the given value
+     *
+     * @param z The value of the statistic
+     * @return Returns the two sided tail probability
+     */
+    static double normalSurvival(double z) {
+        return gammaQ(0.5, z * z / 2);
+    }
+
+    /**
+     * Works out the regularized upper incomplete gamma function Q(a, x)
+     * <p>
+     * Below {@code a + 1} the series of the lower function converges fastest, above it the continued fraction of the
+     * upper function does, which also keeps the smallest p-values accurate.
+     *
+     * @param a The shape, must be positive
+     * @param x The lower limit of the integral
+     * @return Returns Q(a, x)
+     */
+    static double gammaQ(double a, double x) {
+
+        if (x <= 0) return 1;
+
+        if (x < a + 1) return 1 - gammaSeries(a, x);
+
+        return gammaContinuedFraction(a, x);
+
+    }
+
+    /**
+     * Works out the natural logarithm of the gamma function with the Lanczos approximation
+     *
+     * @param x The argument, must be positive
+     * @return Returns ln(Gamma(x))
+     */
+    static double logGamma(double x) {
+
+        double tmp = x + 5.5;
+        double series = 1.000000000190015;
+        double y = x;
+
+        tmp -= (x + 0.5) * Math.log(tmp);
+
+        for (double coefficient : LANCZOS) {
+            series += coefficient / ++y;
+        }
+
+        return -tmp + Math.log(2.5066282746310005 * series / x);
+
+    }
+
+    /**
+     * Works out the regularized lower incomplete gamma function P(a, x) by its series
+     *
+     * @param a The shape
+     * @param x The lower limit, below {@code a + 1}
+     * @return Returns P(a, x)
+     */
+    private static double gammaSeries(double a, double x) {
+
+        double term = 1 / a;
+        double sum = term;
+
+        for (int n = 1; n < MAX_ITERATIONS && Math.abs(term) > Math.abs(sum) * EPSILON; n++) {
+            term *= x / (a + n);
+            sum += term;
+        }
+
+        return sum * Math.exp(-x + a * Math.log(x) - logGamma(a));
+
+    }
+
+    /**
+     * Works out the regularized upper incomplete gamma function Q(a, x) by its continued fraction, evaluated with the
+     * modified Lentz method
+     *
+     * @param a The shape
+     * @param x The lower limit, at least {@code a + 1}
+     * @return Returns Q(a, x)
+     */
+    private static double gammaContinuedFraction(double a, double x) {
+
+        double b = x + 1 - a;
+        double c = 1 / TINY;
+        double d = 1 / b;
+        double fraction = d;
+
+        for (int n = 1; n < MAX_ITERATIONS; n++) {
+
+            double an = -n * (n - a);
+
+            b += 2;
+            d = an * d + b;
+            c = b + an / c;
+
+            if (Math.abs(d) < TINY) d = TINY;
+
+            if (Math.abs(c) < TINY) c = TINY;
+
+            d = 1 / d;
+
+            double delta = d * c;
+
+            fraction *= delta;
+
+            if (Math.abs(delta - 1) < EPSILON) break;
+
+        }
+
+        return Math.exp(-x + a * Math.log(x) - logGamma(a)) * fraction;
+
+    }
+
+}
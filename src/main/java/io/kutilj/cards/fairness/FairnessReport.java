@@ -0,0 +1,405 @@
+package io.kutilj.cards.fairness;
+
+import io.kutilj.cards.Card;
+
+import java.util.Arrays;
+
+/**
+ * The counts gathered over many shuffles of an ordered Deck and the statistics testing them against a uniform shuffle
+ * <p>
+ * Every {@link Check} turns its counts into a p-value, the probability that a uniform shuffle gives a result at least as
+ * far from what is expected. A check passes when its p-value is at least the significance, and the report passes when
+ * every check does. The counts are exact, so reports from the same shuffles are equal whatever order they were added in.
+ */
+public final class FairnessReport {
+
+    /**
+     * A statistical check of the shuffles
+     */
+    public enum Check {
+
+        /**
+         * A chi-square test that every Card lands in every position equally often
+         */
+        POSITIONS("position by card"),
+
+        /**
+         * A z-test that Cards next to each other in the ordered Deck stay next to each other, in the same order, no more
+         * or less often than in a random order, where it happens (n - 1) / n times per shuffle
+         */
+        ADJACENT_PAIRS("adjacent pairs"),
+
+        /**
+         * A chi-square test of the number of rising sequences, the runs of Cards of consecutive ordinals found left to
+         * right, against its Eulerian distribution. Riffle shuffles leave too few of them.
+         */
+        RISING_SEQUENCES("rising sequences"),
+
+        /**
+         * A chi-square test that the first {@value ShuffleFairness#ORDERED_CARDS} Cards of the ordered Deck end up in
+         * each of their relative orders equally often
+         */
+        PERMUTATIONS("order of first " + ShuffleFairness.ORDERED_CARDS);
+
+        /**
+         * The name of the check in the report
+         */
+        private final String label;
+
+        /**
+         * Constructs the check
+         *
+         * @param label The name of the check in the report
+         */
+        Check(String label) {
+            this.label = label;
+        }
+
+        /**
+         * Gets the name of the check in the report
+         *
+         * @return Returns the name
+         */
+        public String getLabel() {
+            return label;
+        }
+
+    }
+
+    /**
+     * The number of shuffles the counts were gathered from
+     */
+    private final long shuffles;
+
+    /**
+     * The smallest p-value a check passes with
+     */
+    private final double significance;
+
+    /**
+     * The counts, laid out as described by the offsets of {@link ShuffleFairness}
+     */
+    private final long[] tally;
+
+    /**
+     * The statistic of every check, a chi-square or a z-score
+     */
+    private final double[] statistics = new double[Check.values().length];
+
+    /**
+     * The degrees of freedom of every check, 0 for a z-score
+     */
+    private final int[] degreesOfFreedom = new int[Check.values().length];
+
+    /**
+     * The p-value of every check
+     */
+    private final double[] pValues = new double[Check.values().length];
+
+    /**
+     * Constructs the report and works out every check
+     *
+     * @param shuffles     The number of shuffles the counts were gathered from
+     * @param significance The smallest p-value a check passes with
+     * @param tally        The counts, owned by the report
+     */
+    FairnessReport(long shuffles, double significance, long[] tally) {
+
+        this.shuffles = shuffles;
+        this.significance = significance;
+        this.tally = tally;
+
+        positions();
+        adjacentPairs();
+        risingSequences();
+        permutations();
+
+    }
+
+    /**
+     * Gets the number of shuffles the counts were gathered from
+     *
+     * @return Returns the number of shuffles
+     */
+    public long getShuffles() {
+        return shuffles;
+    }
+
+    /**
+     * Gets the smallest p-value a check passes with
+     *
+     * @return Returns the significance
+     */
+    public double getSignificance() {
+        return significance;
+    }
+
+    /**
+     * Gets how often a Card was shuffled into a position
+     *
+     * @param position The position from the top of the Deck
+     * @param card     The Card
+     * @return Returns the number of shuffles that put the Card there
+     */
+    public long getCount(int position, Card card) {
+
+        if (position < 0 || position >= Card.COUNT) throw new IllegalArgumentException("There is no position " + position);
+
+        return tally[ShuffleFairness.POSITIONS + position * Card.COUNT + card.getOrdinal()];
+
+    }
+
+    /**
+     * Gets how often a shuffle left a number of rising sequences
+     *
+     * @param count The number of rising sequences, from 1 to 52
+     * @return Returns the number of shuffles
+     */
+    public long getRisingSequenceCount(int count) {
+
+        if (count < 1 || count > Card.COUNT) throw new IllegalArgumentException("A Deck cannot have " + count + " rising sequences");
+
+        return tally[ShuffleFairness.RISING_SEQUENCES + count - 1];
+
+    }
+
+    /**
+     * Gets the mean number of Cards per shuffle still directly below the Card before them in the ordered Deck
+     *
+     * @return Returns the mean number of adjacent pairs
+     */
+    public double getMeanAdjacentPairs() {
+        return (double) tally[ShuffleFairness.ADJACENT_PAIRS] / shuffles;
+    }
+
+    /**
+     * Gets the statistic of a check
+     *
+     * @param check The check
+     * @return Returns the chi-square, or the z-score if the check has no degrees of freedom
+     */
+    public double getStatistic(Check check) {
+        return statistics[check.ordinal()];
+    }
+
+    /**
+     * Gets the degrees of freedom of a check
+     *
+     * @param check The check
+     * @return Returns the degrees of freedom of a chi-square, or 0 for a z-score
+     */
+    public int getDegreesOfFreedom(Check check) {
+        return degreesOfFreedom[check.ordinal()];
+    }
+
+    /**
+     * Gets the p-value of a check
+     *
+     * @param check The check
+     * @return Returns the probability of a result at least this far from uniform
+     */
+    public double getPValue(Check check) {
+        return pValues[check.ordinal()];
+    }
+
+    /**
+     * Checks whether a check passed
+     *
+     * @param check The check
+     * @return Returns true if its p-value is at least the significance
+     */
+    public boolean isPassed(Check check) {
+        return pValues[check.ordinal()] >= significance;
+    }
+
+    /**
+     * Checks whether every check passed
+     *
+     * @return Returns true if the shuffles cannot be told apart from uniform ones
+     */
+    public boolean isPassed() {
+
+        for (Check check : Check.values()) {
+            if (!isPassed(check)) return false;
+        }
+
+        return true;
+
+    }
+
+    /**
+     * Works out the chi-square of the position by card counts, each expected once in 52 shuffles
+     */
+    private void positions() {
+
+        double expected = (double) shuffles / Card.COUNT;
+        double chiSquare = 0;
+
+        for (int i = 0; i < Card.COUNT * Card.COUNT; i++) {
+            double difference = tally[ShuffleFairness.POSITIONS + i] - expected;
+            chiSquare += difference * difference / expected;
+        }
+
+        record(Check.POSITIONS, chiSquare, (Card.COUNT - 1) * (Card.COUNT - 1));
+
+    }
+
+    /**
+     * Works out the z-score of the mean number of adjacent pairs
+     * <p>
+     * Each of the n - 1 pairs stays together with probability 1 / n and any two pairs with probability 1 / (n (n - 1)),
+     * so the count has a mean of (n - 1) / n and a variance of (n^2 - n - 1) / n^2.
+     */
+    private void adjacentPairs() {
+
+        double n = Card.COUNT;
+        double mean = (n - 1) / n;
+        double variance = (n * n - n - 1) / (n * n);
+
+        record(Check.ADJACENT_PAIRS, (getMeanAdjacentPairs() - mean) / Math.sqrt(variance / shuffles), 0);
+
+    }
+
+    /**
+     * Works out the chi-square of the rising sequence counts against the Eulerian distribution
+     * <p>
+     * The counts far out in the tails are expected too rarely for a chi-square, so neighbouring counts are pooled until
+     * each pool is expected at least {@value ShuffleFairness#MIN_EXPECTED} times. What is left after the last full pool
+     * joins that pool.
+     */
+    private void risingSequences() {
+
+        double[] probabilities = eulerian(Card.COUNT);
+        double[] expected = new double[Card.COUNT];
+        long[] observed = new long[Card.COUNT];
+        int pools = 0;
+
+        for (int count = 1; count <= Card.COUNT; count++) {
+
+            expected[pools] += probabilities[count - 1] * shuffles;
+            observed[pools] += tally[ShuffleFairness.RISING_SEQUENCES + count - 1];
+
+            if (expected[pools] >= ShuffleFairness.MIN_EXPECTED) pools++;
+
+        }
+
+        // the remainder is expected too rarely to stand on its own
+        if (pools < Card.COUNT && (expected[pools] > 0 || observed[pools] > 0)) {
+
+            if (pools > 0) {
+                expected[pools - 1] += expected[pools];
+                observed[pools - 1] += observed[pools];
+            } else {
+                pools = 1;
+            }
+
+        }
+
+        double chiSquare = 0;
+
+        for (int pool = 0; pool < pools; pool++) {
+            double difference = observed[pool] - expected[pool];
+            chiSquare += difference * difference / expected[pool];
+        }
+
+        record(Check.RISING_SEQUENCES, chiSquare, pools - 1);
+
+    }
+
+    /**
+     * Works out the chi-square of the relative orders of the first Cards, each expected equally often
+     */
+    private void permutations() {
+
+        int orders = ShuffleFairness.ORDERS;
+        double expected = (double) shuffles / orders;
+        double chiSquare = 0;
+
+        for (int i = 0; i < orders; i++) {
+            double difference = tally[ShuffleFairness.PERMUTATIONS + i] - expected;
+            chiSquare += difference * difference / expected;
+        }
+
+        record(Check.PERMUTATIONS, chiSquare, orders - 1);
+
+    }
+
+    /**
+     * Records the result of a check
+     *
+     * @param check            The check
+     * @param statistic        The chi-square or the z-score
+     * @param degreesOfFreedom The degrees of freedom of a chi-square, or 0 for a z-score
+     */
+    private void record(Check check, double statistic, int degreesOfFreedom) {
+
+        statistics[check.ordinal()] = statistic;
+        this.degreesOfFreedom[check.ordinal()] = degreesOfFreedom;
+        pValues[check.ordinal()] = degreesOfFreedom == 0 ? Distributions.normalSurvival(statistic)
+                : Distributions.chiSquareSurvival(statistic, degreesOfFreedom);
+
+    }
+
+    /**
+     * Works out the probability that a uniform order of n Cards has each number of rising sequences
+     * <p>
+     * Follows the recurrence of the Eulerian numbers, divided by n at each step so the row stays a distribution.
+     *
+     * @param n The number of Cards
+     * @return Returns the probabilities of 1 to n rising sequences, at indices 0 to n - 1
+     */
+    static double[] eulerian(int n) {
+
+        double[] row = new double[n];
+
+        row[0] = 1;
+
+        for (int m = 2; m <= n; m++) {
+
+            for (int k = m - 1; k >= 0; k--) {
+                row[k] = ((k + 1) * row[k] + (k > 0 ? (m - k) * row[k - 1] : 0)) / m;
+            }
+
+        }
+
+        return row;
+
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        FairnessReport that = (FairnessReport) o;
+
+        return shuffles == that.shuffles && Double.compare(significance, that.significance) == 0 && Arrays.equals(tally, that.tally);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Long.hashCode(shuffles) + Arrays.hashCode(tally);
+    }
+
+    @Override
+    public String toString() {
+
+        StringBuilder builder = new StringBuilder(String.format("shuffles=%d significance=%.1e %s",
+                shuffles, significance, isPassed() ? "PASS" : "FAIL"));
+
+        for (Check check : Check.values()) {
+
+            int i = check.ordinal();
+            String statistic = degreesOfFreedom[i] == 0 ? String.format("z=%.3f", statistics[i])
+                    : String.format("chi2=%.1f df=%d", statistics[i], degreesOfFreedom[i]);
+
+            builder.append(String.format("%n  %-20s %-24s p=%.4g %s", check.getLabel(), statistic, pValues[i],
+                    isPassed(check) ? "pass" : "FAIL"));
+
+        }
+
+        return builder.toString();
+
+    }
+
+}
@@ -0,0 +1,414 @@
+package io.kutilj.cards.fairness;
+
+import io.kutilj.cards.Card;
+import io.kutilj.cards.Dealer;
+import io.kutilj.cards.Deck;
+import io.kutilj.cards.RandomSource;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.LongFunction;
+
+/**
+ * Tests whether a Dealer shuffles uniformly by shuffling an ordered Deck many times and checking the counts gathered
+ * <p>
+ * The shuffles are split into fixed chunks of {@value #CHUNK_SHUFFLES}. Each chunk creates its own Dealer from a seed
+ * made from the run seed and the index of the chunk, and counts into its own array of longs. The chunks run as fork/join
+ * tasks on every core and their arrays are added together as the tasks join, so the threads never share a counter and a
+ * seed gives the same {@link FairnessReport} for any number of threads. A chunk refills the Deck in order before every
+ * shuffle, so each shuffle is tested from the same start, and allocates nothing while it runs.
+ * <p>
+ * Usage: {@code ShuffleFairness [shuffles] [seed]}, by default {@code 100000000 42}. The report is printed and the exit
+ * status is 1 if any check fails, so the run can gate a build.
+ */
+public class ShuffleFairness {
+
+    /**
+     * The number of shuffles done by one Dealer in one task
+     */
+    static final int CHUNK_SHUFFLES = 16384;
+
+    /**
+     * The number of Cards of the ordered Deck whose relative order is counted
+     */
+    static final int ORDERED_CARDS = 5;
+
+    /**
+     * The number of relative orders of those Cards
+     */
+    static final int ORDERS = 120;
+
+    /**
+     * The fewest times a pool of rising sequence counts is expected, for its chi-square term to be trusted
+     */
+    static final int MIN_EXPECTED = 5;
+
+    /**
+     * The offset of the counts of each Card in each position, at {@code position * 52 + ordinal}
+     */
+    static final int POSITIONS = 0;
+
+    /**
+     * The offset of the counts of shuffles with each number of rising sequences, from 1
+     */
+    static final int RISING_SEQUENCES = POSITIONS + Card.COUNT * Card.COUNT;
+
+    /**
+     * The offset of the total number of adjacent pairs
+     */
+    static final int ADJACENT_PAIRS = RISING_SEQUENCES + Card.COUNT;
+
+    /**
+     * The offset of the counts of each relative order of the first Cards, indexed by its rank
+     */
+    static final int PERMUTATIONS = ADJACENT_PAIRS + 1;
+
+    /**
+     * The number of counts gathered
+     */
+    static final int TALLY_SIZE = PERMUTATIONS + ORDERS;
+
+    /**
+     * The smallest p-value a check passes with by default, so a fair shuffle fails a run about once in 250,000
+     */
+    private static final double DEFAULT_SIGNIFICANCE = 1e-6;
+
+    /**
+     * The increment of the seeds of successive chunks, the golden ratio scaled to 64 bits
+     */
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    /**
+     * The mask of a full Deck
+     */
+    private static final long FULL = (1L << Card.COUNT) - 1;
+
+    /**
+     * The pool the shuffles run on
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * Creates the Dealer of a chunk from the seed of the chunk
+     */
+    private LongFunction<Dealer> dealers;
+
+    /**
+     * The smallest p-value a check passes with
+     */
+    private double significance;
+
+    /**
+     * Default constructor, runs on the common pool
+     */
+    public ShuffleFairness() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructs the harness on the given pool
+     *
+     * @param pool The pool the shuffles run on
+     */
+    public ShuffleFairness(ForkJoinPool pool) {
+        this.pool = pool;
+        this.dealers = seed -> new Dealer(new Deck(), RandomSource.seeded(seed));
+        this.significance = DEFAULT_SIGNIFICANCE;
+    }
+
+    /**
+     * Runs the harness and prints the report
+     *
+     * @param args The number of shuffles and the seed
+     */
+    public static void main(String[] args) {
+
+        long shuffles = args.length > 0 ? Long.parseLong(args[0]) : 100_000_000;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 42;
+
+        long start = System.nanoTime();
+        FairnessReport report = new ShuffleFairness().run(shuffles, seed);
+        long elapsedNanos = System.nanoTime() - start;
+
+        System.out.println(report);
+        System.out.printf("threads=%d shuffles/s=%.0f%n", ForkJoinPool.commonPool().getParallelism(), shuffles * 1e9 / elapsedNanos);
+
+        if (!report.isPassed()) System.exit(1);
+
+    }
+
+    /**
+     * Gets what creates the Dealer of each chunk
+     *
+     * @return Returns the function from the seed of a chunk to its Dealer
+     */
+    public LongFunction<Dealer> getDealers() {
+        return dealers;
+    }
+
+    /**
+     * Sets what creates the Dealer of each chunk, which is how a ShuffleModel, RandomSource or cut is put under test
+     * <p>
+     * Every call must return a new Dealer, as the chunks run at the same time. A seeded RandomSource should be seeded
+     * with the seed given, so the chunks draw independent streams and the run can be repeated.
+     *
+     * @param dealers The function from the seed of a chunk to its Dealer
+     */
+    public void setDealers(LongFunction<Dealer> dealers) {
+
+        if (dealers == null) throw new IllegalArgumentException("The Dealer factory cannot be null");
+
+        this.dealers = dealers;
+
+    }
+
+    /**
+     * Builder method
+     * <p>
+     * Builds the harness with what creates the Dealer of each chunk, for example
+     * {@code seed -> new Dealer(new Deck(), RandomSource.xoshiro(seed)).withShuffleModel(ShuffleModel.riffle())}
+     *
+     * @param dealers The function from the seed of a chunk to its Dealer
+     * @return Returns the harness
+     */
+    public ShuffleFairness withDealers(LongFunction<Dealer> dealers) {
+        setDealers(dealers);
+        return this;
+    }
+
+    /**
+     * Gets the smallest p-value a check passes with
+     *
+     * @return Returns the significance
+     */
+    public double getSignificance() {
+        return significance;
+    }
+
+    /**
+     * Sets the smallest p-value a check passes with
+     *
+     * @param significance The significance, between 0 and 1
+     */
+    public void setSignificance(double significance) {
+
+        if (!(significance > 0 && significance < 1)) throw new IllegalArgumentException("The significance must be between 0 and 1");
+
+        this.significance = significance;
+
+    }
+
+    /**
+     * Builder method
+     * <p>
+     * Builds the harness with the smallest p-value a check passes with
+     *
+     * @param significance The significance, between 0 and 1
+     * @return Returns the harness
+     */
+    public ShuffleFairness withSignificance(double significance) {
+        setSignificance(significance);
+        return this;
+    }
+
+    /**
+     * Shuffles an ordered Deck many times and checks the results
+     *
+     * @param shuffles The number of shuffles
+     * @param seed     The seed every chunk's seed is made from
+     * @return Returns the report of the checks
+     * @throws IllegalStateException If a shuffle lost or duplicated a Card
+     */
+    public FairnessReport run(long shuffles, long seed) {
+
+        if (shuffles < 1) throw new IllegalArgumentException("There must be at least one shuffle");
+
+        long chunks = (shuffles + CHUNK_SHUFFLES - 1) / CHUNK_SHUFFLES;
+
+        return new FairnessReport(shuffles, significance, pool.invoke(new Chunks(this, shuffles, seed, 0, chunks)));
+
+    }
+
+    /**
+     * Shuffles one chunk and counts the results
+     *
+     * @param shuffles The number of shuffles of the whole run
+     * @param seed     The seed of the run
+     * @param chunk    The index of the chunk
+     * @return Returns the counts of the chunk
+     */
+    private long[] run(long shuffles, long seed, long chunk) {
+
+        long[] tally = new long[TALLY_SIZE];
+        int[] positions = new int[Card.COUNT];
+        int[] ordered = new int[ORDERED_CARDS];
+        long count = Math.min(CHUNK_SHUFFLES, shuffles - chunk * CHUNK_SHUFFLES);
+        Dealer dealer = dealers.apply(mix(seed + (chunk + 1) * GOLDEN_GAMMA));
+
+        for (long shuffle = 0; shuffle < count; shuffle++) {
+
+            dealer.reset();
+            dealer.shuffle();
+
+            List<Card> cards = dealer.getDeck().getCards();
+
+            if (cards.size() != Card.COUNT) throw new IllegalStateException("The shuffle lost or duplicated Cards");
+
+            long seen = 0;
+            int found = 0;
+
+            for (int position = 0; position < Card.COUNT; position++) {
+
+                int ordinal = cards.get(position).getOrdinal();
+
+                seen |= 1L << ordinal;
+                positions[ordinal] = position;
+                tally[POSITIONS + position * Card.COUNT + ordinal]++;
+
+                if (ordinal < ORDERED_CARDS && found < ORDERED_CARDS) ordered[found++] = ordinal;
+
+            }
+
+            if (seen != FULL) throw new IllegalStateException("The shuffle lost or duplicated Cards");
+
+            int descents = 0;
+            int pairs = 0;
+
+            for (int ordinal = 1; ordinal < Card.COUNT; ordinal++) {
+
+                int gap = positions[ordinal] - positions[ordinal - 1];
+
+                // every Card found above the Card before it starts a new rising sequence
+                if (gap < 0) {
+                    descents++;
+                } else if (gap == 1) {
+                    pairs++;
+                }
+
+            }
+
+            tally[RISING_SEQUENCES + descents]++;
+            tally[ADJACENT_PAIRS] += pairs;
+            tally[PERMUTATIONS + rank(ordered)]++;
+
+        }
+
+        return tally;
+
+    }
+
+    /**
+     * Ranks an order of the Cards 0 to k - 1 by its Lehmer code
+     *
+     * @param order The ordinals in the order they were found
+     * @return Returns the rank, between 0 and k! - 1
+     */
+    static int rank(int[] order) {
+
+        int rank = 0;
+
+        for (int i = 0; i < order.length; i++) {
+
+            int smaller = 0;
+
+            for (int j = i + 1; j < order.length; j++) {
+                if (order[j] < order[i]) smaller++;
+            }
+
+            rank = rank * (order.length - i) + smaller;
+
+        }
+
+        return rank;
+
+    }
+
+    /**
+     * Mixes a seed so that nearby seeds give unrelated streams
+     *
+     * @param z The seed
+     * @return Returns the mixed seed
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * A range of chunks, split in half until each task runs one chunk
+     */
+    private static final class Chunks extends RecursiveTask<long[]> {
+
+        /**
+         * The version of the serialized form, which a task never needs but fork/join tasks are Serializable
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * The harness the chunks belong to
+         */
+        private final ShuffleFairness harness;
+
+        /**
+         * The number of shuffles of the whole run
+         */
+        private final long shuffles;
+
+        /**
+         * The seed of the run
+         */
+        private final long seed;
+
+        /**
+         * The index of the first chunk
+         */
+        private final long from;
+
+        /**
+         * The index after the last chunk
+         */
+        private final long to;
+
+        /**
+         * Constructs the task
+         *
+         * @param harness  The harness the chunks belong to
+         * @param shuffles The number of shuffles of the whole run
+         * @param seed     The seed of the run
+         * @param from     The index of the first chunk
+         * @param to       The index after the last chunk
+         */
+        private Chunks(ShuffleFairness harness, long shuffles, long seed, long from, long to) {
+            this.harness = harness;
+            this.shuffles = shuffles;
+            this.seed = seed;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected long[] compute() {
+
+            if (to - from == 1) return harness.run(shuffles, seed, from);
+
+            long middle = (from + to) >>> 1;
+            Chunks left = new Chunks(harness, shuffles, seed, from, middle);
+
+            left.fork();
+
+            long[] tally = new Chunks(harness, shuffles, seed, middle, to).compute();
+            long[] other = left.join();
+
+            for (int i = 0; i < tally.length; i++) {
+                tally[i] += other[i];
+            }
+
+            return tally;
+
+        }
+
+    }
+
+}
@@ -0,0 +1,112 @@
+package io.kutilj.cards.log;
+
+import io.kutilj.cards.Card;
+import io.kutilj.cards.Deck;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * The layout of a deal log file
+ * <p>
+ * A log starts with a 16 byte header: the magic number "DEAL", the format version as a short, the number of Cards of
+ * every recorded Deck as a byte, a reserved byte, the size of a record as an int and 4 reserved bytes. Fixed-width
+ * records follow, each holding the time of the round in milliseconds since the epoch as a long, the number of Players
+ * and of Cards dealt to each as a byte each, and the encoding of the Deck from {@link Deck#encode(ByteBuffer)} as it
+ * was before dealing. Every number is big-endian.
+ */
+final class DealLogFormat {
+
+    /**
+     * The first 4 bytes of every log, "DEAL"
+     */
+    static final int MAGIC = 0x4445414C;
+
+    /**
+     * The version of the format
+     */
+    static final short VERSION = 1;
+
+    /**
+     * The size of the header
+     */
+    static final int HEADER_SIZE = 16;
+
+    /**
+     * The offset of the time within a record
+     */
+    static final int TIMESTAMP_OFFSET = 0;
+
+    /**
+     * The offset of the number of Players within a record
+     */
+    static final int PLAYERS_OFFSET = 8;
+
+    /**
+     * The offset of the number of Cards dealt to each Player within a record
+     */
+    static final int CARDS_OFFSET = 9;
+
+    /**
+     * The offset of the encoded Deck within a record
+     */
+    static final int DECK_OFFSET = 10;
+
+    private DealLogFormat() {
+    }
+
+    /**
+     * Works out the size of a record
+     *
+     * @param deckSize The number of Cards of every recorded Deck
+     * @return Returns the size of a record in bytes
+     */
+    static int recordSize(int deckSize) {
+        return DECK_OFFSET + Deck.encodedLength(deckSize);
+    }
+
+    /**
+     * Writes a header
+     *
+     * @param buffer   The buffer written to
+     * @param deckSize The number of Cards of every recorded Deck
+     */
+    static void writeHeader(ByteBuffer buffer, int deckSize) {
+        buffer.order(ByteOrder.BIG_ENDIAN)
+                .putInt(MAGIC)
+                .putShort(VERSION)
+                .put((byte) deckSize)
+                .put((byte) 0)
+                .putInt(recordSize(deckSize))
+                .putInt(0);
+    }
+
+    /**
+     * Reads and checks a header
+     *
+     * @param buffer The buffer holding the header at its position
+     * @return Returns the number of Cards of every recorded Deck
+     * @throws IOException If the header is not a valid deal log header
+     */
+    static int readHeader(ByteBuffer buffer) throws IOException {
+
+        if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC) throw new IOException("Not a deal log");
+
+        short version = buffer.getShort();
+
+        if (version != VERSION) throw new IOException("Unsupported deal log version " + version);
+
+        int deckSize = buffer.get() & 0xFF;
+
+        buffer.get();
+
+        if (deckSize > Card.COUNT || buffer.getInt() != recordSize(deckSize)) throw new IOException("Corrupt deal log header");
+
+        buffer.getInt();
+
+        return deckSize;
+
+    }
+
+}
@@ -0,0 +1,318 @@
+package io.kutilj.cards.log;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.function.Consumer;
+
+/**
+ * Reads a deal log written by {@link DealLogWriter} by mapping it into memory
+ * <p>
+ * Records have a fixed width, so finding one by index is a multiplication. The file is mapped read-only in segments of
+ * whole records under 2GB each, as a single mapping cannot be larger, and the records are read where they lie in the
+ * page cache without being copied onto the heap. Every {@value #TIMESTAMP_STRIDE}th time is kept in a sparse index when
+ * the log is opened, so finding the rounds of a time range binary searches that index and then a single stride of the
+ * file. That search expects the times to never decrease through the log, as they do when rounds are appended as they
+ * are played.
+ * <p>
+ * The reader sees the records that were in the file when it was opened. Random access through {@link #get(long)} is
+ * safe from any number of threads, a scan must only be used by the thread that started it.
+ */
+public class DealLogReader implements AutoCloseable {
+
+    /**
+     * The number of records between two entries of the sparse timestamp index
+     */
+    static final int TIMESTAMP_STRIDE = 1024;
+
+    /**
+     * The channel of the log file
+     */
+    private final FileChannel channel;
+
+    /**
+     * The number of Cards of every recorded Deck
+     */
+    private final int deckSize;
+
+    /**
+     * The size of a record
+     */
+    private final int recordSize;
+
+    /**
+     * The number of records in the log
+     */
+    private final long records;
+
+    /**
+     * The number of records in every mapped segment but the last
+     */
+    private final int segmentRecords;
+
+    /**
+     * The mapped segments of the file, starting after the header
+     */
+    private final MappedByteBuffer[] segments;
+
+    /**
+     * The time of every {@link #TIMESTAMP_STRIDE}th record, starting with the first
+     */
+    private final long[] timestamps;
+
+    /**
+     * Whether the times of the sparse index never decrease
+     */
+    private final boolean ordered;
+
+    /**
+     * Opens a log and maps it into memory
+     *
+     * @param file The log file
+     * @throws IOException If the file cannot be opened or is not a deal log
+     */
+    public DealLogReader(Path file) throws IOException {
+        this(file, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Opens a log and maps it into memory in segments of at most the given size, smaller segments use less address space
+     * at once but more mappings
+     *
+     * @param file        The log file
+     * @param segmentSize The largest number of bytes mapped at once
+     * @throws IOException If the file cannot be opened or is not a deal log
+     */
+    public DealLogReader(Path file, int segmentSize) throws IOException {
+
+        this.channel = FileChannel.open(file);
+
+        try {
+
+            ByteBuffer header = ByteBuffer.allocate(DealLogFormat.HEADER_SIZE);
+
+            channel.read(header, 0);
+            header.flip();
+
+            this.deckSize = DealLogFormat.readHeader(header);
+            this.recordSize = DealLogFormat.recordSize(deckSize);
+            this.records = (channel.size() - DealLogFormat.HEADER_SIZE) / recordSize;
+            this.segmentRecords = segmentSize / recordSize;
+
+            if (segmentRecords < 1) throw new IllegalArgumentException("A segment must hold at least one record");
+
+            long count = (records + segmentRecords - 1) / segmentRecords;
+
+            if (count > Integer.MAX_VALUE) throw new IOException(file + " is too large to map");
+
+            this.segments = new MappedByteBuffer[(int) count];
+
+            for (int i = 0; i < segments.length; i++) {
+
+                long first = (long) i * segmentRecords;
+                long length = Math.min(segmentRecords, records - first) * recordSize;
+
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, DealLogFormat.HEADER_SIZE + first * recordSize, length);
+
+            }
+
+            this.timestamps = new long[(int) ((records + TIMESTAMP_STRIDE - 1) / TIMESTAMP_STRIDE)];
+
+            boolean sorted = true;
+
+            for (int i = 0; i < timestamps.length; i++) {
+                timestamps[i] = getTimestamp((long) i * TIMESTAMP_STRIDE);
+                sorted &= i == 0 || timestamps[i - 1] <= timestamps[i];
+            }
+
+            this.ordered = sorted;
+
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+
+    }
+
+    /**
+     * Gets the number of Cards of every recorded Deck
+     *
+     * @return Returns the size of the Decks
+     */
+    public int getDeckSize() {
+        return deckSize;
+    }
+
+    /**
+     * Gets the number of records in the log
+     *
+     * @return Returns the number of records
+     */
+    public long size() {
+        return records;
+    }
+
+    /**
+     * Gets a record by its index
+     *
+     * @param index The index of the record
+     * @return Returns a new view of the record
+     */
+    public DealRecord get(long index) {
+
+        checkIndex(index);
+
+        return new DealRecord().at(segmentOf(index).duplicate(), offsetOf(index), index);
+
+    }
+
+    /**
+     * Gets the time of a record without creating a view of it
+     *
+     * @param index The index of the record
+     * @return Returns the time in milliseconds since the epoch
+     */
+    public long getTimestamp(long index) {
+
+        checkIndex(index);
+
+        return segmentOf(index).getLong(offsetOf(index) + DealLogFormat.TIMESTAMP_OFFSET);
+
+    }
+
+    /**
+     * Finds the first record of a round played at or after a time
+     *
+     * @param timestamp The time in milliseconds since the epoch
+     * @return Returns the index of the record, or {@link #size()} if every round was played earlier
+     */
+    public long indexOf(long timestamp) {
+
+        if (!ordered) throw new IllegalStateException("The times of the log are not in order");
+
+        // the last stride starting before the time holds the record, unless it is the first of the next stride
+        int lowStride = 0;
+        int highStride = timestamps.length;
+
+        while (lowStride < highStride) {
+
+            int middle = (lowStride + highStride) >>> 1;
+
+            if (timestamps[middle] < timestamp) {
+                lowStride = middle + 1;
+            } else {
+                highStride = middle;
+            }
+
+        }
+
+        if (lowStride == 0) return 0;
+
+        long low = (long) (lowStride - 1) * TIMESTAMP_STRIDE + 1;
+        long high = Math.min((long) lowStride * TIMESTAMP_STRIDE, records);
+
+        while (low < high) {
+
+            long middle = (low + high) >>> 1;
+
+            if (getTimestamp(middle) < timestamp) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+
+        }
+
+        return low;
+
+    }
+
+    /**
+     * Visits a run of records in order
+     * <p>
+     * The records are read from the mapped segments in file order, so the operating system reads the file ahead of the
+     * scan. The same view is positioned on every record in turn.
+     *
+     * @param from    The index of the first record visited
+     * @param to      The index after the last record visited
+     * @param visitor Receives the view of every record, valid only until it returns
+     */
+    public void scan(long from, long to, Consumer<DealRecord> visitor) {
+
+        if (from < 0 || to > records || from > to) throw new IndexOutOfBoundsException("Range: " + from + " to " + to + ", Size: " + records);
+
+        DealRecord record = new DealRecord();
+        long index = from;
+
+        while (index < to) {
+
+            int segment = (int) (index / segmentRecords);
+            ByteBuffer buffer = segments[segment].duplicate();
+            long end = Math.min(to, (long) (segment + 1) * segmentRecords);
+
+            for (; index < end; index++) {
+                visitor.accept(record.at(buffer, offsetOf(index), index));
+            }
+
+        }
+
+    }
+
+    /**
+     * Visits the records of the rounds played within a time range, in order
+     *
+     * @param fromTimestamp The earliest time visited, in milliseconds since the epoch
+     * @param toTimestamp   The time after the latest time visited
+     * @param visitor       Receives the view of every record, valid only until it returns
+     */
+    public void scanTimes(long fromTimestamp, long toTimestamp, Consumer<DealRecord> visitor) {
+
+        long from = indexOf(fromTimestamp);
+        long to = Math.max(from, indexOf(toTimestamp));
+
+        scan(from, to, visitor);
+
+    }
+
+    /**
+     * Closes the file, the mapped segments are released once they are no longer reachable
+     *
+     * @throws IOException If the file cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Gets the mapped segment holding a record
+     *
+     * @param index The index of the record
+     * @return Returns the segment
+     */
+    private MappedByteBuffer segmentOf(long index) {
+        return segments[(int) (index / segmentRecords)];
+    }
+
+    /**
+     * Works out the offset of a record within its segment
+     *
+     * @param index The index of the record
+     * @return Returns the offset
+     */
+    private int offsetOf(long index) {
+        return (int) (index % segmentRecords) * recordSize;
+    }
+
+    /**
+     * Validates the index of a record
+     *
+     * @param index The index to validate
+     */
+    private void checkIndex(long index) {
+        if (index < 0 || index >= records) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + records);
+    }
+
+}
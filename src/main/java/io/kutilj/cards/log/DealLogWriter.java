@@ -0,0 +1,200 @@
+package io.kutilj.cards.log;
+
+import io.kutilj.cards.Card;
+import io.kutilj.cards.Deck;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Appends the order of every shuffled Deck to a log file, in fixed-width binary records
+ * <p>
+ * A record of a full Deck takes 40 bytes, where the text of the Deck takes about 700. Records are gathered in a direct
+ * buffer and written to the file channel a batch at a time, so they only reach the file on {@link #flush()},
+ * {@link #close()} or when the buffer is full. Opening an existing log appends to it, dropping a partial record left at
+ * the end by a crash. A writer must only be used by one thread at a time.
+ */
+public class DealLogWriter implements AutoCloseable {
+
+    /**
+     * The number of records written to the file at once by default
+     */
+    private static final int DEFAULT_BATCH = 1024;
+
+    /**
+     * The channel of the log file
+     */
+    private final FileChannel channel;
+
+    /**
+     * The records not written to the file yet
+     */
+    private final ByteBuffer buffer;
+
+    /**
+     * The number of Cards of every recorded Deck
+     */
+    private final int deckSize;
+
+    /**
+     * The size of a record
+     */
+    private final int recordSize;
+
+    /**
+     * The number of records in the log, written or not
+     */
+    private long records;
+
+    /**
+     * Opens a log of full Decks, creating it if it doesn't exist
+     *
+     * @param file The log file
+     * @throws IOException If the file cannot be opened or is not a log of full Decks
+     */
+    public DealLogWriter(Path file) throws IOException {
+        this(file, Card.COUNT, DEFAULT_BATCH);
+    }
+
+    /**
+     * Opens a log, creating it if it doesn't exist
+     *
+     * @param file     The log file
+     * @param deckSize The number of Cards of every recorded Deck
+     * @param batch    The number of records written to the file at once
+     * @throws IOException If the file cannot be opened or holds Decks of another size
+     */
+    public DealLogWriter(Path file, int deckSize, int batch) throws IOException {
+
+        if (batch < 1) throw new IllegalArgumentException("A batch must hold at least one record");
+
+        this.deckSize = deckSize;
+        this.recordSize = DealLogFormat.recordSize(deckSize);
+        this.buffer = ByteBuffer.allocateDirect(Math.max(batch * recordSize, DealLogFormat.HEADER_SIZE));
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        try {
+
+            long size = channel.size();
+
+            if (size == 0) {
+
+                DealLogFormat.writeHeader(buffer, deckSize);
+                flush();
+
+            } else {
+
+                buffer.limit(DealLogFormat.HEADER_SIZE);
+                channel.read(buffer, 0);
+                buffer.flip();
+
+                if (DealLogFormat.readHeader(buffer) != deckSize) throw new IOException(file + " holds Decks of another size");
+
+                buffer.clear();
+                records = (size - DealLogFormat.HEADER_SIZE) / recordSize;
+                channel.truncate(DealLogFormat.HEADER_SIZE + records * recordSize);
+
+            }
+
+            channel.position(channel.size());
+
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+
+    }
+
+    /**
+     * Gets the number of Cards of every recorded Deck
+     *
+     * @return Returns the size of the Decks
+     */
+    public int getDeckSize() {
+        return deckSize;
+    }
+
+    /**
+     * Gets the number of records in the log, including the ones not written to the file yet
+     *
+     * @return Returns the number of records
+     */
+    public long getRecords() {
+        return records;
+    }
+
+    /**
+     * Records the order of a Deck now, without a deal
+     *
+     * @param deck The Deck
+     * @throws IOException If a full batch cannot be written
+     */
+    public void append(Deck deck) throws IOException {
+        append(System.currentTimeMillis(), deck, 0, 0);
+    }
+
+    /**
+     * Records a round, the order of its Deck before dealing and the deal
+     *
+     * @param timestamp  The time of the round in milliseconds since the epoch
+     * @param deck       The Deck before dealing
+     * @param numPlayers The number of Players dealt to
+     * @param numCards   The number of Cards dealt to each Player
+     * @throws IOException If a full batch cannot be written
+     */
+    public void append(long timestamp, Deck deck, int numPlayers, int numCards) throws IOException {
+
+        if (deck.getCards().size() != deckSize) throw new IllegalArgumentException("The log only holds Decks of " + deckSize + " Cards");
+
+        if (numPlayers < 0 || numPlayers > 255 || numCards < 0 || numCards > 255 || numPlayers * numCards > deckSize) {
+            throw new IllegalArgumentException("The deal does not fit in the Deck");
+        }
+
+        if (buffer.remaining() < recordSize) flush();
+
+        int start = buffer.position();
+
+        buffer.putLong(timestamp);
+        buffer.put((byte) numPlayers);
+        buffer.put((byte) numCards);
+        deck.encode(buffer);
+        buffer.position(start + recordSize);
+        records++;
+
+    }
+
+    /**
+     * Writes every gathered record to the file
+     *
+     * @throws IOException If the records cannot be written
+     */
+    public void flush() throws IOException {
+
+        buffer.flip();
+
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+
+        buffer.clear();
+
+    }
+
+    /**
+     * Writes every gathered record and closes the file
+     *
+     * @throws IOException If the records cannot be written
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+
+}
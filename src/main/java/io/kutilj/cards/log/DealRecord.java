@@ -0,0 +1,162 @@
+package io.kutilj.cards.log;
+
+import io.kutilj.cards.Card;
+import io.kutilj.cards.Deck;
+import io.kutilj.cards.Player;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A view of one record of a deal log, read straight from the mapped file
+ * <p>
+ * Nothing is copied out of the log until it is asked for: the time and the shape of the deal are read where they lie,
+ * and the Deck and the hands of the Players are decoded from the mapped bytes on every call. A record handed to a scan
+ * of {@link DealLogReader} is reused for the next record, so it must not be kept once the scan has moved on.
+ */
+public final class DealRecord {
+
+    /**
+     * A view of the mapped segment holding the record, owned by this record
+     */
+    private ByteBuffer buffer;
+
+    /**
+     * The offset of the record within the segment
+     */
+    private int offset;
+
+    /**
+     * The index of the record within the log
+     */
+    private long index;
+
+    /**
+     * Constructs a view that is not positioned on any record yet
+     */
+    DealRecord() {
+    }
+
+    /**
+     * Positions the view on a record
+     *
+     * @param buffer A view of the mapped segment holding the record, owned by this record from now on
+     * @param offset The offset of the record within the segment
+     * @param index  The index of the record within the log
+     * @return Returns this record
+     */
+    DealRecord at(ByteBuffer buffer, int offset, long index) {
+        this.buffer = buffer;
+        this.offset = offset;
+        this.index = index;
+        return this;
+    }
+
+    /**
+     * Gets the index of the record within the log
+     *
+     * @return Returns the index
+     */
+    public long getIndex() {
+        return index;
+    }
+
+    /**
+     * Gets the time of the round
+     *
+     * @return Returns the time in milliseconds since the epoch
+     */
+    public long getTimestamp() {
+        return buffer.getLong(offset + DealLogFormat.TIMESTAMP_OFFSET);
+    }
+
+    /**
+     * Gets the number of Players dealt to
+     *
+     * @return Returns the number of Players
+     */
+    public int getNumPlayers() {
+        return buffer.get(offset + DealLogFormat.PLAYERS_OFFSET) & 0xFF;
+    }
+
+    /**
+     * Gets the number of Cards dealt to each Player
+     *
+     * @return Returns the number of Cards
+     */
+    public int getNumCards() {
+        return buffer.get(offset + DealLogFormat.CARDS_OFFSET) & 0xFF;
+    }
+
+    /**
+     * Decodes the Deck as it was before dealing
+     *
+     * @return Returns a new Deck
+     */
+    public Deck getDeck() {
+
+        buffer.position(offset + DealLogFormat.DECK_OFFSET);
+
+        return Deck.decode(buffer);
+
+    }
+
+    /**
+     * Decodes the order of the Deck before dealing as Card ordinals, allocating nothing
+     *
+     * @param ordinals The array the ordinals are written to in order, with room for every Card of the Deck
+     * @return Returns the number of Cards of the Deck
+     */
+    public int getOrdinals(int[] ordinals) {
+
+        buffer.position(offset + DealLogFormat.DECK_OFFSET);
+
+        return Deck.decodeOrdinals(buffer, ordinals);
+
+    }
+
+    /**
+     * Rebuilds the Players of the round, holding the hands they were dealt
+     *
+     * @return Returns new Players without names
+     */
+    public List<Player> getPlayers() {
+
+        List<Player> players = new ArrayList<>();
+
+        for (int player = 0; player < getNumPlayers(); player++) {
+            players.add(new Player());
+        }
+
+        dealTo(players);
+
+        return players;
+
+    }
+
+    /**
+     * Deals the recorded round again, one Card at a time to each Player in turn as {@link io.kutilj.cards.Dealer} does
+     *
+     * @param players The Players to add the dealt Cards to, as many as were dealt to
+     */
+    public void dealTo(List<Player> players) {
+
+        int numPlayers = getNumPlayers();
+        int numCards = getNumCards();
+
+        if (players.size() != numPlayers) throw new IllegalArgumentException("The round was dealt to " + numPlayers + " Players");
+
+        int[] ordinals = new int[Card.COUNT];
+
+        getOrdinals(ordinals);
+
+        for (int round = 0; round < numCards; round++) {
+            for (int player = 0; player < numPlayers; player++) {
+                players.get(player).addCard(Card.valueOf(ordinals[round * numPlayers + player]));
+            }
+        }
+
+    }
+
+}
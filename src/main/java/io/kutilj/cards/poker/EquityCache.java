@@ -0,0 +1,671 @@
+package io.kutilj.cards.poker;
+
+import io.kutilj.cards.Card;
+import io.kutilj.cards.Combinations;
+import io.kutilj.cards.Player;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded cache of matchup equities shared by any number of threads
+ * <p>
+ * A matchup is keyed by the masks of its hands, board and dead Cards with the suits renamed to the permutation giving
+ * the smallest masks, so matchups that only differ by suits, like the ace and king of spades against the queens of
+ * hearts and diamonds and the ace and king of hearts against the queens of spades and diamonds, share an entry. The
+ * order of the hands is kept, so a cached result applies as it is. Misses are worked out by an {@link EquitySimulator},
+ * exactly when there are no more completions of the board than the trial budget and by simulation otherwise, seeded
+ * from the key so the same matchup always gets the same result.
+ * <p>
+ * The entries are spread over stripes that lock independently, each evicting by segmented LRU: a new entry starts on
+ * probation and is promoted to the protected segment when it is hit again, so a burst of one-off matchups cannot push
+ * out the ones asked for repeatedly. Two threads missing the same matchup at once may both work it out.
+ */
+public class EquityCache {
+
+    /**
+     * The most stripes a cache is split into
+     */
+    private static final int STRIPES = 16;
+
+    /**
+     * The fewest entries a stripe holds, so small caches are not split into stripes too small to protect anything
+     */
+    private static final int MIN_STRIPE_CAPACITY = 8;
+
+    /**
+     * The identifier at the start of a cache file, "EQC2"
+     */
+    private static final int MAGIC = 0x45514332;
+
+    /**
+     * The identifier at the start of a cache file written before entries recorded whether they are exact, "EQC1"
+     */
+    private static final int MAGIC_V1 = 0x45514331;
+
+    /**
+     * The suit each suit is renamed to under every permutation of the four suits
+     */
+    private static final int[][] PERMUTATIONS = permutations();
+
+    /**
+     * The simulator misses are worked out with
+     */
+    private final EquitySimulator simulator;
+
+    /**
+     * The number of trials a matchup is simulated with when it is not enumerated
+     */
+    private final long trials;
+
+    /**
+     * The most entries the cache holds
+     */
+    private final int capacity;
+
+    /**
+     * The stripes of the cache, a key belongs to the stripe of its hash
+     */
+    private final Stripe[] stripes;
+
+    /**
+     * The number of lookups answered from the cache
+     */
+    private final LongAdder hits = new LongAdder();
+
+    /**
+     * The number of lookups that had to be worked out
+     */
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * The number of entries evicted to make room
+     */
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Constructs a cache
+     *
+     * @param simulator The simulator misses are worked out with
+     * @param trials    The number of trials a matchup is simulated with, matchups with no more completions than this
+     *                  are enumerated exactly
+     * @param capacity  The most entries the cache holds
+     */
+    public EquityCache(EquitySimulator simulator, long trials, int capacity) {
+
+        if (trials < 1) throw new IllegalArgumentException("There must be at least one trial");
+
+        if (capacity < 1) throw new IllegalArgumentException("The cache must hold at least one entry");
+
+        this.simulator = simulator;
+        this.trials = trials;
+        this.capacity = capacity;
+        this.stripes = new Stripe[Math.min(STRIPES, Integer.highestOneBit(Math.max(1, capacity / MIN_STRIPE_CAPACITY)))];
+
+        for (int i = 0; i < stripes.length; i++) {
+            // the first stripes take the remainder, so the capacities add up exactly
+            stripes[i] = new Stripe(capacity / stripes.length + (i < capacity % stripes.length ? 1 : 0));
+        }
+
+    }
+
+    /**
+     * Creates every permutation of the four suits
+     *
+     * @return Returns the new suit of each suit, per permutation
+     */
+    private static int[][] permutations() {
+
+        int[][] permutations = new int[24][];
+        int count = 0;
+
+        for (int a = 0; a < Card.SUITS; a++) {
+            for (int b = 0; b < Card.SUITS; b++) {
+                for (int c = 0; c < Card.SUITS; c++) {
+
+                    int d = 6 - a - b - c;
+
+                    if (a != b && a != c && b != c && d != a && d != b && d != c) permutations[count++] = new int[]{a, b, c, d};
+
+                }
+            }
+        }
+
+        return permutations;
+
+    }
+
+    /**
+     * Gets the equity of the hands of Players
+     *
+     * @param players The Players, each holding a known hand
+     * @param board   The board Cards already dealt
+     * @param dead    Cards known to be out of the Deck that no hand plays with
+     * @return Returns the equity of each Player, in the order of the Players
+     */
+    public EquityResult get(List<Player> players, List<Card> board, List<Card> dead) {
+
+        long[] hands = new long[players.size()];
+
+        for (int i = 0; i < hands.length; i++) {
+            hands[i] = EquitySimulator.maskOf(players.get(i).getHand());
+        }
+
+        return get(hands, EquitySimulator.maskOf(board), EquitySimulator.maskOf(dead));
+
+    }
+
+    /**
+     * Gets the equity of hands given as Card masks
+     *
+     * @param hands The mask of each hand
+     * @param board The mask of the board Cards already dealt
+     * @param dead  The mask of Cards known to be out of the Deck that no hand plays with
+     * @return Returns the equity of each hand, in the order of the hands
+     */
+    public EquityResult get(long[] hands, long board, long dead) {
+
+        long[] masks = Arrays.copyOf(hands, hands.length + 2);
+
+        masks[hands.length] = board;
+        masks[hands.length + 1] = dead;
+
+        Key key = new Key(canonical(masks), simulator.getBoardSize());
+        Stripe stripe = stripeOf(key);
+        EquityResult result = stripe.get(key);
+
+        if (result != null) {
+            hits.increment();
+            return result;
+        }
+
+        misses.increment();
+        result = compute(key);
+        stripe.put(key, result);
+
+        return result;
+
+    }
+
+    /**
+     * Works out the equity of a matchup
+     *
+     * @param key The key of the matchup
+     * @return Returns the equity of each hand
+     */
+    private EquityResult compute(Key key) {
+
+        long[] masks = key.masks;
+        long[] hands = Arrays.copyOf(masks, masks.length - 2);
+        long board = masks[masks.length - 2];
+        long dead = masks[masks.length - 1];
+        long used = board | dead;
+
+        for (long hand : hands) {
+            used |= hand;
+        }
+
+        int missing = key.boardSize - Long.bitCount(board);
+        int left = Card.COUNT - Long.bitCount(used);
+
+        if (missing >= 0 && missing <= left && Combinations.binomial(left, missing) <= trials) return simulator.enumerate(hands, board, dead);
+
+        return simulator.simulate(hands, board, dead, trials, key.hashCode());
+
+    }
+
+    /**
+     * Renames the suits of masks to the permutation that makes them smallest, comparing the masks in order
+     *
+     * @param masks The masks
+     * @return Returns the renamed masks
+     */
+    private static long[] canonical(long[] masks) {
+
+        long[] best = null;
+        long[] candidate = new long[masks.length];
+
+        for (int[] permutation : PERMUTATIONS) {
+
+            int order = best == null ? -1 : 0;
+
+            for (int i = 0; i < masks.length; i++) {
+
+                candidate[i] = permute(masks[i], permutation);
+
+                if (order == 0 && candidate[i] != best[i]) order = candidate[i] < best[i] ? -1 : 1;
+
+            }
+
+            if (order < 0) {
+                long[] previous = best;
+                best = candidate;
+                candidate = previous == null ? new long[masks.length] : previous;
+            }
+
+        }
+
+        return best;
+
+    }
+
+    /**
+     * Renames the suits of Cards
+     *
+     * @param cards       The mask of the Cards
+     * @param permutation The new suit of each suit
+     * @return Returns the mask of the renamed Cards
+     */
+    private static long permute(long cards, int[] permutation) {
+
+        long permuted = 0;
+
+        for (int suit = 0; suit < Card.SUITS; suit++) {
+            permuted |= (cards >>> suit * Card.RANKS & (1L << Card.RANKS) - 1) << permutation[suit] * Card.RANKS;
+        }
+
+        return permuted;
+
+    }
+
+    /**
+     * Finds the stripe a key belongs to
+     *
+     * @param key The key
+     * @return Returns the stripe
+     */
+    private Stripe stripeOf(Key key) {
+        return stripes[key.hashCode() >>> 16 & stripes.length - 1];
+    }
+
+    /**
+     * Gets the most entries the cache holds
+     *
+     * @return Returns the capacity
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Gets the number of entries in the cache
+     *
+     * @return Returns the number of entries
+     */
+    public int size() {
+
+        int size = 0;
+
+        for (Stripe stripe : stripes) {
+            size += stripe.size();
+        }
+
+        return size;
+
+    }
+
+    /**
+     * Gets the number of lookups answered from the cache
+     *
+     * @return Returns the number of hits
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Gets the number of lookups that had to be worked out
+     *
+     * @return Returns the number of misses
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Gets the number of entries evicted to make room for new ones
+     *
+     * @return Returns the number of evictions
+     */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * Gets the fraction of lookups answered from the cache
+     *
+     * @return Returns the hit rate, 0 before the first lookup
+     */
+    public double getHitRate() {
+
+        long hits = getHits();
+        long lookups = hits + getMisses();
+
+        return lookups == 0 ? 0 : (double) hits / lookups;
+
+    }
+
+    /**
+     * Removes every entry, the metrics are kept
+     */
+    public void clear() {
+        for (Stripe stripe : stripes) {
+            stripe.clear();
+        }
+    }
+
+    /**
+     * Writes every entry to a file, replacing it once the new contents are complete
+     *
+     * @param file The file to write
+     * @throws IOException If the file cannot be written
+     */
+    public void save(Path file) throws IOException {
+
+        List<Map.Entry<Key, EquityResult>> entries = new ArrayList<>();
+
+        for (Stripe stripe : stripes) {
+            stripe.collect(entries);
+        }
+
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+
+            out.writeInt(MAGIC);
+            out.writeInt(entries.size());
+
+            for (Map.Entry<Key, EquityResult> entry : entries) {
+
+                Key key = entry.getKey();
+                EquityResult result = entry.getValue();
+
+                out.writeByte(key.boardSize);
+                out.writeByte(key.masks.length);
+
+                for (long mask : key.masks) {
+                    out.writeLong(mask);
+                }
+
+                out.writeLong(result.getTrials());
+                out.writeBoolean(result.isExact());
+
+                for (long share : result.shares()) {
+                    out.writeLong(share);
+                }
+
+            }
+
+        }
+
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+
+    }
+
+    /**
+     * Reads the entries of a file written by {@link #save(Path)} into the cache, for a warm restart
+     * <p>
+     * The entries are only valid for a cache with the same trial budget, as the file only records whether they were
+     * enumerated. Entries of files from before that was recorded are read as simulated.
+     *
+     * @param file The file to read
+     * @return Returns the number of entries read
+     * @throws IOException If the file cannot be read, is not a cache file or is corrupt
+     */
+    public int load(Path file) throws IOException {
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+
+            int magic = in.readInt();
+
+            if (magic != MAGIC && magic != MAGIC_V1) throw new IOException(file + " is not an equity cache file");
+
+            int count = in.readInt();
+
+            if (count < 0) throw new IOException(file + " is corrupt, it holds " + count + " entries");
+
+            for (int i = 0; i < count; i++) {
+
+                int boardSize = in.readUnsignedByte();
+                int numMasks = in.readUnsignedByte();
+
+                // every key has at least one hand, then the board and the dead Cards
+                if (boardSize > 5 || numMasks < 3) throw new IOException(file + " is corrupt, entry " + i + " is not a matchup");
+
+                long[] masks = new long[numMasks];
+
+                for (int m = 0; m < masks.length; m++) {
+
+                    masks[m] = in.readLong();
+
+                    if (masks[m] >>> Card.COUNT != 0) throw new IOException(file + " is corrupt, entry " + i + " holds a Card that does not exist");
+
+                }
+
+                int hands = masks.length - 2;
+                long trials = in.readLong();
+                boolean exact = magic == MAGIC && in.readBoolean();
+                long[] shares = new long[hands * (hands + 1)];
+
+                for (int s = 0; s < shares.length; s++) {
+                    shares[s] = in.readLong();
+                }
+
+                Key key = new Key(masks, boardSize);
+
+                stripeOf(key).put(key, new EquityResult(hands, trials, shares, exact));
+
+            }
+
+            return count;
+
+        }
+
+    }
+
+    /**
+     * The canonical masks of a matchup and the size of the board it is played with
+     */
+    private static final class Key {
+
+        /**
+         * The masks of the hands, then the board and then the dead Cards, with canonical suits
+         */
+        private final long[] masks;
+
+        /**
+         * The number of board Cards every hand plays with
+         */
+        private final int boardSize;
+
+        /**
+         * The hash of the key, worked out once
+         */
+        private final int hash;
+
+        /**
+         * Constructs the key
+         *
+         * @param masks     The canonical masks of the matchup
+         * @param boardSize The number of board Cards every hand plays with
+         */
+        private Key(long[] masks, int boardSize) {
+
+            long h = boardSize;
+
+            for (long mask : masks) {
+                h = (h ^ mask) * 0x9E3779B97F4A7C15L;
+            }
+
+            this.masks = masks;
+            this.boardSize = boardSize;
+            this.hash = (int) (h ^ h >>> 32);
+
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            Key key = (Key) o;
+
+            return boardSize == key.boardSize && Arrays.equals(masks, key.masks);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+    }
+
+    /**
+     * A part of the cache with its own lock, evicting by segmented LRU
+     */
+    private final class Stripe {
+
+        /**
+         * The entries hit only once since they were added or demoted, least recently used first
+         */
+        private final LinkedHashMap<Key, EquityResult> probation = new LinkedHashMap<>(16, 0.75f, true);
+
+        /**
+         * The entries hit more than once, least recently used first
+         */
+        private final LinkedHashMap<Key, EquityResult> protectedEntries = new LinkedHashMap<>(16, 0.75f, true);
+
+        /**
+         * The most entries the stripe holds
+         */
+        private final int capacity;
+
+        /**
+         * The most entries the protected segment holds, the rest of the capacity is left for probation
+         */
+        private final int protectedCapacity;
+
+        /**
+         * Constructs the stripe
+         *
+         * @param capacity The most entries the stripe holds
+         */
+        private Stripe(int capacity) {
+            this.capacity = capacity;
+            this.protectedCapacity = capacity * 4 / 5;
+        }
+
+        /**
+         * Looks up an entry, promoting it to the protected segment if it was on probation
+         *
+         * @param key The key of the entry
+         * @return Returns the result, or null if the key is not cached
+         */
+        private synchronized EquityResult get(Key key) {
+
+            EquityResult result = protectedEntries.get(key);
+
+            if (result != null) return result;
+
+            result = probation.remove(key);
+
+            if (result == null) return null;
+
+            protectedEntries.put(key, result);
+
+            if (protectedEntries.size() > protectedCapacity) {
+                Map.Entry<Key, EquityResult> demoted = removeEldest(protectedEntries);
+                probation.put(demoted.getKey(), demoted.getValue());
+            }
+
+            return result;
+
+        }
+
+        /**
+         * Adds an entry on probation, evicting the least recently used entry if the stripe is full
+         *
+         * @param key    The key of the entry
+         * @param result The result
+         */
+        private synchronized void put(Key key, EquityResult result) {
+
+            if (protectedEntries.containsKey(key) || probation.containsKey(key)) return;
+
+            probation.put(key, result);
+
+            if (probation.size() + protectedEntries.size() > capacity) {
+                removeEldest(probation.isEmpty() ? protectedEntries : probation);
+                evictions.increment();
+            }
+
+        }
+
+        /**
+         * Removes the least recently used entry of a segment
+         *
+         * @param segment The segment
+         * @return Returns the removed entry
+         */
+        private Map.Entry<Key, EquityResult> removeEldest(LinkedHashMap<Key, EquityResult> segment) {
+
+            Iterator<Map.Entry<Key, EquityResult>> iterator = segment.entrySet().iterator();
+            Map.Entry<Key, EquityResult> eldest = iterator.next();
+
+            iterator.remove();
+
+            return eldest;
+
+        }
+
+        /**
+         * Gets the number of entries in the stripe
+         *
+         * @return Returns the number of entries
+         */
+        private synchronized int size() {
+            return probation.size() + protectedEntries.size();
+        }
+
+        /**
+         * Removes every entry of the stripe
+         */
+        private synchronized void clear() {
+            probation.clear();
+            protectedEntries.clear();
+        }
+
+        /**
+         * Copies the entries of the stripe
+         *
+         * @param into The list the entries are added to
+         */
+        private synchronized void collect(List<Map.Entry<Key, EquityResult>> into) {
+
+            for (Map.Entry<Key, EquityResult> entry : probation.entrySet()) {
+                into.add(new AbstractMap.SimpleImmutableEntry<>(entry));
+            }
+
+            for (Map.Entry<Key, EquityResult> entry : protectedEntries.entrySet()) {
+                into.add(new AbstractMap.SimpleImmutableEntry<>(entry));
+            }
+
+        }
+
+    }
+
+}
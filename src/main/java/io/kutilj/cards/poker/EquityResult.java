@@ -0,0 +1,228 @@
+package io.kutilj.cards.poker;
+
+import java.util.Arrays;
+
+/**
+ * The equity of each hand in a matchup, with its win and tie probabilities and a confidence interval
+ * <p>
+ * A hand's equity is its expected share of the pot: a win counts 1 and a tie between k hands counts 1/k. The result is
+ * kept as exact counts of how often each hand won or tied with how many others, so results from several workers combine
+ * exactly whatever order they are added in. A result enumerated over every completion of the board is exact, it has no
+ * standard error and its confidence interval is the equity itself.
+ */
+public final class EquityResult {
+
+    /**
+     * The z-score of a two sided 95% confidence interval
+     */
+    private static final double Z_95 = 1.959963984540054;
+
+    /**
+     * The number of hands in the matchup
+     */
+    private final int hands;
+
+    /**
+     * The number of trials or enumerated outcomes
+     */
+    private final long trials;
+
+    /**
+     * How often each hand split the pot k ways, at index {@code hand * (hands + 1) + k}, k = 1 is an outright win
+     */
+    private final long[] shares;
+
+    /**
+     * Whether every outcome was enumerated rather than sampled
+     */
+    private final boolean exact;
+
+    /**
+     * Constructs the result
+     *
+     * @param hands  The number of hands in the matchup
+     * @param trials The number of trials or enumerated outcomes
+     * @param shares How often each hand split the pot k ways, at index {@code hand * (hands + 1) + k}
+     * @param exact  Whether every outcome was enumerated rather than sampled
+     */
+    EquityResult(int hands, long trials, long[] shares, boolean exact) {
+        this.hands = hands;
+        this.trials = trials;
+        this.shares = shares;
+        this.exact = exact;
+    }
+
+    /**
+     * Gets the number of hands in the matchup
+     *
+     * @return Returns the number of hands
+     */
+    public int getHands() {
+        return hands;
+    }
+
+    /**
+     * Gets the number of trials or enumerated outcomes the result is based on
+     *
+     * @return Returns the number of trials
+     */
+    public long getTrials() {
+        return trials;
+    }
+
+    /**
+     * Checks if the result was enumerated over every outcome rather than sampled
+     *
+     * @return Returns true if the equities are exact
+     */
+    public boolean isExact() {
+        return exact;
+    }
+
+    /**
+     * Gets how often a hand split the pot a number of ways
+     *
+     * @param hand The index of the hand
+     * @param ways The number of hands splitting the pot, 1 for an outright win
+     * @return Returns the number of trials
+     */
+    public long getShares(int hand, int ways) {
+        return shares[hand * (hands + 1) + ways];
+    }
+
+    /**
+     * Gets the raw counts the result is made of, for writing it out
+     *
+     * @return Returns the shares, not to be modified
+     */
+    long[] shares() {
+        return shares;
+    }
+
+    /**
+     * Gets the probability that a hand wins outright
+     *
+     * @param hand The index of the hand
+     * @return Returns the win probability
+     */
+    public double getWinProbability(int hand) {
+        return trials == 0 ? 0 : (double) getShares(hand, 1) / trials;
+    }
+
+    /**
+     * Gets the probability that a hand splits the pot
+     *
+     * @param hand The index of the hand
+     * @return Returns the tie probability
+     */
+    public double getTieProbability(int hand) {
+
+        long ties = 0;
+
+        for (int ways = 2; ways <= hands; ways++) {
+            ties += getShares(hand, ways);
+        }
+
+        return trials == 0 ? 0 : (double) ties / trials;
+
+    }
+
+    /**
+     * Gets the equity of a hand, its expected share of the pot
+     *
+     * @param hand The index of the hand
+     * @return Returns the equity, between 0 and 1
+     */
+    public double getEquity(int hand) {
+        return moment(hand, 1);
+    }
+
+    /**
+     * Gets the standard error of the equity of a hand
+     *
+     * @param hand The index of the hand
+     * @return Returns the standard error, 0 if the result is exact
+     */
+    public double getStandardError(int hand) {
+
+        if (exact) return 0;
+
+        if (trials < 2) return Double.NaN;
+
+        double mean = moment(hand, 1);
+        double variance = (moment(hand, 2) - mean * mean) * trials / (trials - 1);
+
+        return Math.sqrt(Math.max(0, variance) / trials);
+
+    }
+
+    /**
+     * Gets the lower bound of the 95% confidence interval of the equity of a hand
+     *
+     * @param hand The index of the hand
+     * @return Returns the lower bound, the equity if the result is exact
+     */
+    public double getLowerBound(int hand) {
+        return exact ? getEquity(hand) : Math.max(0, getEquity(hand) - Z_95 * getStandardError(hand));
+    }
+
+    /**
+     * Gets the upper bound of the 95% confidence interval of the equity of a hand
+     *
+     * @param hand The index of the hand
+     * @return Returns the upper bound, the equity if the result is exact
+     */
+    public double getUpperBound(int hand) {
+        return exact ? getEquity(hand) : Math.min(1, getEquity(hand) + Z_95 * getStandardError(hand));
+    }
+
+    /**
+     * Works out the mean of a power of the share of the pot a hand took
+     *
+     * @param hand  The index of the hand
+     * @param power The power, 1 for the equity and 2 for the mean square
+     * @return Returns the mean
+     */
+    private double moment(int hand, int power) {
+
+        if (trials == 0) return 0;
+
+        double sum = 0;
+
+        for (int ways = 1; ways <= hands; ways++) {
+            sum += getShares(hand, ways) / Math.pow(ways, power);
+        }
+
+        return sum / trials;
+
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        EquityResult that = (EquityResult) o;
+
+        return hands == that.hands && trials == that.trials && exact == that.exact && Arrays.equals(shares, that.shares);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Long.hashCode(trials) + Arrays.hashCode(shares);
+    }
+
+    @Override
+    public String toString() {
+
+        StringBuilder builder = new StringBuilder("trials=").append(trials).append(exact ? " exact" : "");
+
+        for (int hand = 0; hand < hands; hand++) {
+            builder.append(String.format(" hand%d=%.4f [%.4f, %.4f]", hand, getEquity(hand), getLowerBound(hand), getUpperBound(hand)));
+        }
+
+        return builder.toString();
+
+    }
+
+}
@@ -0,0 +1,471 @@
+package io.kutilj.cards.poker;
+
+import io.kutilj.cards.Card;
+import io.kutilj.cards.Combinations;
+import io.kutilj.cards.Player;
+import io.kutilj.cards.RandomSource;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Estimates the equity of known poker hands by dealing the rest of the board at random many times
+ * <p>
+ * The trials are split into fixed chunks of {@value #CHUNK_TRIALS}, and each chunk draws from its own RandomSource
+ * seeded from the simulation seed and the index of the chunk. Which thread runs a chunk therefore never changes what it
+ * deals, and the chunks are tallied in exact counts, so a seed gives the same {@link EquityResult} for any number of
+ * threads. The chunks run as fork/join tasks, each dealing from one array of the Cards left in the Deck with a partial
+ * Fisher-Yates shuffle, so a trial allocates nothing. When the board is close enough to complete, {@link #enumerate}
+ * deals every possible completion instead and gives the exact equity.
+ */
+public class EquitySimulator {
+
+    /**
+     * The number of trials dealt from one RandomSource by one task
+     */
+    static final int CHUNK_TRIALS = 4096;
+
+    /**
+     * The increment of the seeds of successive chunks, the golden ratio scaled to 64 bits
+     */
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    /**
+     * The pool the trials run on
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * The number of board Cards every hand plays with
+     */
+    private int boardSize;
+
+    /**
+     * Constructs a simulator for hands played with a 5 Card board, running on the common fork/join pool
+     */
+    public EquitySimulator() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructs a simulator for hands played with a 5 Card board
+     *
+     * @param pool The pool the trials run on
+     */
+    public EquitySimulator(ForkJoinPool pool) {
+        this.pool = pool;
+        this.boardSize = 5;
+    }
+
+    /**
+     * Gets the number of board Cards every hand plays with
+     *
+     * @return Returns the size of a complete board
+     */
+    public int getBoardSize() {
+        return boardSize;
+    }
+
+    /**
+     * Sets the number of board Cards every hand plays with, 5 for Texas hold'em or 0 for games without a board
+     *
+     * @param boardSize The size of a complete board
+     */
+    public void setBoardSize(int boardSize) {
+
+        if (boardSize < 0 || boardSize > 5) throw new IllegalArgumentException("A board must have between 0 and 5 Cards");
+
+        this.boardSize = boardSize;
+
+    }
+
+    /**
+     * Builder method
+     * <p>
+     * Builds a simulator for hands played with the given number of board Cards
+     *
+     * @param boardSize The size of a complete board
+     * @return Returns an EquitySimulator
+     */
+    public EquitySimulator withBoardSize(int boardSize) {
+        setBoardSize(boardSize);
+        return this;
+    }
+
+    /**
+     * Estimates the equity of the hands of Players
+     *
+     * @param players The Players, each holding a known hand
+     * @param board   The board Cards already dealt
+     * @param dead    Cards known to be out of the Deck that no hand plays with
+     * @param trials  The number of random boards to deal
+     * @param seed    The seed of the random boards
+     * @return Returns the equity of each Player, in the order of the Players
+     */
+    public EquityResult simulate(List<Player> players, List<Card> board, List<Card> dead, long trials, long seed) {
+
+        long[] hands = new long[players.size()];
+
+        for (int i = 0; i < hands.length; i++) {
+            hands[i] = maskOf(players.get(i).getHand());
+        }
+
+        return simulate(hands, maskOf(board), maskOf(dead), trials, seed);
+
+    }
+
+    /**
+     * Estimates the equity of hands given as Card masks
+     *
+     * @param hands  The mask of each hand
+     * @param board  The mask of the board Cards already dealt
+     * @param dead   The mask of Cards known to be out of the Deck that no hand plays with
+     * @param trials The number of random boards to deal
+     * @param seed   The seed of the random boards
+     * @return Returns the equity of each hand, in the order of the hands
+     */
+    public EquityResult simulate(long[] hands, long board, long dead, long trials, long seed) {
+
+        if (trials < 1) throw new IllegalArgumentException("There must be at least one trial");
+
+        long used = checkDeal(hands, board, dead);
+        Simulation simulation = new Simulation(hands.clone(), board, used, boardSize, null, trials, seed);
+
+        return new EquityResult(hands.length, trials, pool.invoke(new Chunks(simulation, 0, chunks(trials))), false);
+
+    }
+
+    /**
+     * Works out the exact equity of the hands of Players by dealing every possible completion of the board
+     *
+     * @param players The Players, each holding a known hand
+     * @param board   The board Cards already dealt
+     * @param dead    Cards known to be out of the Deck that no hand plays with
+     * @return Returns the equity of each Player, in the order of the Players
+     */
+    public EquityResult enumerate(List<Player> players, List<Card> board, List<Card> dead) {
+
+        long[] hands = new long[players.size()];
+
+        for (int i = 0; i < hands.length; i++) {
+            hands[i] = maskOf(players.get(i).getHand());
+        }
+
+        return enumerate(hands, maskOf(board), maskOf(dead));
+
+    }
+
+    /**
+     * Works out the exact equity of hands given as Card masks by dealing every possible completion of the board
+     * <p>
+     * The completions are split into chunks by rank, so every chunk is the same amount of work
+     *
+     * @param hands The mask of each hand
+     * @param board The mask of the board Cards already dealt
+     * @param dead  The mask of Cards known to be out of the Deck that no hand plays with
+     * @return Returns the equity of each hand, in the order of the hands
+     */
+    public EquityResult enumerate(long[] hands, long board, long dead) {
+
+        long used = checkDeal(hands, board, dead);
+        Combinations completions = new Combinations(~used & (1L << Card.COUNT) - 1, boardSize - Long.bitCount(board));
+        Simulation simulation = new Simulation(hands.clone(), board, used, boardSize, completions, completions.count(), 0);
+
+        return new EquityResult(hands.length, completions.count(), pool.invoke(new Chunks(simulation, 0, chunks(completions.count()))), true);
+
+    }
+
+    /**
+     * Checks that hands can be played out together
+     *
+     * @param hands The mask of each hand
+     * @param board The mask of the board Cards already dealt
+     * @param dead  The mask of Cards known to be out of the Deck that no hand plays with
+     * @return Returns the mask of every Card out of the Deck
+     */
+    private long checkDeal(long[] hands, long board, long dead) {
+
+        if (hands.length == 0) throw new IllegalArgumentException("There must be at least one hand");
+
+        if (Long.bitCount(board) > boardSize) throw new IllegalArgumentException("The board cannot have more than " + boardSize + " Cards");
+
+        long used = board | dead;
+        int count = Long.bitCount(board) + Long.bitCount(dead);
+
+        for (long hand : hands) {
+
+            int size = Long.bitCount(hand) + boardSize;
+
+            if (size < 5 || size > 7) throw new IllegalArgumentException("A hand and the board must make 5 to 7 Cards");
+
+            used |= hand;
+            count += Long.bitCount(hand);
+
+        }
+
+        if (Long.bitCount(used) != count) throw new IllegalArgumentException("A Card cannot be in more than one hand, the board or the dead Cards");
+
+        if (Card.COUNT - count < boardSize - Long.bitCount(board)) throw new IllegalArgumentException("There are not enough Cards left to complete the board");
+
+        return used;
+
+    }
+
+    /**
+     * Works out the number of chunks trials are split into
+     *
+     * @param trials The number of trials
+     * @return Returns the number of chunks
+     */
+    private static long chunks(long trials) {
+        return (trials + CHUNK_TRIALS - 1) / CHUNK_TRIALS;
+    }
+
+    /**
+     * Combines Cards into a mask
+     *
+     * @param cards The Cards
+     * @return Returns the mask of the Cards
+     */
+    static long maskOf(List<Card> cards) {
+
+        long mask = 0;
+
+        for (int i = 0; i < cards.size(); i++) {
+
+            long bit = 1L << cards.get(i).getOrdinal();
+
+            if ((mask & bit) != 0) throw new IllegalArgumentException("A Card cannot be in more than one hand, the board or the dead Cards");
+
+            mask |= bit;
+
+        }
+
+        return mask;
+
+    }
+
+    /**
+     * Scrambles the bits of a long, the finalizer of SplitMix64
+     *
+     * @param z The long to scramble
+     * @return Returns the scrambled long
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * The fixed inputs of one simulation, shared by all of its tasks
+     */
+    private static final class Simulation {
+
+        /**
+         * The mask of each hand
+         */
+        private final long[] hands;
+
+        /**
+         * The mask of the board Cards already dealt
+         */
+        private final long board;
+
+        /**
+         * The mask of every Card out of the Deck
+         */
+        private final long used;
+
+        /**
+         * The number of board Cards every hand plays with
+         */
+        private final int boardSize;
+
+        /**
+         * Every completion of the board when enumerating, or null when dealing at random
+         */
+        private final Combinations completions;
+
+        /**
+         * The total number of trials
+         */
+        private final long trials;
+
+        /**
+         * The seed of the random boards
+         */
+        private final long seed;
+
+        /**
+         * Constructs the simulation
+         *
+         * @param hands       The mask of each hand
+         * @param board       The mask of the board Cards already dealt
+         * @param used        The mask of every Card out of the Deck
+         * @param boardSize   The number of board Cards every hand plays with
+         * @param completions Every completion of the board when enumerating, or null when dealing at random
+         * @param trials      The total number of trials
+         * @param seed        The seed of the random boards
+         */
+        private Simulation(long[] hands, long board, long used, int boardSize, Combinations completions, long trials, long seed) {
+            this.hands = hands;
+            this.board = board;
+            this.used = used;
+            this.boardSize = boardSize;
+            this.completions = completions;
+            this.trials = trials;
+            this.seed = seed;
+        }
+
+        /**
+         * Deals the trials of one chunk
+         *
+         * @param chunk The index of the chunk
+         * @return Returns the tally of the chunk, laid out like the shares of an {@link EquityResult}
+         */
+        private long[] run(long chunk) {
+
+            long[] tally = new long[hands.length * (hands.length + 1)];
+            int[] strengths = new int[hands.length];
+            long first = chunk * CHUNK_TRIALS;
+            long last = Math.min(trials, first + CHUNK_TRIALS);
+
+            if (completions != null) {
+                completions.spliterator(first, last).forEachRemaining((long completion) -> score(board | completion, strengths, tally));
+                return tally;
+            }
+
+            int[] deck = new int[Card.COUNT - Long.bitCount(used)];
+            int missing = boardSize - Long.bitCount(board);
+
+            for (int ordinal = 0, i = 0; ordinal < Card.COUNT; ordinal++) {
+                if ((used & 1L << ordinal) == 0) deck[i++] = ordinal;
+            }
+
+            RandomSource random = RandomSource.seeded(mix(seed + (chunk + 1) * GOLDEN_GAMMA));
+
+            for (long trial = first; trial < last; trial++) {
+
+                long completed = board;
+
+                // a partial Fisher-Yates shuffle moves a uniform random subset to the front, and leaves the array
+                // holding the same Cards for the next trial
+                for (int i = 0; i < missing; i++) {
+
+                    int j = i + random.nextInt(deck.length - i);
+                    int card = deck[j];
+
+                    deck[j] = deck[i];
+                    deck[i] = card;
+                    completed |= 1L << card;
+
+                }
+
+                score(completed, strengths, tally);
+
+            }
+
+            return tally;
+
+        }
+
+        /**
+         * Ranks every hand against a complete board and counts the winners
+         *
+         * @param completed The mask of the complete board
+         * @param strengths The array the strengths of the hands are written to
+         * @param tally     The tally the winners are counted in
+         */
+        private void score(long completed, int[] strengths, long[] tally) {
+
+            int numHands = hands.length;
+            int best = Integer.MIN_VALUE;
+            int winners = 0;
+
+            for (int hand = 0; hand < numHands; hand++) {
+
+                int strength = HandEvaluator.evaluate(hands[hand] | completed);
+
+                strengths[hand] = strength;
+
+                if (strength > best) {
+                    best = strength;
+                    winners = 1;
+                } else if (strength == best) {
+                    winners++;
+                }
+
+            }
+
+            for (int hand = 0; hand < numHands; hand++) {
+                if (strengths[hand] == best) tally[hand * (numHands + 1) + winners]++;
+            }
+
+        }
+
+    }
+
+    /**
+     * A task dealing a range of chunks, splitting it in half until a single chunk is left
+     */
+    private static final class Chunks extends RecursiveTask<long[]> {
+
+        /**
+         * The version of the serialized form, which a task never needs but fork/join tasks are Serializable
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * The simulation the chunks belong to
+         */
+        private final Simulation simulation;
+
+        /**
+         * The index of the first chunk
+         */
+        private final long from;
+
+        /**
+         * The index after the last chunk
+         */
+        private final long to;
+
+        /**
+         * Constructs the task
+         *
+         * @param simulation The simulation the chunks belong to
+         * @param from       The index of the first chunk
+         * @param to         The index after the last chunk
+         */
+        private Chunks(Simulation simulation, long from, long to) {
+            this.simulation = simulation;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected long[] compute() {
+
+            if (to - from == 1) return simulation.run(from);
+
+            long middle = (from + to) >>> 1;
+            Chunks left = new Chunks(simulation, from, middle);
+
+            left.fork();
+
+            long[] tally = new Chunks(simulation, middle, to).compute();
+            long[] other = left.join();
+
+            for (int i = 0; i < tally.length; i++) {
+                tally[i] += other[i];
+            }
+
+            return tally;
+
+        }
+
+    }
+
+}
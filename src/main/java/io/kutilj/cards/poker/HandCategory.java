@@ -0,0 +1,18 @@
+package io.kutilj.cards.poker;
+
+/**
+ * The categories of poker hands, from weakest to strongest
+ */
+public enum HandCategory {
+
+    HIGH_CARD,
+    PAIR,
+    TWO_PAIR,
+    THREE_OF_A_KIND,
+    STRAIGHT,
+    FLUSH,
+    FULL_HOUSE,
+    FOUR_OF_A_KIND,
+    STRAIGHT_FLUSH
+
+}
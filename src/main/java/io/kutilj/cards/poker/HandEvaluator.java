@@ -0,0 +1,234 @@
+package io.kutilj.cards.poker;
+
+import io.kutilj.cards.Card;
+
+import java.util.List;
+
+/**
+ * Ranks poker hands of 5, 6 or 7 Cards, using the best 5 Cards of the hand
+ * <p>
+ * Hands are given as Card masks, bit {@code n} set for the Card with ordinal {@code n} as in
+ * {@link io.kutilj.cards.Deck#getMask()}. Because ordinals are grouped by suit, the mask splits into four 13-bit rank
+ * masks with a shift each. The rank masks index lookup tables built once when the class loads, which give the top
+ * Cards and the highest straight of any set of ranks, so evaluating a hand is a few table reads and bit operations and
+ * allocates nothing.
+ * <p>
+ * The strength of a hand is an int that compares like the hands do: a greater strength wins and equal strengths split
+ * the pot. The {@link HandCategory} sits in bits 20 to 23 and the ranks that break ties follow in 4-bit groups, the most
+ * significant first, with 2 as rank 0 and Ace as rank 12.
+ */
+public final class HandEvaluator {
+
+    /**
+     * The mask of every rank
+     */
+    private static final int RANKS = (1 << Card.RANKS) - 1;
+
+    /**
+     * The bits of the category within a strength
+     */
+    private static final int CATEGORY_SHIFT = 20;
+
+    /**
+     * The categories indexed by ordinal, cached as {@link HandCategory#values()} copies the array on every call
+     */
+    private static final HandCategory[] CATEGORIES = HandCategory.values();
+
+    /**
+     * The top five ranks of each rank mask, packed 4 bits each from bit 16 downwards
+     */
+    private static final int[] TOP_FIVE = new int[1 << Card.RANKS];
+
+    /**
+     * The rank of the highest Card of the best straight in each rank mask, plus one, or 0 if there is no straight
+     */
+    private static final int[] STRAIGHT = new int[1 << Card.RANKS];
+
+    static {
+        for (int ranks = 0; ranks <= RANKS; ranks++) {
+
+            int packed = 0;
+            int remaining = ranks;
+
+            for (int shift = 16; shift >= 0 && remaining != 0; shift -= 4) {
+                int top = 31 - Integer.numberOfLeadingZeros(remaining);
+                packed |= top << shift;
+                remaining &= ~(1 << top);
+            }
+
+            TOP_FIVE[ranks] = packed;
+
+            for (int top = 12; top >= 3; top--) {
+
+                // a straight with a 5 on top needs an Ace playing low
+                int needed = top == 3 ? 0b1_0000_0000_1111 : 0b1_1111 << (top - 4);
+
+                if ((ranks & needed) == needed) {
+                    STRAIGHT[ranks] = top + 1;
+                    break;
+                }
+
+            }
+
+        }
+    }
+
+    /**
+     * Not instantiable
+     */
+    private HandEvaluator() {
+    }
+
+    /**
+     * Ranks a hand of Cards, such as the hand of a Player
+     *
+     * @param cards The 5, 6 or 7 Cards of the hand
+     * @return Returns the strength of the hand
+     */
+    public static int evaluate(List<Card> cards) {
+        return evaluate(cards, 0L);
+    }
+
+    /**
+     * Ranks a hand of Cards together with shared board Cards, such as the hole Cards of a Player and the community Cards
+     *
+     * @param cards The Cards of the hand
+     * @param board The mask of the board Cards
+     * @return Returns the strength of the best 5 Cards out of the hand and the board
+     */
+    public static int evaluate(List<Card> cards, long board) {
+
+        long mask = board;
+
+        for (int i = 0; i < cards.size(); i++) {
+            mask |= 1L << cards.get(i).getOrdinal();
+        }
+
+        if (Long.bitCount(mask) != cards.size() + Long.bitCount(board)) throw new IllegalArgumentException("A hand cannot hold the same Card twice");
+
+        return evaluate(mask);
+
+    }
+
+    /**
+     * Ranks a hand of Cards
+     *
+     * @param cards The mask of the 5, 6 or 7 Cards of the hand
+     * @return Returns the strength of the hand
+     */
+    public static int evaluate(long cards) {
+
+        int count = Long.bitCount(cards);
+
+        if (count < 5 || count > 7 || cards >>> Card.COUNT != 0) {
+            throw new IllegalArgumentException("A hand must hold between 5 and 7 Cards");
+        }
+
+        int clubs = ranksOf(cards, 0);
+        int hearts = ranksOf(cards, 1);
+        int spades = ranksOf(cards, 2);
+        int diamonds = ranksOf(cards, 3);
+
+        // with at most 7 Cards only one suit can hold 5 or more
+        int flush = Integer.bitCount(clubs) >= 5 ? clubs
+                : Integer.bitCount(hearts) >= 5 ? hearts
+                : Integer.bitCount(spades) >= 5 ? spades
+                : Integer.bitCount(diamonds) >= 5 ? diamonds : 0;
+
+        if (flush != 0 && STRAIGHT[flush] != 0) {
+            return strength(HandCategory.STRAIGHT_FLUSH, (STRAIGHT[flush] - 1) << 16);
+        }
+
+        int any = clubs | hearts | spades | diamonds;
+        int two = (clubs & hearts) | (clubs & spades) | (clubs & diamonds) | (hearts & spades) | (hearts & diamonds) | (spades & diamonds);
+        int three = (clubs & hearts & spades) | (clubs & hearts & diamonds) | (clubs & spades & diamonds) | (hearts & spades & diamonds);
+        int quads = clubs & hearts & spades & diamonds;
+        int trips = three & ~quads;
+        int pairs = two & ~three;
+
+        if (quads != 0) {
+            int quad = top(quads);
+            return strength(HandCategory.FOUR_OF_A_KIND, quad << 16 | top(any & ~(1 << quad)) << 12);
+        }
+
+        if (trips != 0 && (pairs != 0 || Integer.bitCount(trips) > 1)) {
+            int trip = top(trips);
+            return strength(HandCategory.FULL_HOUSE, trip << 16 | top((trips & ~(1 << trip)) | pairs) << 12);
+        }
+
+        if (flush != 0) {
+            return strength(HandCategory.FLUSH, TOP_FIVE[flush]);
+        }
+
+        if (STRAIGHT[any] != 0) {
+            return strength(HandCategory.STRAIGHT, (STRAIGHT[any] - 1) << 16);
+        }
+
+        if (trips != 0) {
+            int trip = top(trips);
+            return strength(HandCategory.THREE_OF_A_KIND, trip << 16 | (TOP_FIVE[any & ~(1 << trip)] >>> 12) << 8);
+        }
+
+        if (Integer.bitCount(pairs) >= 2) {
+            int high = top(pairs);
+            int low = top(pairs & ~(1 << high));
+            return strength(HandCategory.TWO_PAIR, high << 16 | low << 12 | top(any & ~(1 << high) & ~(1 << low)) << 8);
+        }
+
+        if (pairs != 0) {
+            int pair = top(pairs);
+            return strength(HandCategory.PAIR, pair << 16 | (TOP_FIVE[any & ~(1 << pair)] >>> 8) << 4);
+        }
+
+        return strength(HandCategory.HIGH_CARD, TOP_FIVE[any]);
+
+    }
+
+    /**
+     * Gets the category of a hand from its strength
+     *
+     * @param strength The strength of the hand
+     * @return Returns the HandCategory
+     */
+    public static HandCategory categoryOf(int strength) {
+        return CATEGORIES[strength >>> CATEGORY_SHIFT];
+    }
+
+    /**
+     * Extracts the ranks of one suit from a Card mask, reordered so 2 is bit 0 and Ace is bit 12
+     *
+     * @param cards The Card mask
+     * @param suit  The index of the suit
+     * @return Returns the rank mask of the suit
+     */
+    private static int ranksOf(long cards, int suit) {
+
+        int ranks = (int) (cards >>> (suit * Card.RANKS)) & RANKS;
+
+        // ordinals put the Ace first, poker ranks it above the King
+        return ranks >>> 1 | (ranks & 1) << 12;
+
+    }
+
+    /**
+     * Gets the highest rank in a rank mask
+     *
+     * @param ranks The rank mask
+     * @return Returns the highest rank
+     */
+    private static int top(int ranks) {
+        return 31 - Integer.numberOfLeadingZeros(ranks);
+    }
+
+    /**
+     * Combines a category with the ranks breaking ties
+     *
+     * @param category The HandCategory
+     * @param ranks    The packed ranks
+     * @return Returns the strength
+     */
+    private static int strength(HandCategory category, int ranks) {
+        return category.ordinal() << CATEGORY_SHIFT | ranks;
+    }
+
+}
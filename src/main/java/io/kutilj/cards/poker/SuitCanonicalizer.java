@@ -0,0 +1,638 @@
+package io.kutilj.cards.poker;
+
+import io.kutilj.cards.Card;
+import io.kutilj.cards.Combinations;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Maps states of a hand, such as hole Cards and a board, to a compact index that is the same for every state equal up
+ * to a permutation of the suits, and back
+ * <p>
+ * A state is a Card mask per round, for example the two hole Cards and then the board, given as the round sizes
+ * {@code (2, 5)}. The Cards of a round are unordered, but rounds are not interchangeable. Two states are isomorphic if
+ * renaming the suits turns one into the other, like the ace and king of spades and the ace and king of hearts, and
+ * isomorphic states get the same index. The indices run from 0 to {@link #size()} - 1 without gaps, and
+ * {@link #weightOf(long)} tells how many raw states an index stands for, so exhaustive and cached computations can work
+ * on every distinct state once and weight the result.
+ * <p>
+ * Every suit of a state is described by the ranks it holds in each round, its shape being the number of Cards per
+ * round. The suits are sorted by shape and then by their ranks, which is the canonical form. An index is the offset of
+ * the sorted shapes, followed by the ranks of the suits sharing a shape as a multiset, after the indexing of poker hands
+ * by Waugh (2013).
+ */
+public final class SuitCanonicalizer {
+
+    /**
+     * The ranks of a suit as a mask
+     */
+    private static final int SUIT_MASK = (1 << Card.RANKS) - 1;
+
+    /**
+     * The number of suit permutations, the most raw states an index can stand for
+     */
+    private static final int PERMUTATIONS = 24;
+
+    /**
+     * The number of Cards dealt in each round
+     */
+    private final int[] rounds;
+
+    /**
+     * The number of Cards each suit holds in each round, per shape, the shapes sorted by descending Cards in the earliest
+     * rounds
+     */
+    private final int[][] shapes;
+
+    /**
+     * The number of ways a single suit can hold the Cards of each shape
+     */
+    private final long[] shapeSizes;
+
+    /**
+     * The shape of each combination of Cards per round, indexed by the mixed radix of the Cards per round
+     */
+    private final int[] shapeIds;
+
+    /**
+     * The shapes of the four suits of each configuration, packed 16 bits per suit in ascending order, sorted
+     */
+    private final long[] configurations;
+
+    /**
+     * The index of the first state of each configuration
+     */
+    private final long[] offsets;
+
+    /**
+     * The number of states
+     */
+    private final long size;
+
+    /**
+     * Constructs a canonicalizer for states dealt in rounds of the given sizes
+     *
+     * @param rounds The number of Cards dealt in each round, for example 2 and 5 for hole Cards and a complete board
+     */
+    public SuitCanonicalizer(int... rounds) {
+
+        if (rounds.length == 0 || rounds.length > 8) throw new IllegalArgumentException("There must be between 1 and 8 rounds");
+
+        int total = 0;
+        int radix = 1;
+
+        for (int cards : rounds) {
+
+            if (cards < 1) throw new IllegalArgumentException("Every round must deal at least one Card");
+
+            total += cards;
+            radix *= Math.min(cards, Card.RANKS) + 1;
+
+        }
+
+        if (total > Card.COUNT) throw new IllegalArgumentException("Cannot deal more than 52 Cards");
+
+        this.rounds = rounds.clone();
+
+        List<int[]> found = new ArrayList<>();
+
+        collectShapes(new int[rounds.length], 0, 0, found);
+
+        // shapes with more Cards in earlier rounds come first
+        found.sort((a, b) -> {
+            for (int r = 0; r < a.length; r++) {
+                if (a[r] != b[r]) return b[r] - a[r];
+            }
+            return 0;
+        });
+
+        this.shapes = found.toArray(new int[0][]);
+        this.shapeSizes = new long[shapes.length];
+        this.shapeIds = new int[radix];
+
+        for (int id = 0; id < shapes.length; id++) {
+
+            long ways = 1;
+            int left = Card.RANKS;
+
+            for (int r = 0; r < rounds.length; r++) {
+                ways *= Combinations.binomial(left, shapes[id][r]);
+                left -= shapes[id][r];
+            }
+
+            shapeSizes[id] = ways;
+            shapeIds[codeOf(shapes[id])] = id;
+
+        }
+
+        List<long[]> configs = new ArrayList<>();
+
+        collectConfigurations(new int[Card.SUITS], 0, 0, new int[rounds.length], configs);
+
+        this.configurations = new long[configs.size()];
+        this.offsets = new long[configs.size()];
+
+        long offset = 0;
+
+        for (int c = 0; c < configurations.length; c++) {
+            configurations[c] = configs.get(c)[0];
+            offsets[c] = offset;
+            offset = Math.addExact(offset, configs.get(c)[1]);
+        }
+
+        this.size = offset;
+
+    }
+
+    /**
+     * Finds every shape a single suit can have
+     *
+     * @param shape The Cards per round chosen so far
+     * @param round The round to choose the Cards of
+     * @param cards The number of Cards chosen so far
+     * @param found The list the shapes are added to
+     */
+    private void collectShapes(int[] shape, int round, int cards, List<int[]> found) {
+
+        if (round == rounds.length) {
+            found.add(shape.clone());
+            return;
+        }
+
+        for (int m = 0; m <= rounds[round] && cards + m <= Card.RANKS; m++) {
+            shape[round] = m;
+            collectShapes(shape, round + 1, cards + m, found);
+        }
+
+    }
+
+    /**
+     * Finds every way to give the four suits shapes, in ascending order of shape, that add up to the Cards per round
+     *
+     * @param ids     The shape of each suit chosen so far
+     * @param suit    The suit to choose the shape of
+     * @param minimum The smallest shape the suit may have
+     * @param dealt   The Cards per round given to the suits so far
+     * @param found   The list each configuration and its number of states is added to
+     */
+    private void collectConfigurations(int[] ids, int suit, int minimum, int[] dealt, List<long[]> found) {
+
+        if (suit == Card.SUITS) {
+
+            if (!Arrays.equals(dealt, rounds)) return;
+
+            long key = 0;
+            long states = 1;
+
+            for (int s = 0; s < Card.SUITS; s++) {
+                key = key << 16 | ids[s];
+            }
+
+            for (int s = 0, g; s < Card.SUITS; s += g) {
+
+                g = groupSize(ids, s);
+                states = Math.multiplyExact(states, multisets(shapeSizes[ids[s]], g));
+
+            }
+
+            found.add(new long[]{key, states});
+            return;
+
+        }
+
+        for (int id = minimum; id < shapes.length; id++) {
+
+            boolean fits = true;
+
+            for (int r = 0; r < rounds.length; r++) {
+                dealt[r] += shapes[id][r];
+                fits &= dealt[r] <= rounds[r];
+            }
+
+            if (fits) {
+                ids[suit] = id;
+                collectConfigurations(ids, suit + 1, id, dealt, found);
+            }
+
+            for (int r = 0; r < rounds.length; r++) {
+                dealt[r] -= shapes[id][r];
+            }
+
+        }
+
+    }
+
+    /**
+     * Gets the number of Cards dealt in each round
+     *
+     * @return Returns a copy of the round sizes
+     */
+    public int[] getRounds() {
+        return rounds.clone();
+    }
+
+    /**
+     * Gets the number of distinct states up to suit permutation
+     *
+     * @return Returns the number of indices
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Works out the index of a state
+     *
+     * @param masks The mask of the Cards of each round
+     * @return Returns the index, the same for every state that is a suit permutation of this one
+     */
+    public long indexOf(long... masks) {
+
+        if (masks.length != rounds.length) throw new IllegalArgumentException("A state needs a mask for each of the " + rounds.length + " rounds");
+
+        long all = 0;
+
+        for (int r = 0; r < rounds.length; r++) {
+
+            if (Long.bitCount(masks[r]) != rounds[r]) throw new IllegalArgumentException("Round " + r + " must have " + rounds[r] + " Cards");
+
+            if ((all & masks[r]) != 0 || masks[r] >>> Card.COUNT != 0) throw new IllegalArgumentException("A state cannot hold the same Card twice");
+
+            all |= masks[r];
+
+        }
+
+        int[] ids = new int[Card.SUITS];
+        long[] suitIndices = new long[Card.SUITS];
+
+        for (int suit = 0; suit < Card.SUITS; suit++) {
+
+            int code = 0;
+            int used = 0;
+            long index = 0;
+
+            for (int r = 0; r < rounds.length; r++) {
+
+                int ranks = (int) (masks[r] >>> suit * Card.RANKS) & SUIT_MASK;
+                int m = Integer.bitCount(ranks);
+
+                code = code * (Math.min(rounds[r], Card.RANKS) + 1) + m;
+                index = index * Combinations.binomial(Card.RANKS - Integer.bitCount(used), m) + rankAmong(ranks, used);
+                used |= ranks;
+
+            }
+
+            ids[suit] = shapeIds[code];
+            suitIndices[suit] = index;
+
+        }
+
+        sort(ids, suitIndices);
+
+        int configuration = Arrays.binarySearch(configurations, keyOf(ids));
+        long local = 0;
+
+        for (int s = 0, g; s < Card.SUITS; s += g) {
+
+            g = groupSize(ids, s);
+
+            long rank = 0;
+
+            // the indices of a group are descending, adding the distance from the end makes them strictly descending
+            for (int j = 0; j < g; j++) {
+                rank += choose(suitIndices[s + j] + g - 1 - j, g - j);
+            }
+
+            local = local * multisets(shapeSizes[ids[s]], g) + rank;
+
+        }
+
+        return offsets[configuration] + local;
+
+    }
+
+    /**
+     * Works out the canonical state of an index
+     *
+     * @param index The index
+     * @param into  The array the mask of the Cards of each round is written to
+     */
+    public void stateOf(long index, long[] into) {
+
+        int[] ids = new int[Card.SUITS];
+        long[] suitIndices = new long[Card.SUITS];
+
+        decode(index, ids, suitIndices);
+
+        long[] perRound = new long[rounds.length];
+
+        Arrays.fill(into, 0, rounds.length, 0L);
+
+        for (int suit = 0; suit < Card.SUITS; suit++) {
+
+            int[] shape = shapes[ids[suit]];
+            long remainder = suitIndices[suit];
+            int left = Card.RANKS;
+
+            for (int r = 0; r < rounds.length; r++) {
+                left -= shape[r];
+            }
+
+            for (int r = rounds.length - 1; r >= 0; r--) {
+
+                left += shape[r];
+
+                long radix = Combinations.binomial(left, shape[r]);
+
+                perRound[r] = remainder % radix;
+                remainder /= radix;
+
+            }
+
+            int used = 0;
+
+            for (int r = 0; r < rounds.length; r++) {
+
+                int ranks = ranksAt(perRound[r], shape[r], used);
+
+                into[r] |= (long) ranks << suit * Card.RANKS;
+                used |= ranks;
+
+            }
+
+        }
+
+    }
+
+    /**
+     * Works out the number of raw states an index stands for
+     *
+     * @param index The index
+     * @return Returns the number of states that are suit permutations of the canonical state, between 1 and 24
+     */
+    public int weightOf(long index) {
+
+        int[] ids = new int[Card.SUITS];
+        long[] suitIndices = new long[Card.SUITS];
+
+        decode(index, ids, suitIndices);
+
+        // suits holding exactly the same ranks can be swapped without changing the state
+        int symmetries = 1;
+
+        for (int s = 0, g; s < Card.SUITS; s += g) {
+
+            for (g = 1; s + g < Card.SUITS && ids[s + g] == ids[s] && suitIndices[s + g] == suitIndices[s]; g++) {
+                symmetries *= g + 1;
+            }
+
+        }
+
+        return PERMUTATIONS / symmetries;
+
+    }
+
+    /**
+     * Works out the shape and the index of the ranks of each suit of the canonical state of an index
+     *
+     * @param index       The index
+     * @param ids         The array the shape of each suit is written to
+     * @param suitIndices The array the index of the ranks of each suit is written to
+     */
+    private void decode(long index, int[] ids, long[] suitIndices) {
+
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Index " + index + " is out of range for " + size + " states");
+
+        int configuration = Arrays.binarySearch(offsets, index);
+
+        if (configuration < 0) configuration = -configuration - 2;
+
+        long key = configurations[configuration];
+        long local = index - offsets[configuration];
+
+        for (int s = Card.SUITS - 1; s >= 0; s--) {
+            ids[s] = (int) (key & 0xFFFF);
+            key >>>= 16;
+        }
+
+        int end = Card.SUITS;
+
+        while (end > 0) {
+
+            int s = end - 1;
+
+            while (s > 0 && ids[s - 1] == ids[end - 1]) s--;
+
+            int g = end - s;
+            long radix = multisets(shapeSizes[ids[s]], g);
+            long rank = local % radix;
+
+            local /= radix;
+
+            for (int j = 0; j < g; j++) {
+
+                int k = g - j;
+                long low = k - 1;
+                long high = shapeSizes[ids[s]] + g - 1;
+
+                // the greatest value whose binomial fits, the binomial of low always fits and the one of high never does
+                while (high - low > 1) {
+
+                    long middle = (low + high) >>> 1;
+
+                    if (choose(middle, k) <= rank) {
+                        low = middle;
+                    } else {
+                        high = middle;
+                    }
+
+                }
+
+                long value = low;
+
+                rank -= choose(value, k);
+                suitIndices[s + j] = value - (g - 1 - j);
+
+            }
+
+            end = s;
+
+        }
+
+    }
+
+    /**
+     * Works out the code of a shape, the mixed radix number of its Cards per round
+     *
+     * @param shape The Cards per round
+     * @return Returns the code of the shape
+     */
+    private int codeOf(int[] shape) {
+
+        int code = 0;
+
+        for (int r = 0; r < rounds.length; r++) {
+            code = code * (Math.min(rounds[r], Card.RANKS) + 1) + shape[r];
+        }
+
+        return code;
+
+    }
+
+    /**
+     * Counts the suits sharing a shape
+     *
+     * @param ids  The shape of each suit, in ascending order
+     * @param from The first suit of the group
+     * @return Returns the number of suits from the first one with the same shape
+     */
+    private static int groupSize(int[] ids, int from) {
+
+        int size = 1;
+
+        while (from + size < ids.length && ids[from + size] == ids[from]) size++;
+
+        return size;
+
+    }
+
+    /**
+     * Packs the shapes of the four suits into the key of their configuration
+     *
+     * @param ids The shape of each suit, in ascending order
+     * @return Returns the key
+     */
+    private static long keyOf(int[] ids) {
+
+        long key = 0;
+
+        for (int id : ids) {
+            key = key << 16 | id;
+        }
+
+        return key;
+
+    }
+
+    /**
+     * Sorts the suits by ascending shape, and by descending index of their ranks within a shape
+     *
+     * @param ids         The shape of each suit
+     * @param suitIndices The index of the ranks of each suit
+     */
+    private static void sort(int[] ids, long[] suitIndices) {
+
+        for (int i = 1; i < ids.length; i++) {
+
+            int id = ids[i];
+            long index = suitIndices[i];
+            int j = i - 1;
+
+            while (j >= 0 && (ids[j] > id || ids[j] == id && suitIndices[j] < index)) {
+                ids[j + 1] = ids[j];
+                suitIndices[j + 1] = suitIndices[j];
+                j--;
+            }
+
+            ids[j + 1] = id;
+            suitIndices[j + 1] = index;
+
+        }
+
+    }
+
+    /**
+     * Works out the colexicographic rank of a set of ranks among the ranks that are not used yet
+     *
+     * @param ranks The ranks
+     * @param used  The ranks used in earlier rounds
+     * @return Returns the rank of the set
+     */
+    private static long rankAmong(int ranks, int used) {
+
+        long rank = 0;
+        int chosen = 0;
+
+        for (; ranks != 0; ranks &= ranks - 1) {
+
+            int position = Integer.bitCount(~used & (Integer.lowestOneBit(ranks) - 1) & SUIT_MASK);
+
+            rank += Combinations.binomial(position, ++chosen);
+
+        }
+
+        return rank;
+
+    }
+
+    /**
+     * Works out the set of ranks with a colexicographic rank among the ranks that are not used yet
+     *
+     * @param rank  The rank of the set
+     * @param count The number of ranks in the set
+     * @param used  The ranks used in earlier rounds
+     * @return Returns the ranks
+     */
+    private static int ranksAt(long rank, int count, int used) {
+
+        int ranks = 0;
+        int position = Card.RANKS - Integer.bitCount(used);
+
+        for (int i = count; i > 0; i--) {
+
+            do {
+                position--;
+            } while (Combinations.binomial(position, i) > rank);
+
+            rank -= Combinations.binomial(position, i);
+
+            // the position counts the free ranks, find the rank it lands on
+            int free = ~used & SUIT_MASK;
+
+            for (int skip = 0; skip < position; skip++) {
+                free &= free - 1;
+            }
+
+            ranks |= Integer.lowestOneBit(free);
+
+        }
+
+        return ranks;
+
+    }
+
+    /**
+     * Works out the number of multisets of a size drawn from a number of values
+     *
+     * @param values The number of values
+     * @param count  The size of the multisets
+     * @return Returns the number of multisets
+     */
+    private static long multisets(long values, int count) {
+        return choose(values + count - 1, count);
+    }
+
+    /**
+     * Works out a binomial coefficient that may be too large for the table of {@link Combinations#binomial(int, int)}
+     *
+     * @param n The number to choose from
+     * @param k The number chosen, at most 4
+     * @return Returns the binomial coefficient, 0 if k is greater than n
+     */
+    private static long choose(long n, int k) {
+
+        if (k > n) return 0;
+
+        long result = 1;
+
+        for (int i = 1; i <= k; i++) {
+            result = Math.multiplyExact(result, n - k + i) / i;
+        }
+
+        return result;
+
+    }
+
+}
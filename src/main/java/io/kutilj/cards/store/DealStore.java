@@ -0,0 +1,266 @@
+package io.kutilj.cards.store;
+
+import io.kutilj.cards.Card;
+import io.kutilj.cards.Dealer;
+import io.kutilj.cards.Deck;
+import io.kutilj.cards.Player;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Keeps dealt hands off the heap, as the ordinals of their Cards in columns
+ * <p>
+ * Every deal gives the same number of Cards to the same number of Players. Hand {@code h} is the hand of Player
+ * {@code h % numPlayers} in deal {@code h / numPlayers}, and its Cards are stored one byte each, the ordinal of the
+ * {@code c}th Card in column {@code c}. The columns are cut into chunks of {@value #CHUNK_HANDS} hands held in direct
+ * buffers, so a hand costs as many bytes as it has Cards and the heap only holds one reference per chunk however many
+ * hands are stored. Hands are read back through a {@link HandCursor}, which views one hand at a time without creating
+ * any objects.
+ * <p>
+ * A store must only be used by one thread at a time.
+ */
+public class DealStore {
+
+    /**
+     * The number of hands in a chunk
+     */
+    static final int CHUNK_HANDS = 1 << 16;
+
+    /**
+     * The number of Players of every deal
+     */
+    private final int numPlayers;
+
+    /**
+     * The number of Cards of every hand
+     */
+    private final int numCards;
+
+    /**
+     * The chunks of the columns, column {@code c} of a chunk starts at byte {@code c * CHUNK_HANDS}
+     */
+    private ByteBuffer[] chunks = new ByteBuffer[16];
+
+    /**
+     * The number of chunks allocated
+     */
+    private int chunkCount;
+
+    /**
+     * The number of hands stored
+     */
+    private long hands;
+
+    /**
+     * Constructs an empty store
+     *
+     * @param numPlayers The number of Players of every deal
+     * @param numCards   The number of Cards dealt to each Player
+     */
+    public DealStore(int numPlayers, int numCards) {
+
+        if (numPlayers < 1 || numCards < 1 || numPlayers * numCards > Card.COUNT) {
+            throw new IllegalArgumentException("A deal must give at least one Card to at least one Player from a single Deck");
+        }
+
+        this.numPlayers = numPlayers;
+        this.numCards = numCards;
+
+    }
+
+    /**
+     * Gets the number of Players of every deal
+     *
+     * @return Returns the number of Players
+     */
+    public int getNumPlayers() {
+        return numPlayers;
+    }
+
+    /**
+     * Gets the number of Cards dealt to each Player
+     *
+     * @return Returns the number of Cards of a hand
+     */
+    public int getNumCards() {
+        return numCards;
+    }
+
+    /**
+     * Gets the number of deals stored
+     *
+     * @return Returns the number of deals
+     */
+    public long deals() {
+        return hands / numPlayers;
+    }
+
+    /**
+     * Gets the number of hands stored
+     *
+     * @return Returns the number of hands
+     */
+    public long hands() {
+        return hands;
+    }
+
+    /**
+     * Gets the off-heap memory held by the store
+     *
+     * @return Returns the number of bytes allocated
+     */
+    public long memoryUsed() {
+        return (long) chunkCount * CHUNK_HANDS * numCards;
+    }
+
+    /**
+     * Stores the hands of a deal
+     *
+     * @param players The Players of the deal, each holding exactly the Cards of their hand
+     */
+    public void append(List<Player> players) {
+
+        if (players.size() != numPlayers) throw new IllegalArgumentException("A deal must be given to " + numPlayers + " Players");
+
+        for (int player = 0; player < numPlayers; player++) {
+            if (players.get(player).getHand().size() != numCards) throw new IllegalArgumentException("A hand must hold " + numCards + " Cards");
+        }
+
+        reserve(numPlayers);
+
+        for (int player = 0; player < numPlayers; player++) {
+
+            List<Card> hand = players.get(player).getHand();
+
+            for (int card = 0; card < numCards; card++) {
+                put(hands + player, card, hand.get(card).getOrdinal());
+            }
+
+        }
+
+        hands += numPlayers;
+
+    }
+
+    /**
+     * Deals a round from the Deck of a Dealer straight into the store, without any Players
+     * <p>
+     * The Cards are drawn from the top of the Deck one at a time to each Player in turn, exactly as
+     * {@link Dealer#deal(List, int)} would hand them out.
+     *
+     * @param dealer The Dealer whose Deck is dealt from
+     */
+    public void append(Dealer dealer) {
+
+        Deck deck = dealer.getDeck();
+
+        if (numPlayers * numCards > deck.getCards().size()) {
+            throw new IllegalArgumentException("The given number of players and cards to deal is greater than the size of the deck");
+        }
+
+        reserve(numPlayers);
+
+        for (int card = 0; card < numCards; card++) {
+            for (int player = 0; player < numPlayers; player++) {
+                put(hands + player, card, deck.draw().getOrdinal());
+            }
+        }
+
+        hands += numPlayers;
+
+    }
+
+    /**
+     * Shuffles and deals many rounds from the Deck of a Dealer straight into the store
+     * <p>
+     * The dealt Cards go back into the Deck after every round, by undoing the shuffle if the Dealer shuffles lazily and by
+     * adding them back to the bottom otherwise, so the Deck ends up holding the same Cards it started with.
+     *
+     * @param dealer The Dealer whose Deck is shuffled and dealt from
+     * @param deals  The number of rounds to deal
+     */
+    public void append(Dealer dealer, long deals) {
+
+        if (deals < 0) throw new IllegalArgumentException("Cannot deal a negative number of rounds");
+
+        Deck deck = dealer.getDeck();
+
+        for (long deal = 0; deal < deals; deal++) {
+
+            dealer.shuffle();
+
+            long first = hands;
+
+            append(dealer);
+
+            if (dealer.isLazyShuffle()) {
+                deck.undoLazyShuffle();
+                continue;
+            }
+
+            for (int card = 0; card < numCards; card++) {
+                for (int player = 0; player < numPlayers; player++) {
+                    deck.addCard(Card.valueOf(ordinal(first + player, card)));
+                }
+            }
+
+        }
+
+    }
+
+    /**
+     * Creates a cursor over the stored hands, positioned before the first one
+     *
+     * @return Returns a new HandCursor
+     */
+    public HandCursor cursor() {
+        return new HandCursor(this);
+    }
+
+    /**
+     * Forgets every stored hand, keeping the memory for the next ones
+     */
+    public void clear() {
+        hands = 0;
+    }
+
+    /**
+     * Gets the ordinal of a Card of a hand
+     *
+     * @param hand The index of the hand
+     * @param card The index of the Card within the hand
+     * @return Returns the ordinal
+     */
+    int ordinal(long hand, int card) {
+        return chunks[(int) (hand / CHUNK_HANDS)].get(card * CHUNK_HANDS + (int) (hand % CHUNK_HANDS));
+    }
+
+    /**
+     * Sets the ordinal of a Card of a hand
+     *
+     * @param hand    The index of the hand
+     * @param card    The index of the Card within the hand
+     * @param ordinal The ordinal
+     */
+    private void put(long hand, int card, int ordinal) {
+        chunks[(int) (hand / CHUNK_HANDS)].put(card * CHUNK_HANDS + (int) (hand % CHUNK_HANDS), (byte) ordinal);
+    }
+
+    /**
+     * Makes sure the chunks of the next hands are allocated
+     *
+     * @param count The number of hands about to be stored
+     */
+    private void reserve(int count) {
+        while ((long) chunkCount * CHUNK_HANDS < hands + count) {
+
+            if (chunkCount == chunks.length) chunks = Arrays.copyOf(chunks, chunkCount * 2);
+
+            chunks[chunkCount++] = ByteBuffer.allocateDirect(CHUNK_HANDS * numCards);
+
+        }
+    }
+
+}
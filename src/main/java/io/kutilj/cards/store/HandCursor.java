@@ -0,0 +1,169 @@
+package io.kutilj.cards.store;
+
+import io.kutilj.cards.Card;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * A movable view of one hand of a {@link DealStore}
+ * <p>
+ * The cursor is itself the List of the Cards of the hand it is on, read from the store on every access, so it can stand
+ * in for {@link io.kutilj.cards.Player#getHand()} wherever a hand is only read, such as
+ * {@link io.kutilj.cards.poker.HandEvaluator#evaluate(java.util.List)}. Moving it to another hand creates no objects.
+ * It is read-only, and it must not be used while the store is cleared.
+ */
+public final class HandCursor extends AbstractList<Card> implements RandomAccess {
+
+    /**
+     * The store holding the hands
+     */
+    private final DealStore store;
+
+    /**
+     * The index of the hand the cursor is on, or -1 before the first hand
+     */
+    private long hand = -1;
+
+    /**
+     * Constructs a cursor positioned before the first hand
+     *
+     * @param store The store holding the hands
+     */
+    HandCursor(DealStore store) {
+        this.store = store;
+    }
+
+    /**
+     * Moves to the next hand
+     * <p>
+     * Without a next hand the cursor stays where it is, so once more hands are appended the next call moves to the first
+     * of them
+     *
+     * @return Returns true if there was a next hand, false if the cursor is on the last hand or the store is empty
+     */
+    public boolean next() {
+
+        if (hand + 1 >= store.hands()) return false;
+
+        hand++;
+
+        return true;
+
+    }
+
+    /**
+     * Moves to a hand
+     *
+     * @param hand The index of the hand
+     * @return Returns this cursor
+     */
+    public HandCursor moveTo(long hand) {
+
+        if (hand < 0 || hand >= store.hands()) throw new IndexOutOfBoundsException("Hand: " + hand + ", Hands: " + store.hands());
+
+        this.hand = hand;
+
+        return this;
+
+    }
+
+    /**
+     * Moves to the hand of a Player in a deal
+     *
+     * @param deal   The index of the deal
+     * @param player The index of the Player within the deal
+     * @return Returns this cursor
+     */
+    public HandCursor moveTo(long deal, int player) {
+
+        if (player < 0 || player >= store.getNumPlayers()) throw new IndexOutOfBoundsException("Player: " + player + ", Players: " + store.getNumPlayers());
+
+        return moveTo(deal * store.getNumPlayers() + player);
+
+    }
+
+    /**
+     * Gets the index of the hand the cursor is on
+     *
+     * @return Returns the index of the hand
+     */
+    public long getIndex() {
+        return hand;
+    }
+
+    /**
+     * Gets the index of the deal of the hand the cursor is on
+     *
+     * @return Returns the index of the deal
+     */
+    public long getDeal() {
+        return hand / store.getNumPlayers();
+    }
+
+    /**
+     * Gets the index of the Player holding the hand the cursor is on within their deal
+     *
+     * @return Returns the index of the Player
+     */
+    public int getPlayer() {
+        return (int) (hand % store.getNumPlayers());
+    }
+
+    /**
+     * Gets the ordinal of a Card of the hand
+     *
+     * @param index The index of the Card within the hand
+     * @return Returns the ordinal
+     */
+    public int getOrdinal(int index) {
+
+        checkPosition(index);
+
+        return store.ordinal(hand, index);
+
+    }
+
+    /**
+     * Gets the mask of the hand, as used by {@link io.kutilj.cards.poker.HandEvaluator#evaluate(long)}
+     *
+     * @return Returns a mask with bit {@code n} set if the hand holds the Card with ordinal {@code n}
+     */
+    public long getMask() {
+
+        checkPosition(0);
+
+        long mask = 0L;
+
+        for (int card = 0; card < store.getNumCards(); card++) {
+            mask |= 1L << store.ordinal(hand, card);
+        }
+
+        return mask;
+
+    }
+
+    @Override
+    public Card get(int index) {
+        return Card.valueOf(getOrdinal(index));
+    }
+
+    @Override
+    public int size() {
+        return store.getNumCards();
+    }
+
+    /**
+     * Validates that the cursor is on a hand and the index of a Card within it
+     *
+     * @param index The index of the Card
+     */
+    private void checkPosition(int index) {
+
+        if (hand < 0 || hand >= store.hands()) throw new IllegalStateException("The cursor is not on a hand");
+
+        if (index < 0 || index >= store.getNumCards()) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + store.getNumCards());
+
+    }
+
+}
@@ -0,0 +1,142 @@
+package io.kutilj.cards.table;
+
+/**
+ * A histogram of latencies with log-linear buckets, accurate to about 6% at any magnitude
+ * <p>
+ * Recording is a couple of bit operations and an array increment. A histogram is not thread safe, each table keeps its
+ * own and they are merged once the run is over.
+ */
+public class LatencyHistogram {
+
+    /**
+     * The number of bits of each value kept below its highest set bit
+     */
+    private static final int SUB_BUCKET_BITS = 4;
+
+    /**
+     * The number of buckets per power of two
+     */
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    /**
+     * The count of each bucket
+     */
+    private final long[] counts = new long[64 * SUB_BUCKETS];
+
+    /**
+     * The number of recorded values
+     */
+    private long count;
+
+    /**
+     * The largest recorded value
+     */
+    private long max;
+
+    /**
+     * Records a latency
+     *
+     * @param nanos The latency in nanoseconds, negative values are recorded as 0
+     */
+    public void record(long nanos) {
+
+        long value = Math.max(0, nanos);
+
+        counts[bucketOf(value)]++;
+        count++;
+        max = Math.max(max, value);
+
+    }
+
+    /**
+     * Adds every value recorded by another histogram
+     *
+     * @param other The histogram to add
+     */
+    public void merge(LatencyHistogram other) {
+
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+
+        count += other.count;
+        max = Math.max(max, other.max);
+
+    }
+
+    /**
+     * Gets the number of recorded values
+     *
+     * @return Returns the count
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Gets the largest recorded value
+     *
+     * @return Returns the maximum latency in nanoseconds
+     */
+    public long getMax() {
+        return max;
+    }
+
+    /**
+     * Gets the value at a percentile
+     *
+     * @param percentile The percentile, between 0 and 100
+     * @return Returns the upper bound of the bucket holding the percentile, in nanoseconds
+     */
+    public long percentile(double percentile) {
+
+        if (count == 0) return 0;
+
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long seen = 0;
+
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) return Math.min(max, upperBoundOf(i));
+        }
+
+        return max;
+
+    }
+
+    /**
+     * Works out the bucket of a value
+     *
+     * @param value The value
+     * @return Returns the index of the bucket
+     */
+    private static int bucketOf(long value) {
+
+        if (value < SUB_BUCKETS) return (int) value;
+
+        int magnitude = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (magnitude - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+
+        return (magnitude - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub;
+
+    }
+
+    /**
+     * Works out the largest value that falls in a bucket
+     *
+     * @param bucket The index of the bucket
+     * @return Returns the upper bound of the bucket
+     */
+    private static long upperBoundOf(int bucket) {
+
+        if (bucket < SUB_BUCKETS) return bucket;
+
+        int magnitude = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long sub = bucket % SUB_BUCKETS;
+        long width = 1L << (magnitude - SUB_BUCKET_BITS);
+
+        return (1L << magnitude) + (sub + 1) * width - 1;
+
+    }
+
+}
@@ -0,0 +1,99 @@
+package io.kutilj.cards.table;
+
+import io.kutilj.cards.RandomSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Plays a growing number of Tables at once and reports the rounds per second and round latency percentiles of each step
+ * <p>
+ * Usage: {@code LoadGenerator [tables,tables,...] [seconds per step] [think time per Player in microseconds]}, by default
+ * {@code 100,1000,10000,50000 5 0}.
+ */
+public final class LoadGenerator {
+
+    /**
+     * The number of Players seated at each Table
+     */
+    private static final int PLAYERS = 6;
+
+    /**
+     * The number of Cards dealt to each Player
+     */
+    private static final int CARDS = 2;
+
+    /**
+     * Not instantiable
+     */
+    private LoadGenerator() {
+    }
+
+    /**
+     * Runs every step and prints its report
+     *
+     * @param args The Table counts, the seconds per step and the think time in microseconds
+     */
+    public static void main(String[] args) {
+
+        String[] steps = (args.length > 0 ? args[0] : "100,1000,10000,50000").split(",");
+        long seconds = args.length > 1 ? Long.parseLong(args[1]) : 5;
+        long thinkMicros = args.length > 2 ? Long.parseLong(args[2]) : 0;
+
+        PlayerAction action = thinkMicros > 0 ? (player, deck) -> LockSupport.parkNanos(thinkMicros * 1000) : PlayerAction.NONE;
+
+        try (TableRuntime runtime = new TableRuntime()) {
+
+            System.out.println("virtual threads=" + runtime.isVirtual() + " players=" + PLAYERS + " cards=" + CARDS + " think=" + thinkMicros + "us");
+
+            for (String step : steps) {
+                System.out.println(run(runtime, Integer.parseInt(step.trim()), TimeUnit.SECONDS.toMillis(seconds), action, 42));
+            }
+
+        }
+
+    }
+
+    /**
+     * Plays a number of Tables at once for a while
+     *
+     * @param runtime        The runtime the Tables are played on
+     * @param tables         The number of Tables
+     * @param durationMillis How long to play, in milliseconds
+     * @param action         What each Player does once the Cards are dealt
+     * @param seed           The seed every Table's source of randomness is split from
+     * @return Returns the report of the step
+     */
+    public static LoadReport run(TableRuntime runtime, int tables, long durationMillis, PlayerAction action, long seed) {
+
+        RandomSource root = RandomSource.xoshiro(seed);
+        List<Table> playing = new ArrayList<>(tables);
+        List<CompletableFuture<Table>> stopped = new ArrayList<>(tables);
+
+        for (int i = 0; i < tables; i++) {
+            playing.add(new Table("Table " + i, PLAYERS, CARDS, root.split()).withAction(action));
+        }
+
+        long start = System.nanoTime();
+
+        for (Table table : playing) {
+            stopped.add(runtime.start(table, Long.MAX_VALUE));
+        }
+
+        LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(durationMillis));
+        playing.forEach(Table::stop);
+
+        LatencyHistogram latencies = new LatencyHistogram();
+
+        for (CompletableFuture<Table> table : stopped) {
+            latencies.merge(table.join().getLatencies());
+        }
+
+        return new LoadReport(tables, System.nanoTime() - start, latencies);
+
+    }
+
+}
@@ -0,0 +1,86 @@
+package io.kutilj.cards.table;
+
+/**
+ * The throughput and round latencies measured by one step of the {@link LoadGenerator}
+ */
+public class LoadReport {
+
+    /**
+     * The number of Tables played at once
+     */
+    private final int tables;
+
+    /**
+     * The number of rounds played across every Table
+     */
+    private final long rounds;
+
+    /**
+     * How long the Tables were played, in nanoseconds
+     */
+    private final long elapsedNanos;
+
+    /**
+     * The latencies of every round played
+     */
+    private final LatencyHistogram latencies;
+
+    /**
+     * Constructs the report
+     *
+     * @param tables       The number of Tables played at once
+     * @param elapsedNanos How long the Tables were played, in nanoseconds
+     * @param latencies    The latencies of every round played
+     */
+    LoadReport(int tables, long elapsedNanos, LatencyHistogram latencies) {
+        this.tables = tables;
+        this.rounds = latencies.getCount();
+        this.elapsedNanos = elapsedNanos;
+        this.latencies = latencies;
+    }
+
+    /**
+     * Gets the number of Tables played at once
+     *
+     * @return Returns the number of Tables
+     */
+    public int getTables() {
+        return tables;
+    }
+
+    /**
+     * Gets the number of rounds played across every Table
+     *
+     * @return Returns the number of rounds
+     */
+    public long getRounds() {
+        return rounds;
+    }
+
+    /**
+     * Gets the number of rounds played per second across every Table
+     *
+     * @return Returns the throughput
+     */
+    public double getRoundsPerSecond() {
+        return rounds * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * Gets the latencies of every round played
+     *
+     * @return Returns the latencies
+     */
+    public LatencyHistogram getLatencies() {
+        return latencies;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("tables=%d rounds=%d rounds/s=%.0f p50=%.1fus p90=%.1fus p99=%.1fus p99.9=%.1fus max=%.1fus",
+                tables, rounds, getRoundsPerSecond(),
+                latencies.percentile(50) / 1e3, latencies.percentile(90) / 1e3, latencies.percentile(99) / 1e3,
+                latencies.percentile(99.9) / 1e3, latencies.getMax() / 1e3);
+    }
+
+}
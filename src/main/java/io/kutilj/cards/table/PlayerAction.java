@@ -0,0 +1,26 @@
+package io.kutilj.cards.table;
+
+import io.kutilj.cards.Deck;
+import io.kutilj.cards.Player;
+
+/**
+ * What a Player does on their turn once the Cards have been dealt, for example drawing another Card
+ */
+@FunctionalInterface
+public interface PlayerAction {
+
+    /**
+     * Does nothing, the round ends after the deal
+     */
+    PlayerAction NONE = (player, deck) -> {
+    };
+
+    /**
+     * Takes the Player's turn
+     *
+     * @param player The Player whose turn it is
+     * @param deck   The Deck the Player may draw from
+     */
+    void act(Player player, Deck deck);
+
+}
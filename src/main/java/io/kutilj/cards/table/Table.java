@@ -0,0 +1,208 @@
+package io.kutilj.cards.table;
+
+import io.kutilj.cards.Card;
+import io.kutilj.cards.Dealer;
+import io.kutilj.cards.Deck;
+import io.kutilj.cards.Player;
+import io.kutilj.cards.RandomSource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A class representing one game table, a Dealer and the Players seated with them
+ * <p>
+ * A Table is confined to whichever task is playing its current round and the {@link TableRuntime} never runs two rounds
+ * of the same Table at once, so nothing in a round takes a lock.
+ */
+public class Table {
+
+    /**
+     * The Name of the Table
+     */
+    private final String name;
+
+    /**
+     * The Dealer of the Table
+     */
+    private final Dealer dealer;
+
+    /**
+     * The Players seated at the Table
+     */
+    private final List<Player> players;
+
+    /**
+     * The number of Cards dealt to each Player at the start of a round
+     */
+    private final int numCards;
+
+    /**
+     * What each Player does once the Cards are dealt
+     */
+    private PlayerAction action;
+
+    /**
+     * The latency of every round played, from being scheduled to finishing
+     */
+    private final LatencyHistogram latencies = new LatencyHistogram();
+
+    /**
+     * The number of rounds played
+     */
+    private long rounds;
+
+    /**
+     * Whether the Table should stop after the current round
+     */
+    private volatile boolean stopped;
+
+    /**
+     * Constructs a Table with a full Deck
+     *
+     * @param name         The Name of the Table
+     * @param numPlayers   The number of Players seated at the Table
+     * @param numCards     The number of Cards dealt to each Player at the start of a round
+     * @param randomSource The source of randomness used to shuffle, it is only used by this Table
+     */
+    public Table(String name, int numPlayers, int numCards, RandomSource randomSource) {
+
+        if (numPlayers * numCards > Card.COUNT) {
+            throw new IllegalArgumentException("The given number of players and cards to deal is greater than the size of the deck");
+        }
+
+        Deck deck = new Deck();
+
+        for (int ordinal = 0; ordinal < Card.COUNT; ordinal++) {
+            deck.addCard(Card.valueOf(ordinal));
+        }
+
+        this.name = name;
+        this.dealer = new Dealer(deck, randomSource);
+        this.players = new ArrayList<>(numPlayers);
+        this.numCards = numCards;
+        this.action = PlayerAction.NONE;
+
+        for (int i = 0; i < numPlayers; i++) {
+            players.add(new Player(name + " seat " + (i + 1)));
+        }
+
+    }
+
+    /**
+     * Gets the Name of the Table
+     *
+     * @return Returns the Name of the Table
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the Dealer of the Table
+     *
+     * @return Returns the Dealer
+     */
+    public Dealer getDealer() {
+        return dealer;
+    }
+
+    /**
+     * Gets the Players seated at the Table
+     *
+     * @return Returns the Players
+     */
+    public List<Player> getPlayers() {
+        return players;
+    }
+
+    /**
+     * Gets what each Player does once the Cards are dealt
+     *
+     * @return Returns the PlayerAction
+     */
+    public PlayerAction getAction() {
+        return action;
+    }
+
+    /**
+     * Builder method
+     * <p>
+     * Builds a Table whose Players take the given action once the Cards are dealt
+     *
+     * @param action The PlayerAction of the Players
+     * @return Returns a Table
+     */
+    public Table withAction(PlayerAction action) {
+        this.action = action;
+        return this;
+    }
+
+    /**
+     * Gets the number of rounds played
+     *
+     * @return Returns the number of rounds
+     */
+    public long getRounds() {
+        return rounds;
+    }
+
+    /**
+     * Gets the latency of every round played, read it only once the Table has stopped
+     *
+     * @return Returns the latencies
+     */
+    public LatencyHistogram getLatencies() {
+        return latencies;
+    }
+
+    /**
+     * Asks the Table to stop after its current round
+     */
+    public void stop() {
+        stopped = true;
+    }
+
+    /**
+     * Checks if the Table was asked to stop
+     *
+     * @return Returns true if the Table will not start another round
+     */
+    public boolean isStopped() {
+        return stopped;
+    }
+
+    /**
+     * Plays one round: gathers the Cards back, shuffles, deals and lets every Player act
+     *
+     * @param scheduledAt When the round was scheduled, from {@link System#nanoTime()}
+     */
+    void playRound(long scheduledAt) {
+
+        Deck deck = dealer.getDeck();
+
+        for (int i = 0; i < players.size(); i++) {
+
+            List<Card> hand = players.get(i).getHand();
+
+            for (int j = 0; j < hand.size(); j++) {
+                deck.addCard(hand.get(j));
+            }
+
+            hand.clear();
+
+        }
+
+        dealer.shuffle();
+        dealer.deal(players, numCards);
+
+        for (int i = 0; i < players.size(); i++) {
+            action.act(players.get(i), deck);
+        }
+
+        rounds++;
+        latencies.record(System.nanoTime() - scheduledAt);
+
+    }
+
+}
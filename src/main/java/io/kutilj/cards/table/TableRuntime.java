@@ -0,0 +1,174 @@
+package io.kutilj.cards.table;
+
+import java.lang.reflect.Method;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Runs the game loops of many Tables at once, each round of a Table being its own task
+ * <p>
+ * By default rounds run on virtual threads, which the runtime looks up reflectively so the library still targets Java 8.
+ * On a JVM without virtual threads it falls back to one platform thread per core, which serves CPU bound Tables just as
+ * well but not Tables whose Players block, for example while waiting on a person to act.
+ * <p>
+ * A Table schedules its next round only once the current one has finished, so a Table is never played by two threads at
+ * once and its state needs no locks.
+ */
+public class TableRuntime implements AutoCloseable {
+
+    /**
+     * The ExecutorService the rounds run on
+     */
+    private final ExecutorService executor;
+
+    /**
+     * Whether the rounds run on virtual threads
+     */
+    private final boolean virtual;
+
+    /**
+     * The futures of the Tables still playing, failed when the runtime is closed
+     */
+    private final Set<CompletableFuture<Table>> playing = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Constructs a runtime on virtual threads when the JVM has them
+     */
+    public TableRuntime() {
+
+        ExecutorService virtualExecutor = newVirtualThreadExecutor();
+
+        if (virtualExecutor != null) {
+            this.executor = virtualExecutor;
+            this.virtual = true;
+        } else {
+            this.executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), runnable -> {
+                Thread thread = new Thread(runnable, "table-runtime");
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.virtual = false;
+        }
+
+    }
+
+    /**
+     * Constructs a runtime on the given ExecutorService, which is shut down when the runtime is closed
+     *
+     * @param executor The ExecutorService the rounds run on
+     */
+    public TableRuntime(ExecutorService executor) {
+        this.executor = executor;
+        this.virtual = false;
+    }
+
+    /**
+     * Creates an ExecutorService that starts a virtual thread per task
+     *
+     * @return Returns the ExecutorService, or null if the JVM has no virtual threads
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+
+    }
+
+    /**
+     * Checks if the rounds run on virtual threads
+     *
+     * @return Returns true if the runtime uses virtual threads
+     */
+    public boolean isVirtual() {
+        return virtual;
+    }
+
+    /**
+     * Starts playing rounds at a Table until it has played the given number of rounds or is stopped
+     *
+     * @param table  The Table to play
+     * @param rounds The number of rounds to play, {@link Long#MAX_VALUE} to play until stopped
+     * @return Returns a future completed with the Table once it stops
+     */
+    public CompletableFuture<Table> start(Table table, long rounds) {
+
+        CompletableFuture<Table> done = new CompletableFuture<>();
+        long played = table.getRounds();
+
+        playing.add(done);
+        done.whenComplete((result, failure) -> playing.remove(done));
+
+        // a Table that already played must not overflow past the last round when asked to play until stopped
+        schedule(table, rounds > Long.MAX_VALUE - played ? Long.MAX_VALUE : played + rounds, done);
+
+        return done;
+
+    }
+
+    /**
+     * Schedules the next round of a Table, or completes it if it is finished
+     *
+     * @param table     The Table to play
+     * @param lastRound The round after which the Table stops
+     * @param done      The future completed when the Table stops
+     */
+    private void schedule(Table table, long lastRound, CompletableFuture<Table> done) {
+
+        if (table.isStopped() || table.getRounds() >= lastRound) {
+            done.complete(table);
+            return;
+        }
+
+        long scheduledAt = System.nanoTime();
+
+        try {
+            executor.execute(() -> {
+
+                try {
+                    table.playRound(scheduledAt);
+                } catch (Throwable t) {
+
+                    // the future is completed first so nobody waits on a Table whose thread died
+                    done.completeExceptionally(t);
+
+                    if (t instanceof Error) throw (Error) t;
+
+                    return;
+
+                }
+
+                schedule(table, lastRound, done);
+
+            });
+        } catch (RejectedExecutionException e) {
+            done.completeExceptionally(e);
+        }
+
+    }
+
+    /**
+     * Shuts the runtime down and fails the futures of the Tables still playing
+     * <p>
+     * A round already running is interrupted but may still finish, no round is started after it. The futures are failed
+     * here rather than by the rounds because the rounds still queued are dropped by the ExecutorService and never run.
+     */
+    @Override
+    public void close() {
+
+        executor.shutdownNow();
+
+        for (CompletableFuture<Table> done : playing) {
+            done.completeExceptionally(new RejectedExecutionException("The runtime was closed"));
+        }
+
+    }
+
+}
@@ -1,14 +1,31 @@
 import io.kutilj.cards.Card;
+import io.kutilj.cards.DealPlan;
+import io.kutilj.cards.CardFormat;
+import io.kutilj.cards.CardRenderer;
 import io.kutilj.cards.Dealer;
 import io.kutilj.cards.Deck;
 import io.kutilj.cards.Player;
+import io.kutilj.cards.RandomSource;
+import io.kutilj.cards.SecureRandomSource;
+import io.kutilj.cards.Shoe;
+import io.kutilj.cards.ShuffledDeckPool;
+import io.kutilj.cards.ShuffleModel;
+import io.kutilj.cards.TableSnapshot;
+import io.kutilj.cards.UndoLog;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.testng.Assert.*;
 
@@ -47,6 +64,33 @@ public class CardsTest {
 
     }
 
+    /**
+     * Tests that every Card maps to an ordinal and back to a single shared instance
+     */
+    @Test
+    public void testCardOrdinal() {
+
+        for (int ordinal = 0; ordinal < Card.COUNT; ordinal++) {
+
+            Card card = Card.valueOf(ordinal);
+
+            assertEquals(card.getOrdinal(), ordinal, "Card has the wrong ordinal");
+            assertEquals(card.hashCode(), ordinal, "Card hash doesn't match its ordinal");
+            assertSame(Card.valueOf(card.getName(), card.getSuit()), card, "Card isn't the shared instance");
+            assertSame(new Card(card.getName(), card.getSuit(), card.getValue()).canonical(), card, "Card doesn't resolve to the shared instance");
+
+        }
+
+        List<Card> organized = createFullDeck().getCards();
+
+        for (int i = 0; i < organized.size(); i++) {
+            assertEquals(organized.get(i).getOrdinal(), i, "Ordinals don't follow an organized Deck");
+        }
+
+        assertSame(Card.valueOf("Ace", "Clubs").withSuit("Spades").withValue(13), Card.valueOf("King", "Spades"));
+
+    }
+
     /**
      * Test that Decks can be compared to see if they are equal
      */
@@ -70,6 +114,291 @@ public class CardsTest {
 
     }
 
+    /**
+     * Test that shuffling with a seeded RandomSource is reproducible and that different seeds give different orders
+     */
+    @Test
+    public void testSeededShuffle() {
+
+        Dealer first = new Dealer(createFullDeck(), RandomSource.seeded(42));
+        Dealer second = new Dealer(createFullDeck()).withRandomSource(RandomSource.seeded(42));
+        Dealer third = new Dealer(createFullDeck(), RandomSource.xoshiro(42));
+        Dealer fourth = new Dealer(createFullDeck(), RandomSource.xoshiro(42));
+
+        first.shuffle();
+        second.shuffle();
+        third.shuffle();
+        fourth.shuffle();
+
+        assertEquals(first.getDeck().getCards(), second.getDeck().getCards(), "Decks shuffled with the same seed differ");
+        assertEquals(third.getDeck().getCards(), fourth.getDeck().getCards(), "Decks shuffled with the same seed differ");
+        assertNotEquals(first.getDeck().getCards(), third.getDeck().getCards(), "Decks shuffled by different generators are equal");
+        assertEquals(first.getDeck().getMask(), (1L << Card.COUNT) - 1, "Shuffling shouldn't change the Cards in the Deck");
+
+    }
+
+    /**
+     * Test that split RandomSources produce independent streams and that bounded values stay in range
+     */
+    @Test
+    public void testRandomSourceSplit() {
+
+        for (RandomSource source : Arrays.asList(RandomSource.seeded(7), RandomSource.xoshiro(7), RandomSource.threadLocal(),
+                RandomSource.of(new Random(7)::nextLong))) {
+
+            RandomSource split = source.split();
+
+            // a split of a split must not share a stream with the source or the first split
+            RandomSource nested = split.split();
+
+            long same = 0;
+
+            for (int i = 0; i < 1000; i++) {
+
+                long value = source.nextLong();
+                long splitValue = split.nextLong();
+                long nestedValue = nested.nextLong();
+
+                if (value == splitValue || value == nestedValue || splitValue == nestedValue) same++;
+
+                int bound = i + 1;
+                int bounded = split.nextInt(bound);
+
+                assertTrue(bounded >= 0 && bounded < bound, "Bounded value out of range: " + bounded);
+
+            }
+
+            assertEquals(same, 0, "Split streams should be independent");
+
+        }
+
+    }
+
+    /**
+     * Test that cutting the Deck moves the Cards above the cut point to the bottom
+     */
+    @Test
+    public void testCut() {
+
+        List<Card> organized = createFullDeck().getCards();
+
+        dealer.cut(10);
+
+        assertEquals(dealer.getDeck().getCards().subList(0, 42), organized.subList(10, 52), "Cards below the cut should be on top");
+        assertEquals(dealer.getDeck().getCards().subList(42, 52), organized.subList(0, 10), "Cards above the cut should be at the bottom");
+
+    }
+
+    /**
+     * Test that a cut point that is neither an index nor a CUT constant is rejected when it is set
+     */
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testInvalidCutPoint() {
+        new Dealer().withCutPoint(-3);
+    }
+
+    /**
+     * Test that every ShuffleModel keeps the same Cards and works for Decks that aren't exactly 52 Cards
+     */
+    @Test
+    public void testShuffleModels() {
+
+        for (ShuffleModel model : Arrays.asList(ShuffleModel.fisherYates(), ShuffleModel.riffle(), ShuffleModel.overhand(),
+                ShuffleModel.strip())) {
+
+            for (int size : new int[]{0, 1, 2, 30, 52}) {
+
+                Deck deck = new Deck(createFullDeck().getCards().subList(0, size));
+                long mask = deck.getMask();
+
+                new Dealer(deck, RandomSource.seeded(size)).withShuffleModel(model).withCutPoint(Dealer.CUT_RANDOM).shuffle();
+
+                assertEquals(deck.getCards().size(), size, "Shuffling changed the size of the Deck");
+                assertEquals(deck.getMask(), mask, "Shuffling changed the Cards in the Deck");
+
+                if (size == 52) assertNotEquals(deck.getCards(), createFullDeck().getCards(), "Deck wasn't shuffled by " + model);
+
+            }
+
+        }
+
+    }
+
+    /**
+     * Test that a lazy shuffle deals every Card to every position equally often, and that reset restores the Deck
+     */
+    @Test
+    public void testLazyShuffle() {
+
+        List<Card> organized = createFullDeck().getCards();
+        List<Player> players = createPlayers(5);
+        Dealer lazy = new Dealer(createFullDeck(), RandomSource.seeded(16)).withLazyShuffle(true);
+        int trials = 52_000;
+        int[][] counts = new int[10][Card.COUNT];
+
+        for (int trial = 0; trial < trials; trial++) {
+
+            lazy.shuffle();
+            lazy.deal(players, 2);
+
+            for (int i = 0; i < 10; i++) {
+                counts[i][players.get(i % 5).getHand().get(i / 5).getOrdinal()]++;
+            }
+
+            assertEquals(lazy.getDeck().getCards().size(), 42);
+
+            for (Player player : players) {
+                player.getHand().clear();
+            }
+
+            lazy.getDeck().undoLazyShuffle();
+
+            assertEquals(lazy.getDeck().getCards(), organized, "Undoing the shuffle should restore the order from before it");
+
+        }
+
+        // every count should be near 1000, a spread of 5 standard deviations allows about 160 either way
+        for (int[] position : counts) {
+            for (int count : position) {
+                assertTrue(Math.abs(count - trials / Card.COUNT) < 160, "Skewed lazy shuffle: " + Arrays.toString(position));
+            }
+        }
+
+        // looking at the rest of the Deck randomizes it, and it still holds every Card that wasn't dealt
+        lazy.shuffle();
+        lazy.deal(players, 1);
+
+        Deck deck = lazy.getDeck();
+
+        assertEquals(deck.getCards().size(), 47);
+        assertNotEquals(deck.getCards(), organized.subList(5, 52));
+        assertEquals(Long.bitCount(deck.getMask()), 47);
+
+        deck.undoLazyShuffle();
+
+        assertEquals(deck.getCards(), organized);
+
+    }
+
+    /**
+     * Test that a lazy shuffle cannot be undone once the Deck was changed in another way than drawing
+     */
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void testUndoLazyShuffleAfterChange() {
+
+        dealer.setLazyShuffle(true);
+        dealer.shuffle();
+        dealer.getDeck().removeCard(dealer.getDeck().getCards().get(3));
+        dealer.getDeck().undoLazyShuffle();
+
+    }
+
+    /**
+     * Test that resetting a Deck refills it in order whatever happened to it
+     */
+    @Test
+    public void testDeckReset() {
+
+        Deck deck = dealer.getDeck();
+
+        dealer.shuffle();
+        deck.draw();
+        deck.removeCard(deck.getCards().get(3));
+        deck.reset();
+
+        assertEquals(deck.getCards(), createFullDeck().getCards());
+
+    }
+
+    /**
+     * Test that full and partial Decks survive encoding, and that a full Deck takes 30 bytes
+     */
+    @Test
+    public void testDeckEncoding() {
+
+        Dealer shuffler = new Dealer(null, RandomSource.seeded(17));
+
+        for (int size : new int[]{0, 1, 7, 51, 52}) {
+            for (int trial = 0; trial < 100; trial++) {
+
+                Deck deck = createFullDeck();
+
+                shuffler.setDeck(deck);
+                shuffler.shuffle();
+
+                while (deck.getCards().size() > size) {
+                    deck.draw();
+                }
+
+                byte[] encoded = deck.encode();
+
+                assertEquals(encoded.length, Deck.encodedLength(size));
+                assertEquals(Deck.decode(encoded).getCards(), deck.getCards(), "Wrong order after decoding");
+
+            }
+        }
+
+        assertEquals(Deck.encodedLength(52), 30);
+        assertEquals(Deck.decode(createFullDeck().encode()).getCards(), createFullDeck().getCards());
+
+        // the last permutation has the greatest rank, all Cards in reverse order
+        List<Card> reversed = new ArrayList<>(createFullDeck().getCards());
+        Collections.reverse(reversed);
+
+        assertEquals(Deck.decode(new Deck(reversed).encode()).getCards(), reversed);
+
+    }
+
+    /**
+     * Test that Cards, hands and deals are rendered as text and JSON the same way into Appendables and buffers
+     *
+     * @throws IOException If a StringBuilder cannot be appended to, which never happens
+     */
+    @Test
+    public void testRendering() throws IOException {
+
+        Player alice = new Player("Alice \"A\" \u00e9\ud83c\udca1", new ArrayList<>(Arrays.asList(Card.valueOf(26), Card.valueOf(48))));
+        Player bob = new Player(null, new ArrayList<>(Arrays.asList(Card.valueOf(12), Card.valueOf(1))));
+        List<Player> players = Arrays.asList(alice, bob);
+
+        assertEquals(Card.valueOf(26).getCode(), "As");
+        assertEquals(Card.valueOf(48).getCode(), "Td");
+        assertEquals(CardFormat.TEXT.of(Card.valueOf(26)), "Ace of Spades");
+
+        StringBuilder text = new StringBuilder();
+        ByteBuffer bytes = ByteBuffer.allocate(1024);
+
+        CardRenderer.appendDeal(text, players, CardFormat.CODE);
+        CardRenderer.putDeal(bytes, players, CardFormat.CODE);
+
+        assertEquals(text.toString(), alice.getName() + " has a hand consisting of: As,Td\nnull has a hand consisting of: Kc,2c");
+        assertEquals(new String(bytes.array(), 0, bytes.position(), StandardCharsets.UTF_8), text.toString());
+
+        text.setLength(0);
+        bytes.clear();
+
+        CardRenderer.appendPlayer(text, alice, CardFormat.TEXT);
+
+        assertEquals(text.toString(), alice.toString());
+
+        text.setLength(0);
+
+        CardRenderer.appendDealJson(text, players);
+        CardRenderer.putDealJson(bytes, players);
+
+        String json = "{\"players\":[{\"name\":\"Alice \\\"A\\\" \u00e9\ud83c\udca1\",\"hand\":[\"As\",\"Td\"]},"
+                + "{\"name\":null,\"hand\":[\"Kc\",\"2c\"]}]}";
+
+        assertEquals(text.toString(), json);
+        assertEquals(new String(bytes.array(), 0, bytes.position(), StandardCharsets.UTF_8), json);
+
+        Deck deck = createFullDeck();
+
+        assertTrue(deck.toString().startsWith("Ace of Clubs,2 of Clubs,3 of Clubs,"));
+        assertTrue(deck.toString().endsWith(",Queen of Diamonds,King of Diamonds"));
+
+    }
+
     /**
      * Test method that attempts to deal cards to n players and then validate that each player has the correct amount of
      * cards and that they don't exist in the Dealer's Deck
@@ -102,6 +431,220 @@ public class CardsTest {
 
     }
 
+    /**
+     * Test that Cards are dealt one at a time to each Player in turn from the top of the Deck
+     */
+    @Test
+    public void testDealOrder() {
+
+        List<Player> players = createPlayers(3);
+        List<Card> organized = createFullDeck().getCards();
+
+        dealer.deal(players, 4);
+
+        for (int i = 0; i < players.size(); i++) {
+            for (int j = 0; j < 4; j++) {
+                assertEquals(players.get(i).getHand().get(j), organized.get(j * players.size() + i), "Card was dealt out of order");
+            }
+        }
+
+        assertEquals(dealer.getDeck().getCards(), organized.subList(12, Card.COUNT), "Deck should only be missing the dealt Cards");
+
+        // refill the Deck after dealing from the top
+        players.forEach(player -> player.getHand().forEach(dealer::addCard));
+
+        assertEquals(dealer.getDeck().getCards().size(), Card.COUNT);
+        assertEquals(dealer.getDeck().getMask(), (1L << Card.COUNT) - 1, "Refilled Deck should have every bit set");
+
+    }
+
+    /**
+     * Test that a Hold'em plan burns and deals the board where it should, and that uneven hands can be planned
+     */
+    @Test
+    public void testDealPlan() {
+
+        List<Player> players = createPlayers(3);
+        List<Card> organized = createFullDeck().getCards();
+        List<Card> board = new ArrayList<>();
+        DealPlan holdem = DealPlan.holdem(3);
+
+        assertEquals(holdem.size(), 14);
+        assertEquals(holdem.getBurns(), 3);
+        assertEquals(holdem.getBoardSize(), 5);
+        assertEquals(holdem.getTarget(6), DealPlan.BURN);
+        assertTrue(holdem.isFaceUp(DealPlan.BOARD, 4));
+        assertFalse(holdem.isFaceUp(2, 1));
+
+        dealer.deal(holdem, players, board);
+
+        assertEquals(players.get(0).getHand(), Arrays.asList(organized.get(0), organized.get(3)));
+        assertEquals(players.get(2).getHand(), Arrays.asList(organized.get(2), organized.get(5)));
+        assertEquals(board, Arrays.asList(organized.get(7), organized.get(8), organized.get(9), organized.get(11), organized.get(13)));
+        assertEquals(dealer.getDeck().getCards(), organized.subList(14, Card.COUNT));
+
+        List<Player> uneven = createPlayers(2);
+        DealPlan plan = DealPlan.builder(2).dealTo(0, 3).withFaceUp(true).dealTo(1, 1).build();
+
+        dealer.deal(plan, uneven, null);
+
+        assertEquals(uneven.get(0).getHand(), organized.subList(14, 17));
+        assertEquals(uneven.get(1).getHand(), organized.subList(17, 18));
+        assertTrue(plan.isFaceUp(1, 0));
+        assertFalse(plan.isFaceUp(0, 2));
+
+    }
+
+    /**
+     * Test that a plan needing more Cards than the Deck holds is rejected before any Card is dealt
+     */
+    @Test
+    public void testDealPlanTooLarge() {
+
+        while (dealer.getDeck().getCards().size() > 10) {
+            dealer.getDeck().draw();
+        }
+
+        List<Player> players = createPlayers(2);
+
+        try {
+            dealer.deal(DealPlan.holdem(2), players, new ArrayList<>());
+            fail("A plan of 13 Cards cannot be dealt from 10");
+        } catch (IllegalArgumentException e) {
+            assertEquals(dealer.getDeck().getCards().size(), 10);
+            assertTrue(players.get(0).getHand().isEmpty());
+        }
+
+    }
+
+    /**
+     * Test that a snapshot restores a table and that undoing a round through the log gets back to the same state
+     */
+    @Test
+    public void testSnapshotAndUndo() {
+
+        List<Player> players = createPlayers(4);
+        List<Card> board = new ArrayList<>();
+        Deck deck = dealer.getDeck();
+        UndoLog log = new UndoLog(deck, players, board);
+
+        dealer.shuffle();
+        log.draw(2);
+
+        TableSnapshot before = TableSnapshot.of(deck, players);
+        int mark = log.deal(DealPlan.holdem(4));
+
+        assertEquals(log.size(), 17);
+        assertEquals(deck.getCards().size(), 51 - 16);
+        assertEquals(board.size(), 5);
+
+        TableSnapshot after = TableSnapshot.of(deck, players);
+
+        assertNotEquals(after, before);
+
+        log.undoTo(mark);
+        board.clear();
+
+        assertEquals(TableSnapshot.of(deck, players), before);
+        assertEquals(TableSnapshot.of(deck, players).hashCode(), before.hashCode());
+
+        after.restore(deck, players);
+
+        assertEquals(TableSnapshot.of(deck, players), after);
+        assertFalse(deck.contains(players.get(0).getHand().get(0)));
+
+        before.restore(deck, players);
+
+        assertEquals(deck.getCards().size(), 51);
+        assertEquals(players.get(2).getHand().size(), 1);
+        assertTrue(players.get(0).getHand().isEmpty());
+
+    }
+
+    /**
+     * Test that a snapshot taken before the flop puts the flop back in the Deck when it is restored
+     */
+    @Test
+    public void testSnapshotBeforeFlop() {
+
+        List<Player> players = createPlayers(4);
+        List<Card> board = new ArrayList<>();
+        Deck deck = dealer.getDeck();
+
+        dealer.shuffle();
+        dealer.deal(players, 2);
+
+        TableSnapshot preflop = TableSnapshot.of(deck, players, board);
+
+        for (int i = 0; i < 3; i++) {
+            board.add(deck.draw());
+        }
+
+        TableSnapshot flop = TableSnapshot.of(deck, players, board);
+
+        assertNotEquals(flop, preflop);
+        assertEquals(flop.getBoardSize(), 3);
+
+        preflop.restore(deck, players, board);
+
+        assertEquals(TableSnapshot.of(deck, players, board), preflop);
+        assertTrue(board.isEmpty());
+
+        for (int i = 0; i < 3; i++) {
+            board.add(deck.draw());
+        }
+
+        long mask = deck.getMask();
+
+        for (Player player : players) {
+            mask |= new Deck(player.getHand()).getMask();
+        }
+
+        mask |= new Deck(board).getMask();
+
+        assertEquals(Long.bitCount(mask), 52, "A Card was duplicated or lost");
+        assertEquals(deck.getCards().size() + 8 + board.size(), 52);
+
+    }
+
+    /**
+     * Test that a snapshot holding a board cannot be restored to a table without one
+     */
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testRestoreBoardWithoutBoard() {
+
+        List<Player> players = createPlayers(2);
+        List<Card> board = new ArrayList<>();
+
+        board.add(dealer.getDeck().draw());
+
+        TableSnapshot.of(dealer.getDeck(), players, board).restore(dealer.getDeck(), players);
+
+    }
+
+    /**
+     * Test that undoing draws from a lazily shuffled Deck keeps the shuffle undoable
+     */
+    @Test
+    public void testUndoLazyShuffle() {
+
+        List<Player> players = createPlayers(3);
+        Dealer lazy = new Dealer(createFullDeck(), RandomSource.seeded(5)).withLazyShuffle(true);
+        UndoLog log = new UndoLog(lazy.getDeck(), players, null);
+
+        lazy.shuffle();
+        log.deal(DealPlan.roundRobin(3, 2));
+        log.undo();
+        log.undoTo(0);
+
+        assertTrue(players.get(0).getHand().isEmpty());
+
+        lazy.getDeck().undoLazyShuffle();
+
+        assertEquals(lazy.getDeck().getCards(), createFullDeck().getCards());
+
+    }
+
     /**
      * Tests that the deal method for the Dealer throws an IllegalArgumentException when a bad deal is given
      */
@@ -115,6 +658,55 @@ public class CardsTest {
 
     }
 
+    /**
+     * Test that a secure shuffle is a permutation, draws exactly uniform indices and counts the entropy it consumes
+     *
+     * @throws NoSuchAlgorithmException If the platform has no SHA1PRNG, which every Java platform must have
+     */
+    @Test
+    public void testSecureShuffle() throws NoSuchAlgorithmException {
+
+        SecureRandom seeded = SecureRandom.getInstance("SHA1PRNG");
+
+        seeded.setSeed(42L);
+
+        SecureRandomSource source = new SecureRandomSource(seeded, 64);
+        Dealer secure = new Dealer(createFullDeck(), source);
+
+        for (int i = 0; i < 1000; i++) {
+
+            long before = source.getBytesConsumed();
+
+            secure.shuffle();
+
+            long consumed = source.getBytesConsumed() - before;
+
+            assertEquals(secure.getDeck().getMask(), (1L << Card.COUNT) - 1, "A secure shuffle lost a Card");
+            assertTrue(consumed >= 51 && consumed < 100, "A shuffle consumed " + consumed + " bytes");
+
+        }
+
+        assertEquals(source.getBytesGenerated() % 64, 0);
+        assertTrue(source.getBytesGenerated() >= source.getBytesConsumed());
+
+        int[] counts = new int[52];
+
+        for (int i = 0; i < 52_000; i++) {
+            counts[source.nextInt(52)]++;
+        }
+
+        for (int count : counts) {
+            assertTrue(count > 800 && count < 1200, "Index drawn " + count + " times out of an expected 1000");
+        }
+
+        long before = SecureRandomSource.current().getBytesConsumed();
+
+        new Dealer(createFullDeck(), RandomSource.secure()).shuffle();
+
+        assertTrue(SecureRandomSource.current().getBytesConsumed() - before >= 51);
+
+    }
+
     /**
      * Test that a Card can be added to a Deck and that a Dealer can add a Card to the Deck as well
      */
@@ -159,16 +751,147 @@ public class CardsTest {
     }
 
     /**
-     * Test adding a Card to a full Deck throws an exception
+     * Test that a Shoe of eight Decks deals every copy of every Card and only reshuffles once the cut card comes out
+     */
+    @Test
+    public void testShoe() {
+
+        Shoe shoe = new Shoe(8).withPenetration(0.5).withRandomSource(RandomSource.seeded(8));
+        Card aceOfSpades = new Card("Ace", "Spades", 1);
+
+        assertEquals(shoe.size(), 416);
+        assertEquals(shoe.count(aceOfSpades), 8);
+        assertTrue(shoe.newRound(), "A new Shoe should be shuffled before the first round");
+
+        List<Player> players = createPlayers(4);
+        int rounds = 0;
+
+        while (!shoe.isCutCardReached()) {
+            assertFalse(rounds > 0 && shoe.newRound(), "The Shoe was reshuffled before the cut card came out");
+            shoe.deal(players, 5);
+            rounds++;
+        }
+
+        assertEquals(rounds, 11, "The cut card should come out after 208 Cards");
+
+        int[] dealt = new int[Card.COUNT];
+
+        players.forEach(player -> player.getHand().forEach(card -> dealt[card.getOrdinal()]++));
+
+        for (int ordinal = 0; ordinal < Card.COUNT; ordinal++) {
+            assertEquals(dealt[ordinal] + shoe.count(Card.valueOf(ordinal)), 8, "Copies of a Card went missing");
+        }
+
+        assertTrue(shoe.newRound(), "The Shoe should be reshuffled after the cut card came out");
+        assertEquals(shoe.remaining(), 416);
+        assertEquals(shoe.count(aceOfSpades), 8);
+
+    }
+
+    /**
+     * Test that a Shoe rejects more copies of a Card than it has Decks
      */
     @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testShoeTooManyCopies() {
+
+        List<Card> cards = new ArrayList<>(createFullDeck().getCards());
+
+        cards.addAll(createFullDeck().getCards().subList(0, 10));
+        cards.add(new Card("Ace", "Clubs", 1));
+
+        new Shoe(cards, 2);
+
+    }
+
+    /**
+     * Test that a Dealer using a ShuffledDeckPool starts every round with a full Deck in a new shuffled order
+     */
+    @Test
+    public void testShuffledDeckPool() {
+
+        try (ShuffledDeckPool pool = new ShuffledDeckPool(2)) {
+
+            Dealer pooled = new Dealer().withDeckPool(pool);
+            List<List<Card>> orders = new ArrayList<>();
+
+            for (int round = 0; round < 10; round++) {
+
+                pooled.newRound();
+
+                assertEquals(pooled.getDeck().getMask(), (1L << Card.COUNT) - 1, "A pooled Deck should be full");
+                assertFalse(orders.contains(pooled.getDeck().getCards()), "A pooled Deck wasn't reshuffled");
+
+                orders.add(new ArrayList<>(pooled.getDeck().getCards()));
+                pooled.deal(createPlayers(4), 5);
+
+            }
+
+            assertEquals(pool.getRounds(), 10);
+            assertEquals(pool.getCapacity(), 2);
+            assertTrue(pool.getWaits() <= pool.getRounds());
+            assertTrue(pool.getMaxRefillLagNanos() >= pool.getAverageRefillLagNanos());
+
+        }
+
+    }
+
+    /**
+     * Test that a failed refill makes a waiting take throw instead of blocking forever, and so does a take after closing
+     */
+    @Test(timeOut = 10_000)
+    public void testShuffledDeckPoolStops() {
+
+        AtomicInteger shuffles = new AtomicInteger();
+        ShuffleModel failing = (cards, from, to, random) -> {
+            if (shuffles.incrementAndGet() > 1) throw new IllegalStateException("The shuffler broke");
+        };
+
+        try (ShuffledDeckPool pool = new ShuffledDeckPool(1, createFullDeck().getCards(), RandomSource.seeded(1), failing, null)) {
+
+            assertEquals(pool.take().getCards().size(), Card.COUNT);
+
+            try {
+                pool.take();
+                fail("A take after a failed refill should throw");
+            } catch (IllegalStateException e) {
+                assertEquals(e.getCause().getMessage(), "The shuffler broke");
+            }
+
+        }
+
+        ShuffledDeckPool pool = new ShuffledDeckPool(1);
+
+        pool.take();
+        pool.close();
+
+        try {
+            pool.take();
+            fail("A take after closing should throw");
+        } catch (IllegalStateException e) {
+            assertEquals(e.getMessage(), "The pool is closed");
+        }
+
+    }
+
+    /**
+     * Test adding a Card to a full Deck throws an exception, the size is checked before looking for a duplicate
+     */
+    @Test(expectedExceptions = IllegalArgumentException.class, expectedExceptionsMessageRegExp = ".*larger than 52.*")
     public void testAddCardToFullDeck() {
 
         Deck deck = createFullDeck();
-        deck.addCard(new Card("Joker", "Joker", 0));
+        deck.addCard(Card.valueOf("Ace", "Spades"));
 
     }
 
+    /**
+     * Test that a Card which is not one of the 52 standard Cards cannot be constructed
+     */
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testConstructInvalidCard() {
+        new Card("Joker", "Joker", 0);
+    }
+
     /**
      * Test removing a Card from a Deck
      */
@@ -185,6 +908,66 @@ public class CardsTest {
 
     }
 
+    /**
+     * Test that the membership mask of a Deck tracks adds, removes and reordering of its Cards
+     */
+    @Test
+    public void testDeckMask() {
+
+        Deck deck = createFullDeck();
+
+        assertEquals(deck.getMask(), (1L << Card.COUNT) - 1, "A full Deck should have every bit set");
+
+        Collections.shuffle(deck.getCards());
+
+        assertEquals(deck.getMask(), (1L << Card.COUNT) - 1, "Reordering a Deck shouldn't change its mask");
+
+        Card card = deck.getCards().get(10);
+        deck.removeCard(card);
+
+        assertFalse(deck.contains(card), "The Deck still contains this Card: " + card);
+        assertEquals(deck.getCards().size(), Card.COUNT - 1);
+
+        deck.addCard(card);
+
+        assertTrue(deck.contains(card), "The Deck doesn't contain this Card: " + card);
+        assertSame(deck.getCards().get(Card.COUNT - 1), card.canonical());
+
+    }
+
+    /**
+     * Test that a Deck left holding a duplicate by a set still knows the remaining copy once the other is removed
+     */
+    @Test
+    public void testDeckMaskWithDuplicate() {
+
+        Deck deck = createFullDeck();
+        List<Card> cards = deck.getCards();
+        Card missing = cards.get(0);
+        Card duplicate = cards.get(1);
+
+        cards.set(0, duplicate);
+
+        assertFalse(deck.contains(missing), "The Deck still contains this Card: " + missing);
+
+        cards.remove(0);
+
+        assertTrue(deck.contains(duplicate), "The Deck doesn't contain this Card: " + duplicate);
+        assertEquals(deck.getMask(), (1L << Card.COUNT) - 1 & ~(1L << missing.getOrdinal()));
+
+        try {
+            deck.addCard(duplicate);
+            fail("A third copy of " + duplicate + " was added");
+        } catch (IllegalArgumentException e) {
+            assertEquals(cards.size(), Card.COUNT - 1);
+        }
+
+        deck.addCard(missing);
+
+        assertEquals(deck.getMask(), (1L << Card.COUNT) - 1);
+
+    }
+
     /**
      * Test removing a nonexistent Card from the Deck throws an exception
      */
@@ -0,0 +1,129 @@
+import io.kutilj.cards.Card;
+import io.kutilj.cards.Combinations;
+import io.kutilj.cards.Deck;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.testng.Assert.*;
+
+/**
+ * Simple class for testing the enumeration of Card combinations
+ */
+public class CombinationsTest {
+
+    /**
+     * Test that every combination of 5 out of 52 Cards is walked once, in ascending order
+     */
+    @Test
+    public void testAllFiveCardCombinations() {
+
+        Combinations combinations = new Combinations((1L << Card.COUNT) - 1, 5);
+        AtomicLong count = new AtomicLong();
+        AtomicLong previous = new AtomicLong(-1);
+
+        combinations.forEach(mask -> {
+            assertEquals(Long.bitCount(mask), 5);
+            assertTrue(mask > previous.get(), "The combinations must be in ascending order");
+            previous.set(mask);
+            count.incrementAndGet();
+        });
+
+        assertEquals(combinations.count(), 2_598_960);
+        assertEquals(count.get(), 2_598_960);
+        assertEquals(combinations.parallelStream().count(), 2_598_960);
+        assertEquals(combinations.parallelStream().distinct().count(), 2_598_960);
+
+    }
+
+    /**
+     * Test that the combinations of the Cards left in a Deck only hold those Cards, and that ranks match the order
+     */
+    @Test
+    public void testRanks() {
+
+        Deck deck = new Deck();
+
+        for (int ordinal = 0; ordinal < Card.COUNT; ordinal += 3) {
+            deck.addCard(Card.valueOf(ordinal));
+        }
+
+        Combinations combinations = new Combinations(deck, 3);
+        long rank = 0;
+
+        assertEquals(combinations.count(), Combinations.binomial(deck.getCards().size(), 3));
+
+        for (long mask : combinations.stream().toArray()) {
+            assertEquals(mask & ~deck.getMask(), 0L, "A combination holds a Card that is not in the Deck");
+            assertEquals(combinations.get(rank), mask, "Wrong combination for rank " + rank);
+            assertEquals(combinations.rankOf(mask), rank++);
+        }
+
+        assertEquals(rank, combinations.count());
+
+    }
+
+    /**
+     * Test that splitting and sharding by rank covers every combination exactly once
+     */
+    @Test
+    public void testSplitting() {
+
+        Combinations combinations = new Combinations((1L << Card.COUNT) - 1 & ~0xFL, 2);
+        List<Spliterator.OfLong> parts = new ArrayList<>();
+        long total = combinations.count();
+
+        parts.add(combinations.spliterator());
+
+        for (int round = 0; round < 4; round++) {
+            for (int i = parts.size() - 1; i >= 0; i--) {
+                Spliterator.OfLong prefix = parts.get(i).trySplit();
+                if (prefix != null) parts.add(i, prefix);
+            }
+        }
+
+        assertEquals(parts.size(), 16);
+
+        long walked = 0;
+
+        for (Spliterator.OfLong part : parts) {
+
+            assertTrue(Math.abs(part.estimateSize() - total / 16) <= 1, "The parts must be even");
+
+            long[] rank = {walked};
+
+            part.forEachRemaining((long mask) -> assertEquals(combinations.rankOf(mask), rank[0]++));
+            walked = rank[0];
+
+        }
+
+        assertEquals(walked, total);
+
+        long[] shard = new long[1];
+        combinations.spliterator(total / 3, total / 2).forEachRemaining((long mask) -> {
+            assertEquals(combinations.rankOf(mask), total / 3 + shard[0]++);
+        });
+
+        assertEquals(shard[0], total / 2 - total / 3);
+
+    }
+
+    /**
+     * Test that a mask can be turned into ordinals without creating Cards
+     */
+    @Test
+    public void testOrdinalsOf() {
+
+        int[] ordinals = new int[7];
+
+        assertEquals(Combinations.ordinalsOf(1L | 1L << 13 | 1L << 51, ordinals), 3);
+        assertEquals(ordinals[0], 0);
+        assertEquals(ordinals[1], 13);
+        assertEquals(ordinals[2], 51);
+
+    }
+
+}
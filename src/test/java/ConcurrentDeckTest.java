@@ -0,0 +1,202 @@
+import io.kutilj.cards.Card;
+import io.kutilj.cards.ConcurrentDeck;
+import io.kutilj.cards.Player;
+import io.kutilj.cards.RandomSource;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.testng.Assert.*;
+
+/**
+ * Stress tests proving that a ConcurrentDeck hands out every Card exactly once under heavy contention
+ */
+public class ConcurrentDeckTest {
+
+    private static final int THREADS = Math.max(4, Runtime.getRuntime().availableProcessors());
+
+    private ExecutorService executor;
+
+    /**
+     * Test setup method that starts the drawing threads
+     */
+    @BeforeClass
+    public void setup() {
+
+        executor = Executors.newFixedThreadPool(THREADS);
+
+    }
+
+    /**
+     * Test teardown method that stops the drawing threads
+     */
+    @AfterClass
+    public void teardown() {
+
+        executor.shutdownNow();
+
+    }
+
+    /**
+     * Test that many threads drawing single Cards, runs of Cards and whole deals from one 52 Card Deck get every Card
+     * exactly once, over many Decks
+     */
+    @Test
+    public void testNoDuplicatesOrLosses() throws Exception {
+
+        for (int iteration = 0; iteration < 2000; iteration++) {
+
+            ConcurrentDeck deck = ConcurrentDeck.shuffled(fullDeck(1), RandomSource.seeded(iteration));
+            int[] counts = drawConcurrently(deck);
+
+            for (int ordinal = 0; ordinal < Card.COUNT; ordinal++) {
+                assertEquals(counts[ordinal], 1, "Card " + Card.valueOf(ordinal) + " was not dealt exactly once");
+            }
+
+            assertEquals(deck.remaining(), 0);
+            assertNull(deck.draw(), "An empty Deck should not deal");
+
+        }
+
+    }
+
+    /**
+     * Test that many threads drawing from a large multi-Deck ConcurrentDeck get every copy of every Card
+     */
+    @Test
+    public void testLargeDeckUnderContention() throws Exception {
+
+        for (int iteration = 0; iteration < 20; iteration++) {
+
+            ConcurrentDeck deck = ConcurrentDeck.shuffled(fullDeck(200), RandomSource.seeded(iteration));
+            int[] counts = drawConcurrently(deck);
+
+            for (int ordinal = 0; ordinal < Card.COUNT; ordinal++) {
+                assertEquals(counts[ordinal], 200, "Copies of Card " + Card.valueOf(ordinal) + " were lost or duplicated");
+            }
+
+        }
+
+    }
+
+    /**
+     * Test that a deal claims consecutive Cards and hands them out one at a time to each Player in turn
+     */
+    @Test
+    public void testDealOrder() {
+
+        List<Card> cards = fullDeck(1);
+        ConcurrentDeck deck = new ConcurrentDeck(cards);
+        List<Player> players = new ArrayList<>();
+
+        for (int i = 0; i < 3; i++) {
+            players.add(new Player("Player " + i));
+        }
+
+        deck.deal(players, 4);
+
+        for (int i = 0; i < players.size(); i++) {
+            for (int j = 0; j < 4; j++) {
+                assertEquals(players.get(i).getHand().get(j), cards.get(j * players.size() + i), "Card was dealt out of order");
+            }
+        }
+
+        assertEquals(deck.remaining(), Card.COUNT - 12);
+
+    }
+
+    /**
+     * Test helper method that drains a Deck from every thread at once, mixing single draws, runs and deals
+     *
+     * @param deck The Deck to drain
+     * @return Returns how many times each Card was dealt, indexed by ordinal
+     */
+    private int[] drawConcurrently(ConcurrentDeck deck) throws Exception {
+
+        CyclicBarrier start = new CyclicBarrier(THREADS);
+        List<Future<List<Card>>> results = new ArrayList<>();
+
+        for (int t = 0; t < THREADS; t++) {
+
+            int mode = t % 3;
+
+            results.add(executor.submit(() -> {
+
+                List<Card> drawn = new ArrayList<>();
+                Card[] run = new Card[5];
+                Player player = new Player("Player");
+
+                start.await();
+
+                while (deck.remaining() > 0) {
+
+                    if (mode == 0) {
+                        Card card = deck.draw();
+                        if (card != null) drawn.add(card);
+                    } else if (mode == 1) {
+                        int count = deck.draw(run, 0, run.length);
+                        for (int i = 0; i < count; i++) {
+                            drawn.add(run[i]);
+                        }
+                    } else {
+                        try {
+                            deck.deal(Collections.singletonList(player), 3);
+                        } catch (IllegalArgumentException e) {
+                            Card card = deck.draw();
+                            if (card != null) drawn.add(card);
+                        }
+                    }
+
+                }
+
+                drawn.addAll(player.getHand());
+
+                return drawn;
+
+            }));
+
+        }
+
+        int[] counts = new int[Card.COUNT];
+        int total = 0;
+
+        for (Future<List<Card>> result : results) {
+            for (Card card : result.get()) {
+                counts[card.getOrdinal()]++;
+                total++;
+            }
+        }
+
+        assertEquals(total, deck.size(), "The number of Cards dealt doesn't match the size of the Deck");
+
+        return counts;
+
+    }
+
+    /**
+     * Test helper method for creating the Cards of several organized full Decks
+     *
+     * @param decks The number of Decks
+     * @return Returns the Cards
+     */
+    private List<Card> fullDeck(int decks) {
+
+        List<Card> cards = new ArrayList<>();
+
+        for (int i = 0; i < decks * Card.COUNT; i++) {
+            cards.add(Card.valueOf(i % Card.COUNT));
+        }
+
+        return cards;
+
+    }
+
+}
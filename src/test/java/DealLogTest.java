@@ -0,0 +1,260 @@
+import io.kutilj.cards.Card;
+import io.kutilj.cards.Dealer;
+import io.kutilj.cards.Deck;
+import io.kutilj.cards.Player;
+import io.kutilj.cards.RandomSource;
+import io.kutilj.cards.log.DealLogReader;
+import io.kutilj.cards.log.DealLogWriter;
+import io.kutilj.cards.log.DealRecord;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.testng.Assert.*;
+
+/**
+ * Simple class for testing the binary log of shuffled Decks
+ */
+public class DealLogTest {
+
+    /**
+     * The log file of the test
+     */
+    private Path file;
+
+    /**
+     * Creates a file for the log
+     *
+     * @throws IOException If the file cannot be created
+     */
+    @BeforeMethod
+    public void setup() throws IOException {
+        file = Files.createTempFile("deals", ".log");
+        Files.delete(file);
+    }
+
+    /**
+     * Deletes the log file
+     *
+     * @throws IOException If the file cannot be deleted
+     */
+    @AfterMethod
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    /**
+     * Test that every record takes 40 bytes and holds the Deck it was given
+     *
+     * @throws IOException If the log cannot be written
+     */
+    @Test
+    public void testWrite() throws IOException {
+
+        List<Deck> decks = shuffledDecks(2500, 1);
+
+        try (DealLogWriter writer = new DealLogWriter(file)) {
+            for (int i = 0; i < decks.size(); i++) {
+                writer.append(1_000L * i, decks.get(i), 6, 2);
+            }
+            assertEquals(writer.getRecords(), 2500);
+        }
+
+        assertEquals(Files.size(file), 16 + 2500 * 40);
+
+        try (FileChannel channel = FileChannel.open(file)) {
+
+            ByteBuffer record = ByteBuffer.allocate(40);
+
+            channel.read(record, 16 + 1234 * 40);
+            record.flip();
+
+            assertEquals(record.getLong(), 1_234_000L);
+            assertEquals(record.get(), 6);
+            assertEquals(record.get(), 2);
+            assertEquals(Deck.decode(record).getCards(), decks.get(1234).getCards());
+
+        }
+
+    }
+
+    /**
+     * Test that reopening a log appends to it and drops a partial record left at the end
+     *
+     * @throws IOException If the log cannot be written
+     */
+    @Test
+    public void testAppend() throws IOException {
+
+        try (DealLogWriter writer = new DealLogWriter(file)) {
+            for (Deck deck : shuffledDecks(10, 2)) {
+                writer.append(deck);
+            }
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.wrap(new byte[13]));
+        }
+
+        try (DealLogWriter writer = new DealLogWriter(file)) {
+
+            assertEquals(writer.getRecords(), 10);
+
+            writer.append(shuffledDecks(1, 3).get(0));
+
+        }
+
+        assertEquals(Files.size(file), 16 + 11 * 40);
+
+    }
+
+    /**
+     * Test that a log of full Decks cannot be reopened for partial Decks
+     *
+     * @throws IOException If the log cannot be written
+     */
+    @Test(expectedExceptions = IOException.class)
+    public void testDeckSizeMismatch() throws IOException {
+
+        new DealLogWriter(file).close();
+
+        new DealLogWriter(file, 20, 10).close();
+
+    }
+
+    /**
+     * Test that the reader finds records by index and rebuilds the Deck and the hands that were dealt from it
+     *
+     * @throws IOException If the log cannot be written or read
+     */
+    @Test
+    public void testRead() throws IOException {
+
+        List<Deck> decks = shuffledDecks(3000, 4);
+
+        try (DealLogWriter writer = new DealLogWriter(file)) {
+            for (int i = 0; i < decks.size(); i++) {
+                writer.append(1_000L * i, decks.get(i), 2 + i % 7, 2);
+            }
+        }
+
+        // segments of 1000 bytes hold 25 records each, so records are read from many mappings
+        try (DealLogReader reader = new DealLogReader(file, 1000)) {
+
+            assertEquals(reader.size(), 3000);
+            assertEquals(reader.getDeckSize(), 52);
+
+            for (int i : new int[]{0, 24, 25, 1234, 2999}) {
+
+                DealRecord record = reader.get(i);
+                List<Player> players = new ArrayList<>();
+
+                for (int player = 0; player < 2 + i % 7; player++) {
+                    players.add(new Player());
+                }
+
+                new Dealer(new Deck(decks.get(i).getCards())).deal(players, 2);
+
+                assertEquals(record.getIndex(), i);
+                assertEquals(record.getTimestamp(), 1_000L * i);
+                assertEquals(reader.getTimestamp(i), 1_000L * i);
+                assertEquals(record.getNumPlayers(), 2 + i % 7);
+                assertEquals(record.getNumCards(), 2);
+                assertEquals(record.getDeck().getCards(), decks.get(i).getCards());
+
+                List<Player> read = record.getPlayers();
+
+                for (int player = 0; player < players.size(); player++) {
+                    assertEquals(read.get(player).getHand(), players.get(player).getHand());
+                }
+
+            }
+
+        }
+
+    }
+
+    /**
+     * Test that the reader finds rounds by time and scans them in order
+     *
+     * @throws IOException If the log cannot be written or read
+     */
+    @Test
+    public void testReadTimes() throws IOException {
+
+        List<Deck> decks = shuffledDecks(2500, 5);
+
+        try (DealLogWriter writer = new DealLogWriter(file)) {
+            for (int i = 0; i < decks.size(); i++) {
+                writer.append(10L * (i / 3), decks.get(i), 0, 0);
+            }
+        }
+
+        try (DealLogReader reader = new DealLogReader(file)) {
+
+            assertEquals(reader.indexOf(Long.MIN_VALUE), 0);
+            assertEquals(reader.indexOf(0), 0);
+            assertEquals(reader.indexOf(1), 3);
+            assertEquals(reader.indexOf(3410), 1023);
+            assertEquals(reader.indexOf(3411), 1026);
+            assertEquals(reader.indexOf(8330), 2499);
+            assertEquals(reader.indexOf(8331), 2500);
+
+            AtomicLong next = new AtomicLong(1023);
+            int[] ordinals = new int[Card.COUNT];
+
+            reader.scanTimes(3410, 5000, record -> {
+
+                assertEquals(record.getIndex(), next.getAndIncrement());
+                assertEquals(record.getOrdinals(ordinals), 52);
+                assertEquals(Card.valueOf(ordinals[17]), decks.get((int) record.getIndex()).getCards().get(17));
+
+            });
+
+            assertEquals(next.get(), 1500);
+
+        }
+
+    }
+
+    /**
+     * Shuffles full Decks
+     *
+     * @param count The number of Decks
+     * @param seed  The seed of the shuffles
+     * @return Returns the Decks
+     */
+    static List<Deck> shuffledDecks(int count, long seed) {
+
+        List<Deck> decks = new ArrayList<>();
+        Dealer dealer = new Dealer(null, RandomSource.seeded(seed));
+
+        for (int i = 0; i < count; i++) {
+
+            Deck deck = new Deck();
+
+            for (int ordinal = 0; ordinal < Card.COUNT; ordinal++) {
+                deck.addCard(Card.valueOf(ordinal));
+            }
+
+            dealer.setDeck(deck);
+            dealer.shuffle();
+            decks.add(deck);
+
+        }
+
+        return decks;
+
+    }
+
+}
@@ -0,0 +1,220 @@
+import io.kutilj.cards.Card;
+import io.kutilj.cards.Dealer;
+import io.kutilj.cards.Deck;
+import io.kutilj.cards.Player;
+import io.kutilj.cards.RandomSource;
+import io.kutilj.cards.poker.HandEvaluator;
+import io.kutilj.cards.store.DealStore;
+import io.kutilj.cards.store.HandCursor;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.testng.Assert.*;
+
+/**
+ * Simple class for testing the off-heap store of dealt hands
+ */
+public class DealStoreTest {
+
+    /**
+     * Test that a store dealt to by a Dealer holds the hands the Dealer would have given to Players
+     */
+    @Test
+    public void testAppendFromDealer() {
+
+        DealStore store = new DealStore(6, 2);
+        Dealer dealer = new Dealer(fullDeck(), RandomSource.seeded(7));
+        Dealer expected = new Dealer(fullDeck(), RandomSource.seeded(7));
+        List<Player> players = new ArrayList<>();
+
+        for (int i = 0; i < 6; i++) {
+            players.add(new Player());
+        }
+
+        store.append(dealer, 100_000);
+
+        assertEquals(store.deals(), 100_000);
+        assertEquals(store.hands(), 600_000);
+        assertEquals(dealer.getDeck().getCards().size(), 52);
+
+        // 2 bytes per hand, rounded up to whole chunks
+        assertTrue(store.memoryUsed() < 700_000 * 2);
+
+        HandCursor cursor = store.cursor();
+
+        for (int deal = 0; deal < 100_000; deal++) {
+
+            expected.shuffle();
+            expected.deal(players, 2);
+
+            for (int card = 0; card < 2; card++) {
+                for (Player player : players) {
+                    expected.getDeck().addCard(player.getHand().get(card));
+                }
+            }
+
+            for (Player player : players) {
+                assertTrue(cursor.next());
+                assertEquals(cursor, player.getHand());
+                player.getHand().clear();
+            }
+
+        }
+
+        assertFalse(cursor.next());
+
+    }
+
+    /**
+     * Test that a lazily shuffling Dealer deals the same hands into a store as it does to Players
+     */
+    @Test
+    public void testAppendFromLazyDealer() {
+
+        DealStore store = new DealStore(2, 5);
+        Dealer dealer = new Dealer(fullDeck(), RandomSource.seeded(8)).withLazyShuffle(true);
+        Dealer expected = new Dealer(fullDeck(), RandomSource.seeded(8)).withLazyShuffle(true);
+        List<Player> players = new ArrayList<>();
+
+        players.add(new Player());
+        players.add(new Player());
+
+        store.append(dealer, 1000);
+
+        HandCursor cursor = store.cursor();
+
+        for (int deal = 0; deal < 1000; deal++) {
+
+            expected.shuffle();
+            expected.deal(players, 5);
+            expected.getDeck().undoLazyShuffle();
+
+            for (int player = 0; player < 2; player++) {
+
+                cursor.moveTo(deal, player);
+
+                assertEquals(cursor.getDeal(), deal);
+                assertEquals(cursor.getPlayer(), player);
+                assertEquals(HandEvaluator.evaluate(cursor.getMask()), HandEvaluator.evaluate(players.get(player).getHand()));
+
+                players.get(player).getHand().clear();
+
+            }
+
+        }
+
+    }
+
+    /**
+     * Test that the hands of Players can be stored and read back
+     */
+    @Test
+    public void testAppendPlayers() {
+
+        DealStore store = new DealStore(2, 3);
+        List<Player> players = new ArrayList<>();
+
+        players.add(new Player("Alice", cards(0, 13, 26)));
+        players.add(new Player("Bob", cards(51, 50, 49)));
+
+        store.append(players);
+        store.append(players);
+
+        HandCursor cursor = store.cursor().moveTo(3);
+
+        assertEquals(cursor.getDeal(), 1);
+        assertEquals(cursor.getPlayer(), 1);
+        assertEquals(cursor, cards(51, 50, 49));
+        assertEquals(cursor.getOrdinal(2), 49);
+        assertEquals(cursor.getMask(), 7L << 49);
+
+        store.clear();
+
+        assertEquals(store.hands(), 0);
+        assertFalse(store.cursor().next());
+
+    }
+
+    /**
+     * Test that a cursor that ran out of hands moves to the first hand appended afterwards, whether the store was empty
+     * or not
+     */
+    @Test
+    public void testCursorFollowsAppends() {
+
+        DealStore store = new DealStore(1, 3);
+        List<Player> players = new ArrayList<>();
+        HandCursor cursor = store.cursor();
+
+        players.add(new Player("Alice", cards(0, 13, 26)));
+
+        assertFalse(cursor.next());
+
+        store.append(players);
+
+        assertTrue(cursor.next());
+        assertEquals(cursor.getIndex(), 0);
+        assertFalse(cursor.next());
+        assertEquals(cursor.getIndex(), 0);
+
+        players.get(0).setHand(cards(51, 50, 49));
+        store.append(players);
+
+        assertTrue(cursor.next());
+        assertEquals(cursor.getIndex(), 1);
+        assertEquals(cursor, cards(51, 50, 49));
+
+    }
+
+    /**
+     * Test that a deal with the wrong number of Cards is rejected
+     */
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testAppendWrongHand() {
+
+        List<Player> players = new ArrayList<>();
+
+        players.add(new Player("Alice", cards(0, 1)));
+
+        new DealStore(1, 3).append(players);
+
+    }
+
+    /**
+     * Creates a full ordered Deck
+     *
+     * @return Returns the Deck
+     */
+    private static Deck fullDeck() {
+
+        Deck deck = new Deck();
+
+        for (int ordinal = 0; ordinal < Card.COUNT; ordinal++) {
+            deck.addCard(Card.valueOf(ordinal));
+        }
+
+        return deck;
+
+    }
+
+    /**
+     * Creates a hand of Cards
+     *
+     * @param ordinals The ordinals of the Cards
+     * @return Returns the Cards
+     */
+    private static List<Card> cards(int... ordinals) {
+
+        List<Card> cards = new ArrayList<>();
+
+        for (int ordinal : ordinals) {
+            cards.add(Card.valueOf(ordinal));
+        }
+
+        return cards;
+
+    }
+
+}
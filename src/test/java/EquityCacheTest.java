@@ -0,0 +1,197 @@
+import io.kutilj.cards.poker.EquityCache;
+import io.kutilj.cards.poker.EquityResult;
+import io.kutilj.cards.poker.EquitySimulator;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.testng.Assert.*;
+
+/**
+ * Simple class for testing the cache of matchup equities
+ */
+public class EquityCacheTest {
+
+    /**
+     * Test that a repeated matchup and its suit permutations are answered from the cache
+     */
+    @Test
+    public void testSuitPermutationsHit() {
+
+        EquityCache cache = new EquityCache(new EquitySimulator(), 20_000, 100);
+
+        // ace and king of clubs against the queens of hearts and spades, then the same with clubs and hearts swapped
+        EquityResult first = cache.get(new long[]{mask(0, 12), mask(24, 37)}, 0L, 0L);
+        EquityResult second = cache.get(new long[]{mask(13, 25), mask(11, 37)}, 0L, 0L);
+
+        assertSame(second, first);
+        assertEquals(cache.getMisses(), 1);
+        assertEquals(cache.getHits(), 1);
+        assertEquals(cache.size(), 1);
+
+        // swapping the hands is a different matchup, as the result lists the hands in order
+        EquityResult swapped = cache.get(new long[]{mask(24, 37), mask(0, 12)}, 0L, 0L);
+
+        assertEquals(cache.getMisses(), 2);
+        assertEquals(swapped.getEquity(0), first.getEquity(1), 0.02);
+
+    }
+
+    /**
+     * Test that a matchup with few enough completions is enumerated exactly and stays exact through a file
+     *
+     * @throws Exception If the file cannot be written or read
+     */
+    @Test
+    public void testExactOnTheTurn() throws Exception {
+
+        EquitySimulator simulator = new EquitySimulator();
+        EquityCache cache = new EquityCache(simulator, 1_000, 10);
+        long[] hands = {mask(0, 13), mask(27, 28)};
+        long turn = mask(2, 30, 44, 50);
+        EquityResult result = cache.get(hands, turn, 0L);
+
+        assertEquals(result, simulator.enumerate(hands, turn, 0L));
+        assertTrue(result.isExact());
+
+        Path file = Files.createTempFile("equity", ".cache");
+
+        try {
+
+            cache.save(file);
+
+            EquityCache restarted = new EquityCache(simulator, 1_000, 10);
+
+            restarted.load(file);
+
+            assertEquals(restarted.get(hands, turn, 0L), result);
+            assertEquals(restarted.get(hands, turn, 0L).getStandardError(0), 0.0);
+
+        } finally {
+            Files.deleteIfExists(file);
+        }
+
+    }
+
+    /**
+     * Test that the cache stays within its capacity and keeps entries that are hit again over one-off entries
+     */
+    @Test
+    public void testSegmentedEviction() {
+
+        EquityCache cache = new EquityCache(new EquitySimulator(), 1, 5);
+        long[] popular = {mask(0, 1), mask(2, 3)};
+        long board = mask(45, 46, 47, 48, 49);
+
+        cache.get(popular, board, 0L);
+        cache.get(popular, board, 0L);
+
+        for (int i = 4; i < 30; i += 2) {
+            cache.get(new long[]{mask(i, i + 1), mask(i + 13, i + 14)}, board, 0L);
+        }
+
+        assertEquals(cache.size(), 5);
+        assertTrue(cache.getEvictions() > 0);
+
+        long misses = cache.getMisses();
+
+        cache.get(popular, board, 0L);
+
+        assertEquals(cache.getMisses(), misses, "The entry hit twice should have been protected");
+
+    }
+
+    /**
+     * Test that entries written to a file are answered from the file after a restart
+     *
+     * @throws Exception If the file cannot be written or read
+     */
+    @Test
+    public void testPersistence() throws Exception {
+
+        Path file = Files.createTempFile("equity", ".cache");
+
+        try {
+
+            EquityCache cache = new EquityCache(new EquitySimulator(), 10_000, 100);
+            long[] hands = {mask(0, 13), mask(27, 28), mask(45, 50)};
+            EquityResult result = cache.get(hands, 0L, mask(5));
+
+            cache.save(file);
+
+            EquityCache restarted = new EquityCache(new EquitySimulator(), 10_000, 100);
+
+            assertEquals(restarted.load(file), 1);
+            assertEquals(restarted.get(hands, 0L, mask(5)), result);
+            assertEquals(restarted.getMisses(), 0);
+            assertEquals(restarted.getHits(), 1);
+
+        } finally {
+            Files.deleteIfExists(file);
+        }
+
+    }
+
+    /**
+     * Test that loading a corrupt file throws an IOException rather than building a broken entry
+     *
+     * @throws Exception If the file cannot be written
+     */
+    @Test
+    public void testLoadCorrupt() throws Exception {
+
+        Path file = Files.createTempFile("equity", ".cache");
+
+        try {
+
+            EquityCache cache = new EquityCache(new EquitySimulator(), 10_000, 100);
+
+            cache.get(new long[]{mask(0, 13), mask(27, 28)}, 0L, 0L);
+            cache.save(file);
+
+            byte[] saved = Files.readAllBytes(file);
+
+            // the board size and the number of masks of the first entry follow the magic number and the entry count
+            for (int[] corruption : new int[][]{{9, 1}, {9, 0}, {8, 6}}) {
+
+                byte[] corrupt = saved.clone();
+
+                corrupt[corruption[0]] = (byte) corruption[1];
+                Files.write(file, corrupt);
+
+                try {
+                    new EquityCache(new EquitySimulator(), 10_000, 100).load(file);
+                    fail("A corrupt file was loaded");
+                } catch (IOException e) {
+                    assertTrue(e.getMessage().contains("corrupt"), e.getMessage());
+                }
+
+            }
+
+        } finally {
+            Files.deleteIfExists(file);
+        }
+
+    }
+
+    /**
+     * Combines ordinals into a Card mask
+     *
+     * @param ordinals The ordinals of the Cards
+     * @return Returns the mask
+     */
+    private static long mask(int... ordinals) {
+
+        long mask = 0;
+
+        for (int ordinal : ordinals) {
+            mask |= 1L << ordinal;
+        }
+
+        return mask;
+
+    }
+
+}
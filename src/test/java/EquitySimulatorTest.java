@@ -0,0 +1,139 @@
+import io.kutilj.cards.Card;
+import io.kutilj.cards.Player;
+import io.kutilj.cards.poker.EquityResult;
+import io.kutilj.cards.poker.EquitySimulator;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.testng.Assert.*;
+
+/**
+ * Simple class for testing the Monte Carlo equity simulator
+ */
+public class EquitySimulatorTest {
+
+    /**
+     * Test that aces against kings preflop come out close to their known equity of about 82%
+     */
+    @Test
+    public void testAcesAgainstKings() {
+
+        List<Player> players = Arrays.asList(
+                new Player("Alice", new ArrayList<>(Arrays.asList(Card.valueOf("Ace", "Hearts"), Card.valueOf("Ace", "Spades")))),
+                new Player("Bob", new ArrayList<>(Arrays.asList(Card.valueOf("King", "Clubs"), Card.valueOf("King", "Diamonds")))));
+
+        EquityResult result = new EquitySimulator().simulate(players, Collections.emptyList(), Collections.emptyList(), 200_000, 1);
+
+        assertEquals(result.getTrials(), 200_000);
+        assertEquals(result.getEquity(0), 0.8195, 0.01, result.toString());
+        assertEquals(result.getEquity(0) + result.getEquity(1), 1.0, 1e-9, "The equities must add up to the whole pot");
+        assertTrue(result.getLowerBound(0) < result.getEquity(0) && result.getEquity(0) < result.getUpperBound(0), result.toString());
+        assertTrue(result.getUpperBound(0) - result.getLowerBound(0) < 0.01, "The confidence interval is too wide: " + result);
+
+    }
+
+    /**
+     * Test that a seed gives the same result whatever number of threads runs the simulation
+     */
+    @Test
+    public void testSameResultForAnyThreadCount() {
+
+        long[] hands = {mask(0, 13), mask(27, 28), mask(45, 50)};
+        long dead = mask(5);
+        EquityResult expected = null;
+
+        for (int threads : new int[]{1, 2, 7}) {
+
+            ForkJoinPool pool = new ForkJoinPool(threads);
+
+            try {
+
+                EquityResult result = new EquitySimulator(pool).simulate(hands, 0L, dead, 50_000, 42);
+
+                if (expected == null) expected = result;
+
+                assertEquals(result, expected, "Different result with " + threads + " threads");
+
+            } finally {
+                pool.shutdown();
+            }
+
+        }
+
+        assertNotEquals(new EquitySimulator().simulate(hands, 0L, dead, 50_000, 43), expected, "A different seed should deal different boards");
+
+    }
+
+    /**
+     * Test that a complete board decides the hands every time and ties split the pot
+     */
+    @Test
+    public void testCompleteBoard() {
+
+        // the board is a royal flush in clubs, which every hand plays
+        long board = mask(0, 9, 10, 11, 12);
+        EquityResult result = new EquitySimulator().simulate(new long[]{mask(13, 14), mask(26, 27)}, board, 0L, 10, 1);
+
+        assertEquals(result.getShares(0, 2), 10);
+        assertEquals(result.getEquity(0), 0.5, 1e-9);
+        assertEquals(result.getTieProbability(1), 1.0, 1e-9);
+        assertEquals(result.getWinProbability(1), 0.0, 1e-9);
+
+    }
+
+    /**
+     * Test that enumerating every board gives the exact equity, which the simulation agrees with
+     */
+    @Test
+    public void testEnumerate() {
+
+        long[] hands = {mask(0, 13), mask(27, 28)};
+        long flop = mask(2, 30, 44);
+        EquitySimulator simulator = new EquitySimulator();
+        EquityResult exact = simulator.enumerate(hands, flop, 0L);
+        EquityResult estimate = simulator.simulate(hands, flop, 0L, 100_000, 5);
+
+        assertEquals(exact.getTrials(), 990, "There are 45 choose 2 turns and rivers");
+        assertEquals(exact, simulator.enumerate(hands, flop, 0L));
+        assertTrue(exact.isExact());
+        assertFalse(estimate.isExact());
+        assertEquals(exact.getStandardError(0), 0.0, "An exact equity has no error");
+        assertEquals(exact.getLowerBound(0), exact.getEquity(0));
+        assertEquals(exact.getUpperBound(1), exact.getEquity(1));
+        assertTrue(estimate.getLowerBound(0) - 0.005 < exact.getEquity(0) && exact.getEquity(0) < estimate.getUpperBound(0) + 0.005,
+                "The exact equity " + exact + " is far from the estimate " + estimate);
+
+    }
+
+    /**
+     * Test that a Card can only be in one place
+     */
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testOverlappingHands() {
+        new EquitySimulator().simulate(new long[]{mask(0, 1), mask(1, 2)}, 0L, 0L, 10, 1);
+    }
+
+    /**
+     * Combines ordinals into a Card mask
+     *
+     * @param ordinals The ordinals of the Cards
+     * @return Returns the mask
+     */
+    private static long mask(int... ordinals) {
+
+        long mask = 0;
+
+        for (int ordinal : ordinals) {
+            mask |= 1L << ordinal;
+        }
+
+        return mask;
+
+    }
+
+}
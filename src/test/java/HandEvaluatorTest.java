@@ -0,0 +1,155 @@
+import io.kutilj.cards.Card;
+import io.kutilj.cards.poker.HandCategory;
+import io.kutilj.cards.poker.HandEvaluator;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.testng.Assert.*;
+
+/**
+ * Simple class for testing the ranking of poker hands
+ */
+public class HandEvaluatorTest {
+
+    /**
+     * Test that enumerating every 5 Card hand yields the known number of hands per category and 7462 distinct strengths
+     */
+    @Test
+    public void testAllFiveCardHands() {
+
+        long[] counts = new long[HandCategory.values().length];
+        Set<Integer> strengths = new HashSet<>();
+        long hands = 0;
+
+        for (int a = 0; a < Card.COUNT; a++) {
+            for (int b = a + 1; b < Card.COUNT; b++) {
+                for (int c = b + 1; c < Card.COUNT; c++) {
+                    for (int d = c + 1; d < Card.COUNT; d++) {
+                        for (int e = d + 1; e < Card.COUNT; e++) {
+
+                            int strength = HandEvaluator.evaluate(1L << a | 1L << b | 1L << c | 1L << d | 1L << e);
+
+                            counts[HandEvaluator.categoryOf(strength).ordinal()]++;
+                            strengths.add(strength);
+                            hands++;
+
+                        }
+                    }
+                }
+            }
+        }
+
+        assertEquals(hands, 2_598_960);
+        assertEquals(counts, new long[]{1_302_540, 1_098_240, 123_552, 54_912, 10_200, 5_108, 3_744, 624, 40},
+                "Wrong number of hands per category: " + Arrays.toString(counts));
+        assertEquals(strengths.size(), 7462, "Wrong number of distinct hand strengths");
+
+    }
+
+    /**
+     * Test that 6 and 7 Card hands are ranked by their best 5 Cards
+     */
+    @Test
+    public void testBestFiveOfSeven() {
+
+        SplittableRandom random = new SplittableRandom(11);
+
+        for (int i = 0; i < 100_000; i++) {
+
+            int size = 6 + i % 2;
+            int[] ordinals = random.ints(0, Card.COUNT).distinct().limit(size).toArray();
+            long mask = 0L;
+
+            for (int ordinal : ordinals) {
+                mask |= 1L << ordinal;
+            }
+
+            int best = 0;
+
+            // try every way of leaving out the Cards beyond the best 5
+            for (int a = 0; a < size; a++) {
+
+                long withoutA = mask & ~(1L << ordinals[a]);
+
+                if (size == 6) {
+                    best = Math.max(best, HandEvaluator.evaluate(withoutA));
+                    continue;
+                }
+
+                for (int b = a + 1; b < size; b++) {
+                    best = Math.max(best, HandEvaluator.evaluate(withoutA & ~(1L << ordinals[b])));
+                }
+
+            }
+
+            assertEquals(HandEvaluator.evaluate(mask), best, "Hand isn't ranked by its best 5 Cards");
+
+        }
+
+    }
+
+    /**
+     * Test the ordering of some well known hands
+     */
+    @Test
+    public void testHandOrdering() {
+
+        int royalFlush = evaluate("As Ks Qs Js Ts");
+        int steelWheel = evaluate("5h 4h 3h 2h Ah");
+        int wheel = evaluate("5h 4d 3h 2h Ah");
+        int sixHigh = evaluate("6c 5h 4d 3h 2h");
+        int acesUp = evaluate("Ac Ad 2c 2d 3h");
+        int kingsUp = evaluate("Kc Kd Qc Qd Jh");
+
+        assertEquals(HandEvaluator.categoryOf(royalFlush), HandCategory.STRAIGHT_FLUSH);
+        assertEquals(HandEvaluator.categoryOf(wheel), HandCategory.STRAIGHT);
+        assertTrue(royalFlush > steelWheel);
+        assertTrue(sixHigh > wheel, "A wheel is the lowest straight");
+        assertTrue(acesUp > kingsUp);
+        assertEquals(evaluate("Ac Ad 2c 2d 3h 3s 4c"), evaluate("Ah As 3c 3d 4d"), "Only the two best pairs should count");
+        assertEquals(evaluate("Ac Ad 3c 3d 4h 4s 2c"), evaluate("Ah As 4c 4d 3s"), "The third pair should count as a kicker");
+        assertEquals(HandEvaluator.categoryOf(evaluate("Ac Ad Ah 2c 2d 2h 3s")), HandCategory.FULL_HOUSE);
+        assertEquals(HandEvaluator.categoryOf(evaluate("9c 8c 7c 6c 5c 9d 9h")), HandCategory.STRAIGHT_FLUSH);
+
+    }
+
+    /**
+     * Test that a hand holding the same Card twice is rejected
+     */
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testDuplicateCard() {
+
+        Card ace = Card.valueOf("Ace", "Spades");
+
+        HandEvaluator.evaluate(Arrays.asList(ace, ace, Card.valueOf("2", "Spades"), Card.valueOf("3", "Spades"), Card.valueOf("4", "Spades")));
+
+    }
+
+    /**
+     * Test helper method that ranks a hand written as short codes such as "As Td"
+     *
+     * @param hand The Cards of the hand
+     * @return Returns the strength of the hand
+     */
+    private int evaluate(String hand) {
+
+        long mask = 0L;
+
+        for (String code : hand.split(" ")) {
+
+            int rank = "A23456789TJQK".indexOf(code.charAt(0));
+            int suit = "chsd".indexOf(code.charAt(1));
+
+            mask |= 1L << (suit * Card.RANKS + rank);
+
+        }
+
+        return HandEvaluator.evaluate(mask);
+
+    }
+
+}
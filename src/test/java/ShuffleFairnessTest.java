@@ -0,0 +1,176 @@
+import io.kutilj.cards.Card;
+import io.kutilj.cards.Dealer;
+import io.kutilj.cards.Deck;
+import io.kutilj.cards.RandomSource;
+import io.kutilj.cards.ShuffleModel;
+import io.kutilj.cards.fairness.FairnessReport;
+import io.kutilj.cards.fairness.FairnessReport.Check;
+import io.kutilj.cards.fairness.ShuffleFairness;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.LongFunction;
+
+import static org.testng.Assert.*;
+
+/**
+ * Simple class for testing that the shuffles are statistically fair, and that the harness catches unfair ones
+ */
+public class ShuffleFairnessTest {
+
+    /**
+     * The number of shuffles of each run, enough to catch the biased shuffles below in well under a second
+     */
+    private static final long SHUFFLES = 200_000;
+
+    /**
+     * Test that the uniform shuffles pass every check, with either seeded RandomSource, lazily and with a random cut
+     */
+    @Test
+    public void testFairShufflesPass() {
+
+        LongFunction<Dealer> seeded = seed -> new Dealer(new Deck(), RandomSource.seeded(seed));
+        LongFunction<Dealer> xoshiro = seed -> new Dealer(new Deck(), RandomSource.xoshiro(seed));
+        LongFunction<Dealer> lazy = seed -> new Dealer(new Deck(), RandomSource.seeded(seed)).withLazyShuffle(true);
+        LongFunction<Dealer> cutRandom = seed -> new Dealer(new Deck(), RandomSource.xoshiro(seed)).withCutPoint(Dealer.CUT_RANDOM);
+
+        for (LongFunction<Dealer> dealers : Arrays.asList(seeded, xoshiro, lazy, cutRandom)) {
+
+            FairnessReport report = new ShuffleFairness().withDealers(dealers).run(SHUFFLES, 7);
+
+            assertTrue(report.isPassed(), report.toString());
+            assertEquals(report.getShuffles(), SHUFFLES);
+
+        }
+
+    }
+
+    /**
+     * Test that the counts add up: every position holds one Card and every Card is somewhere in each shuffle
+     */
+    @Test
+    public void testCounts() {
+
+        FairnessReport report = new ShuffleFairness().run(10_000, 3);
+        long rising = 0;
+
+        for (int i = 0; i < Card.COUNT; i++) {
+
+            long inPosition = 0;
+            long ofCard = 0;
+
+            for (int j = 0; j < Card.COUNT; j++) {
+                inPosition += report.getCount(i, Card.valueOf(j));
+                ofCard += report.getCount(j, Card.valueOf(i));
+            }
+
+            assertEquals(inPosition, 10_000);
+            assertEquals(ofCard, 10_000);
+            rising += report.getRisingSequenceCount(i + 1);
+
+        }
+
+        assertEquals(rising, 10_000);
+        assertEquals(report.getMeanAdjacentPairs(), 51.0 / 52, 0.05);
+        assertEquals(report.getDegreesOfFreedom(Check.POSITIONS), 51 * 51);
+        assertEquals(report.getDegreesOfFreedom(Check.PERMUTATIONS), 119);
+        assertEquals(report.getDegreesOfFreedom(Check.ADJACENT_PAIRS), 0);
+
+    }
+
+    /**
+     * Test that riffle shuffles, which keep rising sequences together, and the naive shuffle that swaps every Card with
+     * any Card, fail
+     */
+    @Test
+    public void testBiasedShufflesFail() {
+
+        FairnessReport once = new ShuffleFairness()
+                .withDealers(seed -> new Dealer(new Deck(), RandomSource.seeded(seed)).withShuffleModel(ShuffleModel.riffle(1)))
+                .run(SHUFFLES, 7);
+
+        assertFalse(once.isPassed(), once.toString());
+
+        for (Check check : Check.values()) {
+            assertFalse(once.isPassed(check), once.toString());
+        }
+
+        // seven riffles are close to random by most measures but still leave too few rising sequences
+        FairnessReport seven = new ShuffleFairness()
+                .withDealers(seed -> new Dealer(new Deck(), RandomSource.seeded(seed)).withShuffleModel(ShuffleModel.riffle()))
+                .run(SHUFFLES, 7);
+
+        assertFalse(seven.isPassed(Check.RISING_SEQUENCES), seven.toString());
+
+        ShuffleModel naive = (cards, from, to, random) -> {
+
+            for (int i = from; i < to; i++) {
+
+                int j = from + random.nextInt(to - from);
+                Card card = cards[i];
+
+                cards[i] = cards[j];
+                cards[j] = card;
+
+            }
+
+        };
+
+        FairnessReport biased = new ShuffleFairness()
+                .withDealers(seed -> new Dealer(new Deck(), RandomSource.seeded(seed)).withShuffleModel(naive))
+                .run(SHUFFLES, 7);
+
+        assertFalse(biased.isPassed(Check.POSITIONS), biased.toString());
+        assertFalse(biased.isPassed(), biased.toString());
+
+    }
+
+    /**
+     * Test that a seed gives the same report whatever number of threads runs the shuffles
+     */
+    @Test
+    public void testSameReportForAnyThreadCount() {
+
+        FairnessReport expected = null;
+
+        for (int threads : new int[]{1, 2, 5}) {
+
+            ForkJoinPool pool = new ForkJoinPool(threads);
+
+            try {
+
+                FairnessReport report = new ShuffleFairness(pool).run(50_000, 11);
+
+                if (expected == null) expected = report;
+
+                assertEquals(report, expected);
+                assertEquals(report.getStatistic(Check.POSITIONS), expected.getStatistic(Check.POSITIONS));
+
+            } finally {
+                pool.shutdown();
+            }
+
+        }
+
+    }
+
+    /**
+     * Test that a shuffle that duplicates a Card is caught rather than counted
+     */
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void testBrokenShuffle() {
+        new ShuffleFairness()
+                .withDealers(seed -> new Dealer(new Deck(), RandomSource.seeded(seed)).withShuffleModel((cards, from, to, random) -> cards[from] = cards[to - 1]))
+                .run(1000, 1);
+    }
+
+    /**
+     * Test that the significance must be a probability
+     */
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testBadSignificance() {
+        new ShuffleFairness().withSignificance(1.5);
+    }
+
+}
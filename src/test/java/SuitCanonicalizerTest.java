@@ -0,0 +1,171 @@
+import io.kutilj.cards.Card;
+import io.kutilj.cards.poker.HandCategory;
+import io.kutilj.cards.poker.HandEvaluator;
+import io.kutilj.cards.poker.SuitCanonicalizer;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.testng.Assert.*;
+
+/**
+ * Simple class for testing the canonicalization of states up to suit permutation
+ */
+public class SuitCanonicalizerTest {
+
+    /**
+     * Test the known numbers of distinct hold'em states from preflop to the river
+     */
+    @Test
+    public void testHoldemSizes() {
+        assertEquals(new SuitCanonicalizer(2).size(), 169);
+        assertEquals(new SuitCanonicalizer(2, 3).size(), 1_286_792);
+        assertEquals(new SuitCanonicalizer(2, 4).size(), 13_960_050);
+        assertEquals(new SuitCanonicalizer(2, 5).size(), 123_156_254);
+        assertEquals(new SuitCanonicalizer(2, 3, 1).size(), 55_190_538);
+        assertEquals(new SuitCanonicalizer(2, 3, 1, 1).size(), 2_428_287_420L);
+    }
+
+    /**
+     * Test that every pair of hole Cards maps to an index whose state is a suit permutation of it, and that the weights
+     * add up to every pair
+     */
+    @Test
+    public void testHoleCards() {
+
+        SuitCanonicalizer canonicalizer = new SuitCanonicalizer(2);
+        long[] state = new long[1];
+        long[] raw = new long[(int) canonicalizer.size()];
+        long weights = 0;
+
+        for (int a = 0; a < Card.COUNT; a++) {
+            for (int b = a + 1; b < Card.COUNT; b++) {
+
+                long index = canonicalizer.indexOf(1L << a | 1L << b);
+
+                canonicalizer.stateOf(index, state);
+
+                assertEquals(canonicalizer.indexOf(state), index);
+                assertEquals(Long.bitCount(state[0]), 2);
+                raw[(int) index]++;
+
+            }
+        }
+
+        for (int index = 0; index < raw.length; index++) {
+            assertEquals(raw[index], canonicalizer.weightOf(index), "Wrong weight for index " + index);
+            weights += canonicalizer.weightOf(index);
+        }
+
+        assertEquals(weights, 1326);
+
+    }
+
+    /**
+     * Test that a suit permutation of a state keeps its index, while the round of each Card still matters
+     */
+    @Test
+    public void testSuitPermutations() {
+
+        SuitCanonicalizer canonicalizer = new SuitCanonicalizer(2, 5);
+        SplittableRandom random = new SplittableRandom(3);
+        long[] state = new long[2];
+
+        for (int trial = 0; trial < 10_000; trial++) {
+
+            long hand = randomCards(random, 2, 0L);
+            long board = randomCards(random, 5, hand);
+            int[] suits = {0, 1, 2, 3};
+
+            for (int i = 3; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                int suit = suits[i];
+                suits[i] = suits[j];
+                suits[j] = suit;
+            }
+
+            long index = canonicalizer.indexOf(hand, board);
+
+            assertEquals(canonicalizer.indexOf(permute(hand, suits), permute(board, suits)), index);
+
+            canonicalizer.stateOf(index, state);
+
+            assertEquals(canonicalizer.indexOf(state), index);
+            assertEquals(HandEvaluator.evaluate(state[0] | state[1]), HandEvaluator.evaluate(hand | board));
+
+        }
+
+        // the ace and king of spades in the hand are not the same state as in the board
+        long aceKing = 1L << 26 | 1L << 38;
+        long other = 1L << 1 | 1L << 2 | 1L << 3 | 1L << 17 | 1L << 50;
+
+        assertNotEquals(canonicalizer.indexOf(aceKing, other), canonicalizer.indexOf(1L << 1 | 1L << 2, other & ~(1L << 1 | 1L << 2) | aceKing));
+
+    }
+
+    /**
+     * Test that counting hand categories over the distinct 5 Card hands, weighted, gives the count over every hand
+     */
+    @Test
+    public void testWeightedCategories() {
+
+        SuitCanonicalizer canonicalizer = new SuitCanonicalizer(5);
+        long[] counts = new long[HandCategory.values().length];
+        long[] state = new long[1];
+
+        for (long index = 0; index < canonicalizer.size(); index++) {
+            canonicalizer.stateOf(index, state);
+            counts[HandEvaluator.categoryOf(HandEvaluator.evaluate(state[0])).ordinal()] += canonicalizer.weightOf(index);
+        }
+
+        assertEquals(canonicalizer.size(), 134_459);
+        assertEquals(counts, new long[]{1_302_540, 1_098_240, 123_552, 54_912, 10_200, 5_108, 3_744, 624, 40},
+                "Wrong number of hands per category: " + Arrays.toString(counts));
+
+    }
+
+    /**
+     * Deals random Cards
+     *
+     * @param random The source of randomness
+     * @param count  The number of Cards
+     * @param used   The mask of Cards that cannot be dealt
+     * @return Returns the mask of the Cards
+     */
+    private static long randomCards(SplittableRandom random, int count, long used) {
+
+        long cards = 0;
+
+        while (Long.bitCount(cards) < count) {
+
+            long card = 1L << random.nextInt(Card.COUNT);
+
+            if ((used & card) == 0) cards |= card;
+
+        }
+
+        return cards;
+
+    }
+
+    /**
+     * Renames the suits of Cards
+     *
+     * @param cards The mask of the Cards
+     * @param suits The new suit of each suit
+     * @return Returns the mask of the renamed Cards
+     */
+    private static long permute(long cards, int[] suits) {
+
+        long permuted = 0;
+
+        for (int suit = 0; suit < Card.SUITS; suit++) {
+            permuted |= (cards >>> suit * Card.RANKS & (1L << Card.RANKS) - 1) << suits[suit] * Card.RANKS;
+        }
+
+        return permuted;
+
+    }
+
+}
@@ -0,0 +1,141 @@
+import io.kutilj.cards.Card;
+import io.kutilj.cards.DealPlan;
+import io.kutilj.cards.Deck;
+import io.kutilj.cards.Player;
+import io.kutilj.cards.TablePool;
+import org.testng.SkipException;
+import org.testng.annotations.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.testng.Assert.*;
+
+/**
+ * Simple class for testing that tables are reset and reused across rounds
+ */
+public class TablePoolTest {
+
+    /**
+     * Test that a returned table comes back reset, with the same objects
+     */
+    @Test
+    public void testLeaseIsReset() {
+
+        TablePool pool = new TablePool(3);
+        TablePool.Lease lease = pool.lease();
+        Deck deck = lease.getDeck();
+        List<Player> players = lease.getPlayers();
+
+        assertEquals(deck.getMask(), (1L << Card.COUNT) - 1);
+
+        lease.getDealer().shuffle();
+        lease.getDealer().deal(DealPlan.holdem(3), players, lease.getBoard());
+        lease.close();
+
+        TablePool.Lease again = pool.lease();
+
+        assertSame(again, lease);
+        assertSame(again.getDeck(), deck);
+        assertEquals(deck.getCards().size(), Card.COUNT);
+        assertEquals(deck.getCards().get(0), Card.valueOf(0));
+        assertTrue(players.get(0).getHand().isEmpty());
+        assertTrue(again.getBoard().isEmpty());
+
+        again.close();
+
+    }
+
+    /**
+     * Test that a table cannot be returned twice
+     */
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void testReturnTwice() {
+
+        TablePool.Lease lease = new TablePool(2).lease();
+
+        lease.close();
+        lease.close();
+
+    }
+
+    /**
+     * Test that a Player copies the hand it is given instead of sharing it, that setting its own hand keeps it, and that
+     * reset keeps the List
+     */
+    @Test
+    public void testPlayerOwnsHand() {
+
+        List<Card> cards = new ArrayList<>(Arrays.asList(Card.valueOf(0), Card.valueOf(1)));
+        Player player = new Player("Alice", cards);
+
+        cards.clear();
+
+        assertEquals(player.getHand().size(), 2);
+
+        List<Card> hand = player.getHand();
+
+        player.setHand(hand);
+
+        assertEquals(player.withHand(player.getHand()).getHand(), Arrays.asList(Card.valueOf(0), Card.valueOf(1)));
+        assertSame(player.getHand(), hand);
+
+        player.reset();
+
+        assertSame(player.getHand(), hand);
+        assertTrue(hand.isEmpty());
+
+    }
+
+    /**
+     * Test that playing rounds on leased tables creates next to no garbage once warmed up
+     */
+    @Test
+    public void testSteadyStateAllocation() {
+
+        if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean)) {
+            throw new SkipException("The JVM cannot measure the bytes allocated by a thread");
+        }
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+        if (!threads.isThreadAllocatedMemorySupported() || !threads.isThreadAllocatedMemoryEnabled()) {
+            throw new SkipException("The JVM does not measure the bytes allocated by a thread");
+        }
+
+        TablePool pool = new TablePool(6);
+        DealPlan plan = DealPlan.holdem(6);
+        long thread = Thread.currentThread().getId();
+        int rounds = 200_000;
+
+        playRounds(pool, plan, rounds);
+
+        long before = threads.getThreadAllocatedBytes(thread);
+
+        playRounds(pool, plan, rounds);
+
+        long allocated = threads.getThreadAllocatedBytes(thread) - before;
+
+        assertTrue(allocated < rounds, "Allocated " + allocated + " bytes over " + rounds + " rounds");
+
+    }
+
+    /**
+     * Leases a table, shuffles, deals and returns the table, many times
+     *
+     * @param pool   The pool of tables
+     * @param plan   The plan of every round
+     * @param rounds The number of rounds
+     */
+    private static void playRounds(TablePool pool, DealPlan plan, int rounds) {
+        for (int round = 0; round < rounds; round++) {
+            try (TablePool.Lease table = pool.lease()) {
+                table.getDealer().shuffle();
+                table.getDealer().deal(plan, table.getPlayers(), table.getBoard());
+            }
+        }
+    }
+
+}
@@ -0,0 +1,209 @@
+import io.kutilj.cards.Card;
+import io.kutilj.cards.RandomSource;
+import io.kutilj.cards.table.LatencyHistogram;
+import io.kutilj.cards.table.LoadGenerator;
+import io.kutilj.cards.table.LoadReport;
+import io.kutilj.cards.table.PlayerAction;
+import io.kutilj.cards.table.Table;
+import io.kutilj.cards.table.TableRuntime;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+
+import static org.testng.Assert.*;
+
+/**
+ * Simple class for testing that many Tables can be played at once
+ */
+public class TableRuntimeTest {
+
+    /**
+     * Test that every Table plays exactly the requested number of rounds and keeps a full set of Cards
+     */
+    @Test
+    public void testTablesPlayRounds() {
+
+        List<Table> tables = new ArrayList<>();
+        List<CompletableFuture<Table>> done = new ArrayList<>();
+
+        PlayerAction hit = (player, deck) -> player.addCard(deck.draw());
+
+        try (TableRuntime runtime = new TableRuntime()) {
+
+            for (int i = 0; i < 500; i++) {
+                Table table = new Table("Table " + i, 4, 2, RandomSource.seeded(i)).withAction(hit);
+                tables.add(table);
+                done.add(runtime.start(table, 20));
+            }
+
+            done.forEach(CompletableFuture::join);
+
+        }
+
+        for (Table table : tables) {
+
+            assertEquals(table.getRounds(), 20, "Table played the wrong number of rounds");
+            assertEquals(table.getLatencies().getCount(), 20, "Table didn't record every round");
+
+            long mask = table.getDealer().getDeck().getMask();
+
+            for (int i = 0; i < table.getPlayers().size(); i++) {
+
+                List<Card> hand = table.getPlayers().get(i).getHand();
+
+                assertEquals(hand.size(), 3, "Player should hold the dealt Cards and the Card they drew");
+
+                for (Card card : hand) {
+                    assertEquals(mask & (1L << card.getOrdinal()), 0, "Card is both in a hand and in the Deck");
+                    mask |= 1L << card.getOrdinal();
+                }
+
+            }
+
+            assertEquals(mask, (1L << Card.COUNT) - 1, "Cards went missing from the Table");
+
+        }
+
+    }
+
+    /**
+     * Test that a Table that already played keeps playing until stopped when started for {@link Long#MAX_VALUE} rounds
+     */
+    @Test(timeOut = 10_000)
+    public void testPlayUntilStopped() {
+
+        Table table = new Table("Table", 4, 2, RandomSource.seeded(1));
+
+        try (TableRuntime runtime = new TableRuntime()) {
+
+            runtime.start(table, 5).join();
+
+            CompletableFuture<Table> done = runtime.start(table, Long.MAX_VALUE);
+
+            assertFalse(done.isDone(), "The Table stopped without being asked to");
+
+            while (table.getRounds() < 100) {
+                Thread.yield();
+            }
+
+            table.stop();
+            done.join();
+
+        }
+
+        assertTrue(table.getRounds() >= 100);
+
+    }
+
+    /**
+     * Test that a round that throws an Error still completes the future of its Table
+     */
+    @Test(timeOut = 10_000)
+    public void testRoundThrowsError() {
+
+        PlayerAction broken = (player, deck) -> {
+            throw new AssertionError("broken action");
+        };
+
+        try (TableRuntime runtime = new TableRuntime()) {
+
+            CompletableFuture<Table> done = runtime.start(new Table("Table", 4, 2, RandomSource.seeded(1)).withAction(broken), 5);
+
+            try {
+                done.join();
+                fail("The Table finished despite the Error");
+            } catch (CompletionException e) {
+                assertTrue(e.getCause() instanceof AssertionError, "The future should fail with the Error");
+            }
+
+        }
+
+    }
+
+    /**
+     * Test that closing the runtime completes the future of a Table whose round is still queued
+     */
+    @Test(timeOut = 10_000)
+    public void testCloseWithQueuedRounds() throws InterruptedException {
+
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        PlayerAction block = (player, deck) -> {
+
+            started.countDown();
+
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+        };
+
+        TableRuntime runtime = new TableRuntime(Executors.newSingleThreadExecutor());
+
+        CompletableFuture<Table> running = runtime.start(new Table("Running", 1, 2, RandomSource.seeded(1)).withAction(block), 5);
+
+        started.await();
+
+        CompletableFuture<Table> queued = runtime.start(new Table("Queued", 4, 2, RandomSource.seeded(2)), 5);
+
+        runtime.close();
+        release.countDown();
+
+        assertTrue(queued.isCompletedExceptionally(), "The queued Table should fail once the runtime is closed");
+        assertTrue(running.isCompletedExceptionally(), "The running Table should fail once the runtime is closed");
+
+    }
+
+    /**
+     * Test that the load generator reports the rounds it played
+     */
+    @Test
+    public void testLoadGenerator() {
+
+        try (TableRuntime runtime = new TableRuntime()) {
+
+            LoadReport report = LoadGenerator.run(runtime, 200, 200, PlayerAction.NONE, 1);
+
+            assertEquals(report.getTables(), 200);
+            assertTrue(report.getRounds() > 0, "No rounds were played");
+            assertTrue(report.getRoundsPerSecond() > 0);
+            assertTrue(report.getLatencies().percentile(50) <= report.getLatencies().percentile(99));
+
+        }
+
+    }
+
+    /**
+     * Test that latency percentiles stay within the precision of the histogram buckets
+     */
+    @Test
+    public void testLatencyHistogram() {
+
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        for (long value = 1; value <= 100_000; value++) {
+            histogram.record(value * 1000);
+        }
+
+        assertEquals(histogram.getCount(), 100_000);
+        assertEquals(histogram.getMax(), 100_000_000);
+
+        for (double percentile : new double[]{50, 90, 99, 99.9}) {
+
+            double expected = percentile * 1_000_000;
+
+            assertEquals(histogram.percentile(percentile), expected, expected * 0.07, "Percentile " + percentile + " is off");
+
+        }
+
+    }
+
+}